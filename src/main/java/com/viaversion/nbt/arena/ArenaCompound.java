@@ -0,0 +1,356 @@
+package com.viaversion.nbt.arena;
+
+import com.viaversion.nbt.io.ModifiedUtf8;
+import com.viaversion.nbt.io.EncodedTags;
+import com.viaversion.nbt.io.TagRegistry;
+import com.viaversion.nbt.tag.ByteTag;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.DoubleTag;
+import com.viaversion.nbt.tag.FloatTag;
+import com.viaversion.nbt.tag.IntTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.LongTag;
+import com.viaversion.nbt.tag.ShortTag;
+import com.viaversion.nbt.tag.StringTag;
+import com.viaversion.nbt.tag.Tag;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Handle of a compound tag stored in a {@link TagArena}, mirroring the navigation and mutation methods of {@link CompoundTag}.
+ * Lookups scan the encoded entries and read values directly from the arena.
+ *
+ * @see ArenaTag
+ */
+public final class ArenaCompound extends ArenaTag {
+
+    ArenaCompound(final TagArena arena, final long address, final int length, @Nullable final ArenaTag parent) {
+        super(arena, address, length, parent);
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        final ByteBuffer chunk = this.chunk();
+        int index = this.start();
+        int size = 0;
+        int id;
+        while ((id = chunk.get(index)) != TagRegistry.END) {
+            index = EncodedTags.skip(chunk, valueIndex(chunk, index), id);
+            size++;
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return this.chunk().get(this.start()) == TagRegistry.END;
+    }
+
+    public boolean contains(final String key) {
+        return this.find(key) != -1;
+    }
+
+    /**
+     * Returns the keys of all entries in order.
+     *
+     * @return keys of the entries
+     */
+    public Set<String> keySet() {
+        final ByteBuffer chunk = this.chunk();
+        final Set<String> keys = new LinkedHashSet<>();
+        int index = this.start();
+        int id;
+        while ((id = chunk.get(index)) != TagRegistry.END) {
+            keys.add(readString(this.input(index + Byte.BYTES)));
+            index = EncodedTags.skip(chunk, valueIndex(chunk, index), id);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the tag id of the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return tag id of the entry, or {@link TagRegistry#END} if not present
+     */
+    public int getTagId(final String key) {
+        final int entry = this.find(key);
+        return entry != -1 ? this.chunk().get(entry) : TagRegistry.END;
+    }
+
+    /**
+     * Decodes the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return decoded tag if present, else null
+     */
+    public @Nullable Tag get(final String key) {
+        final int entry = this.find(key);
+        return entry != -1 ? this.decode(this.chunk().get(entry), valueIndex(this.chunk(), entry)) : null;
+    }
+
+    /**
+     * Returns a handle of the compound with the given key.
+     *
+     * @param key key of the entry
+     * @return compound handle if present and a compound, else null
+     */
+    public @Nullable ArenaCompound getCompound(final String key) {
+        final int entry = this.find(key);
+        if (entry == -1 || this.chunk().get(entry) != CompoundTag.ID) {
+            return null;
+        }
+
+        final int value = valueIndex(this.chunk(), entry);
+        return new ArenaCompound(this.arena, this.addressOf(value), EncodedTags.skip(this.chunk(), value, CompoundTag.ID) - value, this);
+    }
+
+    /**
+     * Returns a handle of the list with the given key.
+     *
+     * @param key key of the entry
+     * @return list handle if present and a list, else null
+     */
+    public @Nullable ArenaList getList(final String key) {
+        final int entry = this.find(key);
+        if (entry == -1 || this.chunk().get(entry) != ListTag.ID) {
+            return null;
+        }
+
+        final int value = valueIndex(this.chunk(), entry);
+        return new ArenaList(this.arena, this.addressOf(value), EncodedTags.skip(this.chunk(), value, ListTag.ID) - value, this);
+    }
+
+    public @Nullable String getString(final String key) {
+        return this.getString(key, null);
+    }
+
+    public @Nullable String getString(final String key, @Nullable final String def) {
+        final int entry = this.find(key);
+        if (entry == -1 || this.chunk().get(entry) != StringTag.ID) {
+            return def;
+        }
+        return readString(this.input(valueIndex(this.chunk(), entry)));
+    }
+
+    public int getInt(final String key) {
+        return this.getInt(key, 0);
+    }
+
+    public int getInt(final String key, final int def) {
+        final ByteBuffer chunk = this.chunk();
+        final int entry = this.findNumber(chunk, key);
+        return entry != -1 ? EncodedTags.intValue(chunk, valueIndex(chunk, entry), chunk.get(entry)) : def;
+    }
+
+    public long getLong(final String key) {
+        return this.getLong(key, 0L);
+    }
+
+    public long getLong(final String key, final long def) {
+        final ByteBuffer chunk = this.chunk();
+        final int entry = this.findNumber(chunk, key);
+        return entry != -1 ? EncodedTags.longValue(chunk, valueIndex(chunk, entry), chunk.get(entry)) : def;
+    }
+
+    public short getShort(final String key) {
+        return this.getShort(key, (short) 0);
+    }
+
+    public short getShort(final String key, final short def) {
+        final ByteBuffer chunk = this.chunk();
+        final int entry = this.findNumber(chunk, key);
+        return entry != -1 ? (short) EncodedTags.intValue(chunk, valueIndex(chunk, entry), chunk.get(entry)) : def;
+    }
+
+    public byte getByte(final String key) {
+        return this.getByte(key, (byte) 0);
+    }
+
+    public byte getByte(final String key, final byte def) {
+        final ByteBuffer chunk = this.chunk();
+        final int entry = this.findNumber(chunk, key);
+        return entry != -1 ? (byte) EncodedTags.intValue(chunk, valueIndex(chunk, entry), chunk.get(entry)) : def;
+    }
+
+    public float getFloat(final String key) {
+        return this.getFloat(key, 0.0F);
+    }
+
+    public float getFloat(final String key, final float def) {
+        final ByteBuffer chunk = this.chunk();
+        final int entry = this.findNumber(chunk, key);
+        return entry != -1 ? EncodedTags.floatValue(chunk, valueIndex(chunk, entry), chunk.get(entry)) : def;
+    }
+
+    public double getDouble(final String key) {
+        return this.getDouble(key, 0.0D);
+    }
+
+    public double getDouble(final String key, final double def) {
+        final ByteBuffer chunk = this.chunk();
+        final int entry = this.findNumber(chunk, key);
+        return entry != -1 ? EncodedTags.doubleValue(chunk, valueIndex(chunk, entry), chunk.get(entry)) : def;
+    }
+
+    public boolean getBoolean(final String key) {
+        return this.getBoolean(key, false);
+    }
+
+    public boolean getBoolean(final String key, final boolean def) {
+        final ByteBuffer chunk = this.chunk();
+        final int entry = this.findNumber(chunk, key);
+        return entry != -1 ? (byte) EncodedTags.intValue(chunk, valueIndex(chunk, entry), chunk.get(entry)) != 0 : def;
+    }
+
+    /**
+     * Puts a copy of the tag into this compound, replacing the entry with the same key in place or adding it at the end.
+     * Values with the same encoded size as the replaced one, such as numbers of the same type, are overwritten without copying the stored root tag.
+     *
+     * @param key key of the entry
+     * @param tag tag to put
+     * @throws IllegalStateException if the arena is closed
+     */
+    public void put(final String key, final Tag tag) {
+        if (tag == null) {
+            throw new IllegalArgumentException("Cannot add a null tag");
+        }
+        this.put(key, tag.getTagId(), tag, null);
+    }
+
+    /**
+     * Puts a copy of the tag held by another handle of the same arena into this compound.
+     *
+     * @param key key of the entry
+     * @param tag handle of the tag to put
+     * @throws IllegalArgumentException if the handle belongs to a different arena
+     */
+    public void put(final String key, final ArenaTag tag) {
+        if (tag.arena != this.arena) {
+            throw new IllegalArgumentException("Tag belongs to a different arena");
+        }
+        tag.checkValid();
+        this.put(key, tag.getTagId(), null, tag);
+    }
+
+    public void putString(final String key, final String value) {
+        this.put(key, new StringTag(value));
+    }
+
+    public void putByte(final String key, final byte value) {
+        this.put(key, ByteTag.valueOf(value));
+    }
+
+    public void putInt(final String key, final int value) {
+        this.put(key, IntTag.valueOf(value));
+    }
+
+    public void putShort(final String key, final short value) {
+        this.put(key, ShortTag.valueOf(value));
+    }
+
+    public void putLong(final String key, final long value) {
+        this.put(key, LongTag.valueOf(value));
+    }
+
+    public void putFloat(final String key, final float value) {
+        this.put(key, FloatTag.valueOf(value));
+    }
+
+    public void putDouble(final String key, final double value) {
+        this.put(key, DoubleTag.valueOf(value));
+    }
+
+    public void putBoolean(final String key, final boolean value) {
+        this.put(key, ByteTag.valueOf(value));
+    }
+
+    /**
+     * Removes the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return whether the entry was present
+     * @throws IllegalStateException if the arena is closed
+     */
+    public boolean remove(final String key) {
+        final int entry = this.find(key);
+        if (entry == -1) {
+            return false;
+        }
+
+        final int entryEnd = EncodedTags.skip(this.chunk(), valueIndex(this.chunk(), entry), this.chunk().get(entry));
+        this.splice(entry, entryEnd, 0, target -> {
+        });
+        return true;
+    }
+
+    @Override
+    public int getTagId() {
+        return CompoundTag.ID;
+    }
+
+    @Override
+    public CompoundTag toTag() {
+        return (CompoundTag) this.decode(CompoundTag.ID, this.start());
+    }
+
+    private void put(final String key, final int id, @Nullable final Tag tag, @Nullable final ArenaTag source) {
+        final int valueLength = tag != null ? tag.serializedSize() : source.length;
+        final Consumer<ByteBuffer> valueWriter = target -> {
+            if (tag != null) {
+                write(target, tag);
+            } else {
+                copy(target, source);
+            }
+        };
+
+        final int entry = this.find(key);
+        if (entry == -1) {
+            // New entries are added before the end tag
+            final int end = this.end() - Byte.BYTES;
+            this.splice(end, end, Byte.BYTES + Short.BYTES + ModifiedUtf8.encodedLength(key) + valueLength, target -> {
+                writeKey(target, id, key);
+                valueWriter.accept(target);
+            });
+            return;
+        }
+
+        // Replaced entries keep their position and key, only the value and id are written
+        final ByteBuffer chunk = this.chunk();
+        final int entryOffset = entry - this.start();
+        final int value = valueIndex(chunk, entry);
+        this.splice(value, EncodedTags.skip(chunk, value, chunk.get(entry)), valueLength, valueWriter);
+        this.chunk().put(this.start() + entryOffset, (byte) id);
+    }
+
+    private int findNumber(final ByteBuffer chunk, final String key) {
+        final int entry = this.find(key);
+        return entry != -1 && EncodedTags.isNumber(chunk.get(entry)) ? entry : -1;
+    }
+
+    /**
+     * Returns the absolute index of the entry with the given key, or -1 if not present.
+     */
+    private int find(final String key) {
+        final ByteBuffer chunk = this.chunk();
+        int index = this.start();
+        int id;
+        while ((id = chunk.get(index)) != TagRegistry.END) {
+            if (EncodedTags.stringEquals(chunk, index + Byte.BYTES, key)) {
+                return index;
+            }
+            index = EncodedTags.skip(chunk, valueIndex(chunk, index), id);
+        }
+        return -1;
+    }
+
+    private static int valueIndex(final ByteBuffer chunk, final int entry) {
+        return entry + Byte.BYTES + Short.BYTES + chunk.getChar(entry + Byte.BYTES);
+    }
+}
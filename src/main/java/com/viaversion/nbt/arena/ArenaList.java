@@ -0,0 +1,270 @@
+package com.viaversion.nbt.arena;
+
+import com.viaversion.nbt.io.EncodedTags;
+import com.viaversion.nbt.io.TagRegistry;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.StringTag;
+import com.viaversion.nbt.tag.Tag;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Handle of a list tag stored in a {@link TagArena}, mirroring the navigation and mutation methods of {@link ListTag}.
+ * Elements of numeric lists are found directly by their index, other elements by skipping the ones before them.
+ *
+ * @see ArenaTag
+ */
+public final class ArenaList extends ArenaTag {
+    private static final int HEADER_SIZE = Byte.BYTES + Integer.BYTES;
+
+    ArenaList(final TagArena arena, final long address, final int length, @Nullable final ArenaTag parent) {
+        super(arena, address, length, parent);
+    }
+
+    /**
+     * Returns the tag id of the elements.
+     *
+     * @return tag id of the elements, or {@link TagRegistry#END} if the list is empty
+     */
+    public int getElementId() {
+        return this.chunk().get(this.start());
+    }
+
+    /**
+     * Returns the tag type of the elements.
+     *
+     * @return tag type of the elements, or null if the list is empty
+     */
+    public @Nullable Class<? extends Tag> getElementType() {
+        final int id = this.getElementId();
+        return id != TagRegistry.END ? TagRegistry.getClassFor(id) : null;
+    }
+
+    public int size() {
+        return this.chunk().getInt(this.start() + Byte.BYTES);
+    }
+
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /**
+     * Decodes the element at the given index.
+     *
+     * @param index index of the element
+     * @return decoded tag
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public Tag get(final int index) {
+        return this.decode(this.getElementId(), this.elementIndex(index));
+    }
+
+    /**
+     * Returns a handle of the compound at the given index.
+     *
+     * @param index index of the element
+     * @return compound handle, or null if the list does not contain compounds
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public @Nullable ArenaCompound getCompound(final int index) {
+        final int element = this.elementIndex(index);
+        if (this.getElementId() != CompoundTag.ID) {
+            return null;
+        }
+        return new ArenaCompound(this.arena, this.addressOf(element), EncodedTags.skip(this.chunk(), element, CompoundTag.ID) - element, this);
+    }
+
+    /**
+     * Returns a handle of the list at the given index.
+     *
+     * @param index index of the element
+     * @return list handle, or null if the list does not contain lists
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public @Nullable ArenaList getList(final int index) {
+        final int element = this.elementIndex(index);
+        if (this.getElementId() != ListTag.ID) {
+            return null;
+        }
+        return new ArenaList(this.arena, this.addressOf(element), EncodedTags.skip(this.chunk(), element, ListTag.ID) - element, this);
+    }
+
+    /**
+     * Returns the string at the given index.
+     *
+     * @param index index of the element
+     * @return string, or null if the list does not contain strings
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public @Nullable String getString(final int index) {
+        final int element = this.elementIndex(index);
+        return this.getElementId() == StringTag.ID ? readString(this.input(element)) : null;
+    }
+
+    /**
+     * Returns the number at the given index as an int.
+     *
+     * @param index index of the element
+     * @return number at the given index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     * @throws ClassCastException if the list does not contain numbers
+     */
+    public int getInt(final int index) {
+        return EncodedTags.intValue(this.chunk(), this.numberIndex(index), this.getElementId());
+    }
+
+    /**
+     * Returns the number at the given index as a long.
+     *
+     * @param index index of the element
+     * @return number at the given index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     * @throws ClassCastException if the list does not contain numbers
+     */
+    public long getLong(final int index) {
+        return EncodedTags.longValue(this.chunk(), this.numberIndex(index), this.getElementId());
+    }
+
+    /**
+     * Returns the number at the given index as a float.
+     *
+     * @param index index of the element
+     * @return number at the given index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     * @throws ClassCastException if the list does not contain numbers
+     */
+    public float getFloat(final int index) {
+        return EncodedTags.floatValue(this.chunk(), this.numberIndex(index), this.getElementId());
+    }
+
+    /**
+     * Returns the number at the given index as a double.
+     *
+     * @param index index of the element
+     * @return number at the given index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     * @throws ClassCastException if the list does not contain numbers
+     */
+    public double getDouble(final int index) {
+        return EncodedTags.doubleValue(this.chunk(), this.numberIndex(index), this.getElementId());
+    }
+
+    /**
+     * Adds a copy of the tag to the end of the list.
+     *
+     * @param tag tag to add
+     * @throws IllegalArgumentException if the tag's type differs from the list's element type
+     * @throws IllegalStateException if the arena is closed
+     */
+    public void add(final Tag tag) {
+        this.checkType(tag.getTagId());
+        this.replace(this.size(), tag);
+    }
+
+    /**
+     * Replaces the element at the given index with a copy of the tag.
+     *
+     * @param index index of the element
+     * @param tag   tag to set
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     * @throws IllegalArgumentException if the tag's type differs from the list's element type
+     * @throws IllegalStateException if the arena is closed
+     */
+    public void set(final int index, final Tag tag) {
+        this.checkIndex(index);
+        this.checkType(tag.getTagId());
+        this.replace(index, tag);
+    }
+
+    /**
+     * Removes the element at the given index.
+     *
+     * @param index index of the element
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     * @throws IllegalStateException if the arena is closed
+     */
+    public void remove(final int index) {
+        final ByteBuffer chunk = this.chunk();
+        final int elementId = this.getElementId();
+        final int element = this.elementIndex(index);
+        final int elementEnd = EncodedTags.skip(chunk, element, elementId);
+        final int size = this.size() - 1;
+        this.splice(element, elementEnd, 0, target -> {
+        });
+        this.writeHeader(size != 0 ? elementId : TagRegistry.END, size); // Empty lists are written without an element type
+    }
+
+    @Override
+    public int getTagId() {
+        return ListTag.ID;
+    }
+
+    @Override
+    public ListTag<?> toTag() {
+        return (ListTag<?>) this.decode(ListTag.ID, this.start());
+    }
+
+    /**
+     * Replaces the element at the given index, or adds it if the index is the size of the list.
+     */
+    private void replace(final int index, final Tag tag) {
+        final ByteBuffer chunk = this.chunk();
+        final int size = this.size();
+        final int element = index < size ? this.elementIndex(index) : this.end();
+        final int elementEnd = index < size ? EncodedTags.skip(chunk, element, this.getElementId()) : element;
+        this.splice(element, elementEnd, tag.serializedSize(), target -> write(target, tag));
+        this.writeHeader(tag.getTagId(), index < size ? size : size + 1);
+    }
+
+    /**
+     * Writes the element id and size in place, after the elements have been changed.
+     */
+    private void writeHeader(final int id, final int size) {
+        final ByteBuffer chunk = this.chunk();
+        chunk.put(this.start(), (byte) id);
+        chunk.putInt(this.start() + Byte.BYTES, size);
+    }
+
+    private void checkType(final int id) {
+        final int elementId = this.getElementId();
+        if (elementId != TagRegistry.END && elementId != id) {
+            throw new IllegalArgumentException("Tag type " + TagRegistry.getClassFor(id).getSimpleName() + " differs from list type " + TagRegistry.getClassFor(elementId).getSimpleName());
+        }
+    }
+
+    private void checkIndex(final int index) {
+        final int size = this.size();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private int numberIndex(final int index) {
+        final int elementId = this.getElementId();
+        if (!EncodedTags.isNumber(elementId)) {
+            throw new ClassCastException("List does not contain numbers");
+        }
+        return this.elementIndex(index);
+    }
+
+    /**
+     * Returns the absolute index of the element at the given index.
+     */
+    private int elementIndex(final int index) {
+        this.checkIndex(index);
+        final ByteBuffer chunk = this.chunk();
+        final int elementId = this.getElementId();
+        final int first = this.start() + HEADER_SIZE;
+        final int fixedSize = EncodedTags.fixedSize(elementId);
+        if (fixedSize != -1) {
+            return first + index * fixedSize;
+        }
+
+        int element = first;
+        for (int i = 0; i < index; i++) {
+            element = EncodedTags.skip(chunk, element, elementId);
+        }
+        return element;
+    }
+}
@@ -0,0 +1,252 @@
+package com.viaversion.nbt.arena;
+
+import com.viaversion.nbt.io.ByteBufferDataInput;
+import com.viaversion.nbt.io.ByteBufferDataOutput;
+import com.viaversion.nbt.io.TagRegistry;
+import com.viaversion.nbt.limiter.TagLimiter;
+import com.viaversion.nbt.tag.Tag;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Handle of a compound or list tag stored in a {@link TagArena}.
+ * <p>
+ * Changes that keep the encoded size, such as replacing a number, are written in place.
+ * Other changes write a new copy of the stored root tag and free the old one, so its space can be reused by later allocations.
+ * <p>
+ * A handle obtained from another one stays valid until its parent is changed through any other handle.
+ * Changing a tag keeps the handles on the path from the stored root to it valid, but invalidates all other handles of nested tags obtained before,
+ * after which using them throws an {@link IllegalStateException}.
+ */
+public abstract class ArenaTag {
+    final TagArena arena;
+    private final ArenaTag parent;
+    private int parentVersion;
+    private int version;
+    private boolean freed;
+    long address;
+    int length;
+
+    ArenaTag(final TagArena arena, final long address, final int length, @Nullable final ArenaTag parent) {
+        this.arena = arena;
+        this.address = address;
+        this.length = length;
+        this.parent = parent;
+        this.parentVersion = parent != null ? parent.version : 0;
+    }
+
+    /**
+     * Returns the id of the stored tag.
+     *
+     * @return tag id
+     */
+    public abstract int getTagId();
+
+    /**
+     * Decodes the stored tag into a heap tag.
+     *
+     * @return decoded tag
+     * @throws IllegalStateException if the arena is closed
+     */
+    public abstract Tag toTag();
+
+    /**
+     * Returns the arena holding the tag.
+     *
+     * @return arena
+     */
+    public TagArena arena() {
+        return this.arena;
+    }
+
+    /**
+     * Returns the encoded size of the tag, not including its id or name.
+     *
+     * @return encoded size in bytes
+     */
+    public int serializedSize() {
+        this.checkValid();
+        return this.length;
+    }
+
+    /**
+     * Writes the encoded tag without its id or name, the same way {@link Tag#write(DataOutput)} would.
+     *
+     * @param out data output to write to
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalStateException if the arena is closed
+     */
+    public void write(final DataOutput out) throws IOException {
+        this.checkValid();
+        final byte[] bytes = new byte[this.length];
+        this.arena.region(this.address, this.length).get(bytes);
+        out.write(bytes);
+    }
+
+    /**
+     * Replaces the given absolute range of this tag's chunk with the given number of bytes written by the writer.
+     * <p>
+     * If the length stays the same, the bytes are written in place. Otherwise, a new copy of the root tag is written and the old one is freed,
+     * moving the handles on the path to this tag along. Either way, handles of nested tags on other paths are invalidated.
+     *
+     * @param from   absolute index of the first replaced byte, within this tag
+     * @param to     absolute index after the last replaced byte
+     * @param length number of bytes written by the writer
+     * @param writer writer of the new bytes, starting at the target buffer's position
+     */
+    final void splice(final int from, final int to, final int length, final Consumer<ByteBuffer> writer) {
+        final ByteBuffer chunk = this.chunk();
+        final int delta = length - (to - from);
+        if (delta == 0) {
+            final ByteBuffer target = chunk.duplicate();
+            ((Buffer) target).limit(to).position(from);
+            writer.accept(target);
+            checkWritten(target, to);
+        } else {
+            ArenaTag root = this;
+            while (root.parent != null) {
+                root = root.parent;
+            }
+
+            final long oldAddress = root.address;
+            final int prefix = from - root.start();
+            final int newLength = root.length + delta;
+            final long newAddress = this.arena.allocate(newLength);
+            final ByteBuffer target = this.arena.region(newAddress, newLength);
+            root.copy(target, root.start(), from);
+            writer.accept(target);
+            checkWritten(target, TagArena.offset(newAddress) + prefix + length);
+            root.copy(target, to, root.end());
+            this.arena.free(oldAddress, root.length);
+
+            // Tags on the path contain the replaced range, so their offsets from the root's start stay the same
+            for (ArenaTag tag = this; tag != null; tag = tag.parent) {
+                tag.address = newAddress + (tag.address - oldAddress);
+                tag.length += delta;
+            }
+        }
+
+        ArenaTag child = null;
+        for (ArenaTag tag = this; tag != null; tag = tag.parent) {
+            tag.version++;
+            if (child != null) {
+                child.parentVersion = tag.version;
+            }
+            child = tag;
+        }
+    }
+
+    private static void checkWritten(final ByteBuffer target, final int expectedPosition) {
+        if (target.position() != expectedPosition) {
+            throw new IllegalStateException("Written size differs from the serialized size by " + (target.position() - expectedPosition) + " bytes");
+        }
+    }
+
+    /**
+     * Marks this root tag as freed, invalidating it and all handles obtained from it.
+     */
+    final void markFreed() {
+        this.checkValid();
+        if (this.parent != null) {
+            throw new IllegalArgumentException("Only stored root tags can be freed");
+        }
+        this.freed = true;
+    }
+
+    /**
+     * Throws if a tag on the path from the stored root to this one has been changed through another handle, or the root has been freed.
+     */
+    final void checkValid() {
+        ArenaTag tag = this;
+        while (tag.parent != null) {
+            if (tag.parentVersion != tag.parent.version) {
+                throw new IllegalStateException("Handle is outdated, as its parent has been changed through another handle");
+            }
+            tag = tag.parent;
+        }
+        if (tag.freed) {
+            throw new IllegalStateException("Tag has been freed");
+        }
+    }
+
+    final ByteBuffer chunk() {
+        this.checkValid();
+        return this.arena.chunk(this.address);
+    }
+
+    final int start() {
+        return TagArena.offset(this.address);
+    }
+
+    final long addressOf(final int index) {
+        return this.address - this.start() + index;
+    }
+
+    final int end() {
+        return TagArena.offset(this.address) + this.length;
+    }
+
+    final ByteBufferDataInput input(final int from) {
+        final ByteBuffer buffer = this.chunk().duplicate();
+        ((Buffer) buffer).limit(this.end()).position(from);
+        return new ByteBufferDataInput(buffer);
+    }
+
+    final Tag decode(final int id, final int index) {
+        try {
+            return TagRegistry.read(id, this.input(index), TagLimiter.noop(), 0);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String readString(final ByteBufferDataInput in) {
+        try {
+            return in.readUTF();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Copies the given absolute range of this tag's chunk into the target buffer.
+     */
+    final void copy(final ByteBuffer target, final int from, final int to) {
+        final ByteBuffer source = this.chunk().duplicate();
+        ((Buffer) source).limit(to).position(from);
+        target.put(source);
+    }
+
+    /**
+     * Copies the encoded tag of the given handle into the target buffer.
+     */
+    static void copy(final ByteBuffer target, final ArenaTag tag) {
+        tag.copy(target, tag.start(), tag.end());
+    }
+
+    static void write(final ByteBuffer target, final Tag tag) {
+        final ByteBufferDataOutput out = new ByteBufferDataOutput(target);
+        try {
+            tag.write(out);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ((Buffer) target).position(out.position());
+    }
+
+    static void writeKey(final ByteBuffer target, final int id, final String key) {
+        target.put((byte) id);
+        final ByteBufferDataOutput out = new ByteBufferDataOutput(target);
+        try {
+            out.writeUTF(key);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ((Buffer) target).position(out.position());
+    }
+}
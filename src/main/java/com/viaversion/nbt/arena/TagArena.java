@@ -0,0 +1,289 @@
+package com.viaversion.nbt.arena;
+
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.Tag;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Arena storing encoded tags in large direct buffers outside of the garbage collected heap.
+ * <p>
+ * Stored tags are accessed through {@link ArenaCompound} and {@link ArenaList} handles, which read values directly from the encoded bytes.
+ * This keeps large amounts of rarely accessed tags from adding millions of small objects to the heap, as only the handles and a few chunk buffers are left.
+ * <p>
+ * Space of tags replaced by changes made through handles or freed with {@link #free(ArenaTag)} is reused by later allocations,
+ * with adjacent free space merged and chunks left empty dropped. Closing the arena releases everything at once and invalidates all of its handles.
+ * Arenas and their handles are not thread-safe.
+ */
+public final class TagArena implements AutoCloseable {
+    /**
+     * Default size of the chunks allocated by an arena, 1 MiB.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    private final int chunkSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>(); // Dropped chunks are set to null to keep the indices of the others
+    private final TreeMap<Long, FreeBlock> freeBlocksByAddress = new TreeMap<>();
+    private final TreeSet<FreeBlock> freeBlocksBySize = new TreeSet<>();
+    private int currentChunk = -1;
+    private int position;
+    private long usedBytes;
+    private long reservedBytes;
+    private boolean closed;
+
+    /**
+     * Creates an arena with the default chunk size.
+     */
+    public TagArena() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates an arena allocating chunks of the given size. Tags larger than a chunk are stored in a dedicated chunk.
+     *
+     * @param chunkSize size of the allocated chunks in bytes
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public TagArena(final int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Stores a copy of the given compound tag in the arena.
+     *
+     * @param tag tag to store
+     * @return handle of the stored tag
+     * @throws IllegalStateException if the arena is closed
+     * @throws java.io.UncheckedIOException if the tag cannot be encoded
+     */
+    public ArenaCompound store(final CompoundTag tag) {
+        final int length = tag.serializedSize();
+        final long address = this.allocate(length);
+        ArenaTag.write(this.region(address, length), tag);
+        return new ArenaCompound(this, address, length, null);
+    }
+
+    /**
+     * Stores a copy of the given list tag in the arena.
+     *
+     * @param tag tag to store
+     * @return handle of the stored tag
+     * @throws IllegalStateException if the arena is closed
+     * @throws java.io.UncheckedIOException if the tag cannot be encoded
+     */
+    public ArenaList store(final ListTag<?> tag) {
+        final int length = tag.serializedSize();
+        final long address = this.allocate(length);
+        ArenaTag.write(this.region(address, length), tag);
+        return new ArenaList(this, address, length, null);
+    }
+
+    /**
+     * Frees the space of a stored tag, so it can be reused by later allocations.
+     * The handle and all handles obtained from it can no longer be used afterwards.
+     *
+     * @param tag handle returned when storing the tag
+     * @throws IllegalArgumentException if the handle belongs to a different arena or is not a stored root tag
+     * @throws IllegalStateException if the arena is closed or the tag has already been freed
+     */
+    public void free(final ArenaTag tag) {
+        this.checkOpen();
+        if (tag.arena != this) {
+            throw new IllegalArgumentException("Tag belongs to a different arena");
+        }
+        tag.markFreed();
+        this.free(tag.address, tag.length);
+    }
+
+    /**
+     * Returns the number of bytes taken up by the stored tags.
+     *
+     * @return number of used bytes
+     */
+    public long usedBytes() {
+        return this.usedBytes;
+    }
+
+    /**
+     * Returns the total size of the chunks currently held by the arena.
+     *
+     * @return number of reserved bytes
+     */
+    public long reservedBytes() {
+        return this.reservedBytes;
+    }
+
+    /**
+     * Returns whether the arena has been closed.
+     *
+     * @return whether the arena is closed
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Releases all chunks of the arena at once and invalidates all handles.
+     * As direct buffers cannot be freed explicitly, their memory is returned once the few chunk buffers have been garbage collected.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.chunks.clear();
+        this.freeBlocksByAddress.clear();
+        this.freeBlocksBySize.clear();
+        this.currentChunk = -1;
+        this.usedBytes = 0;
+        this.reservedBytes = 0;
+    }
+
+    /**
+     * Allocates space for the given number of bytes, returning its address made of the chunk index and offset.
+     */
+    long allocate(final int length) {
+        this.checkOpen();
+        this.usedBytes += length;
+
+        // Take the smallest free block that fits, keeping its remainder free
+        final FreeBlock block = this.freeBlocksBySize.ceiling(new FreeBlock(-1, length));
+        if (block != null) {
+            this.removeFreeBlock(block);
+            if (block.length > length) {
+                this.addFreeBlock(new FreeBlock(block.address + length, block.length - length));
+            }
+            return block.address;
+        }
+
+        if (length > this.chunkSize) {
+            // Keep filling the current chunk afterwards
+            return address(this.addChunk(length), 0);
+        }
+
+        if (this.currentChunk == -1 || length > this.chunkSize - this.position) {
+            final int previousChunk = this.currentChunk;
+            final int previousPosition = this.position;
+            this.currentChunk = this.addChunk(this.chunkSize);
+            this.position = 0;
+            if (previousChunk != -1 && previousPosition < this.chunkSize) {
+                this.addFreeBlock(new FreeBlock(address(previousChunk, previousPosition), this.chunkSize - previousPosition));
+            }
+        }
+
+        final int offset = this.position;
+        this.position += length;
+        return address(this.currentChunk, offset);
+    }
+
+    /**
+     * Frees the given range, merging it with adjacent free space.
+     */
+    void free(final long address, final int length) {
+        this.usedBytes -= length;
+        this.addFreeBlock(new FreeBlock(address, length));
+    }
+
+    private void addFreeBlock(final FreeBlock block) {
+        long address = block.address;
+        int length = block.length;
+
+        // Blocks never span chunks, and the end address of one cannot be the start of a block in the next chunk
+        final Map.Entry<Long, FreeBlock> previous = this.freeBlocksByAddress.lowerEntry(address);
+        if (previous != null && previous.getValue().end() == address) {
+            this.removeFreeBlock(previous.getValue());
+            address = previous.getKey();
+            length += previous.getValue().length;
+        }
+        final FreeBlock next = this.freeBlocksByAddress.get(address + length);
+        if (next != null) {
+            this.removeFreeBlock(next);
+            length += next.length;
+        }
+
+        final int chunk = (int) (address >>> 32);
+        if (chunk == this.currentChunk && offset(address) + length == this.position) {
+            // Give the space back to the end of the current chunk
+            this.position = offset(address);
+            return;
+        }
+        if (chunk != this.currentChunk && offset(address) == 0 && length == this.chunks.get(chunk).capacity()) {
+            this.chunks.set(chunk, null);
+            this.reservedBytes -= length;
+            return;
+        }
+
+        final FreeBlock merged = new FreeBlock(address, length);
+        this.freeBlocksByAddress.put(address, merged);
+        this.freeBlocksBySize.add(merged);
+    }
+
+    private void removeFreeBlock(final FreeBlock block) {
+        this.freeBlocksByAddress.remove(block.address);
+        this.freeBlocksBySize.remove(block);
+    }
+
+    private int addChunk(final int size) {
+        this.chunks.add(ByteBuffer.allocateDirect(size));
+        this.reservedBytes += size;
+        return this.chunks.size() - 1;
+    }
+
+    /**
+     * Returns the chunk holding the given address.
+     */
+    ByteBuffer chunk(final long address) {
+        this.checkOpen();
+        return this.chunks.get((int) (address >>> 32));
+    }
+
+    /**
+     * Returns a buffer over the given range, positioned at its start.
+     */
+    ByteBuffer region(final long address, final int length) {
+        final ByteBuffer buffer = this.chunk(address).duplicate();
+        final int offset = offset(address);
+        ((Buffer) buffer).limit(offset + length).position(offset);
+        return buffer;
+    }
+
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("Arena is closed");
+        }
+    }
+
+    static long address(final int chunk, final int offset) {
+        return ((long) chunk << 32) | offset;
+    }
+
+    static int offset(final long address) {
+        return (int) address;
+    }
+
+    private static final class FreeBlock implements Comparable<FreeBlock> {
+        private final long address;
+        private final int length;
+
+        private FreeBlock(final long address, final int length) {
+            this.address = address;
+            this.length = length;
+        }
+
+        private long end() {
+            return this.address + this.length;
+        }
+
+        @Override
+        public int compareTo(final FreeBlock other) {
+            final int compare = Integer.compare(this.length, other.length);
+            return compare != 0 ? compare : Long.compare(this.address, other.address);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.viaversion.nbt.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
+
+/**
+ * Compression format used for reading and writing NBT files.
+ * <p>
+ * The built-in deflate based codecs buffer both their compressed and decompressed side, so callers don't need to wrap them in buffered streams,
+ * and reuse pooled {@link java.util.zip.Inflater} and {@link Deflater} instances, which are returned to the pool once the streams are closed.
+ *
+ * @see com.viaversion.nbt.io.TagReader#read(java.nio.file.Path, CompressionCodec)
+ * @see com.viaversion.nbt.io.TagWriter#write(java.nio.file.Path, com.viaversion.nbt.tag.Tag, CompressionCodec)
+ */
+public interface CompressionCodec {
+
+    /**
+     * Returns a codec neither compressing nor decompressing data.
+     *
+     * @return codec without compression
+     */
+    static CompressionCodec none() {
+        return NoCompressionCodec.INSTANCE;
+    }
+
+    /**
+     * Returns a gzip codec using the default compression level, as used by standard NBT files.
+     *
+     * @return gzip codec
+     */
+    static CompressionCodec gzip() {
+        return DeflateCodec.GZIP;
+    }
+
+    /**
+     * Returns a gzip codec using the given compression level.
+     *
+     * @param level compression level from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}
+     * @return gzip codec
+     * @throws IllegalArgumentException if the level is invalid
+     */
+    static CompressionCodec gzip(final int level) {
+        return new DeflateCodec(true, level, null);
+    }
+
+    /**
+     * Returns a zlib codec using the default compression level, as used in region files and network packets.
+     *
+     * @return zlib codec
+     */
+    static CompressionCodec zlib() {
+        return DeflateCodec.ZLIB;
+    }
+
+    /**
+     * Returns a zlib codec using the given compression level.
+     *
+     * @param level compression level from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}
+     * @return zlib codec
+     * @throws IllegalArgumentException if the level is invalid
+     */
+    static CompressionCodec zlib(final int level) {
+        return new DeflateCodec(false, level, null);
+    }
+
+    /**
+     * Returns a zlib codec using the given compression level and preset dictionary.
+     * Data compressed with a dictionary can only be decompressed with the same dictionary,
+     * which makes this mostly useful for small tags that share many keys and values, such as items or entities.
+     * The gzip format has no way to refer to a dictionary, so only zlib is supported.
+     *
+     * @param level      compression level from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param dictionary preset dictionary
+     * @return zlib codec
+     * @throws IllegalArgumentException if the level is invalid
+     * @see CompressionDictionary#train(Iterable)
+     */
+    static CompressionCodec zlib(final int level, final CompressionDictionary dictionary) {
+        if (dictionary == null) {
+            throw new NullPointerException("dictionary cannot be null");
+        }
+        return new DeflateCodec(false, level, dictionary);
+    }
+
+    /**
+     * Returns a gzip codec compressing and decompressing blocks of data in parallel on the given executor.
+     * Uses the default compression level and 1 MiB blocks.
+     *
+     * @param executor executor to run block compression and decompression on
+     * @return parallel gzip codec
+     * @see #parallelGzip(int, int, Executor)
+     */
+    static CompressionCodec parallelGzip(final Executor executor) {
+        return new ParallelGzipCodec(Deflater.DEFAULT_COMPRESSION, ParallelGzipCodec.DEFAULT_BLOCK_SIZE, executor);
+    }
+
+    /**
+     * Returns a gzip codec compressing and decompressing blocks of data in parallel on the given executor.
+     * <p>
+     * Every block is written as a separate gzip member, so the output can be read by any gzip decompressor,
+     * including {@link #gzip()}. The members additionally store their compressed size, which lets this codec
+     * decompress them in parallel as well. Other gzip data is decompressed sequentially.
+     * Smaller blocks allow more parallelism on smaller files, while slightly reducing the compression ratio.
+     *
+     * @param level     compression level from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param blockSize number of uncompressed bytes per block
+     * @param executor  executor to run block compression and decompression on
+     * @return parallel gzip codec
+     * @throws IllegalArgumentException if the level or block size is invalid
+     */
+    static CompressionCodec parallelGzip(final int level, final int blockSize, final Executor executor) {
+        return new ParallelGzipCodec(level, blockSize, executor);
+    }
+
+    /**
+     * Returns a codec detecting gzip, zlib, or uncompressed data from the magic bytes at the start of the data when decompressing.
+     * Compressing uses gzip with the default compression level.
+     *
+     * @return detecting codec
+     */
+    static CompressionCodec detect() {
+        return DetectingCodec.INSTANCE;
+    }
+
+    /**
+     * Returns a stream decompressing the data of the given stream. Closing the returned stream also closes the given stream.
+     *
+     * @param in stream to read compressed data from
+     * @return stream of decompressed data
+     * @throws IOException if an I/O error occurs, or if the data does not start with a valid header
+     */
+    InputStream decompress(InputStream in) throws IOException;
+
+    /**
+     * Returns a stream compressing the data written to it into the given stream.
+     * The returned stream has to be closed to finish the compressed data. Closing it also closes the given stream.
+     *
+     * @param out stream to write compressed data to
+     * @return stream compressing written data
+     * @throws IOException if an I/O error occurs
+     */
+    OutputStream compress(OutputStream out) throws IOException;
+}
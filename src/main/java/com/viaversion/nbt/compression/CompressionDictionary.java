@@ -0,0 +1,221 @@
+package com.viaversion.nbt.compression;
+
+import com.viaversion.nbt.io.ByteBufferDataOutput;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.NumberTag;
+import com.viaversion.nbt.tag.StringTag;
+import com.viaversion.nbt.tag.Tag;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Adler32;
+
+/**
+ * Preset dictionary for deflate compression, letting small payloads refer to common byte sequences from the start.
+ * <p>
+ * The same dictionary has to be used for compressing and decompressing data. Dictionaries can be trained from sample tags
+ * through {@link #train(Iterable)} and stored via {@link #toByteArray()} to be loaded again with {@link #of(byte[])}.
+ *
+ * @see CompressionCodec#zlib(int, CompressionDictionary)
+ */
+public final class CompressionDictionary {
+    /**
+     * Max size of a dictionary, as deflate can only refer back to the last 32 KiB.
+     */
+    public static final int MAX_SIZE = 32768;
+    private static final int MAX_FRAGMENT_LENGTH = 256;
+    private final byte[] bytes;
+    private final int id;
+
+    private CompressionDictionary(final byte[] bytes) {
+        this.bytes = bytes;
+
+        final Adler32 adler = new Adler32();
+        adler.update(bytes, 0, bytes.length);
+        this.id = (int) adler.getValue();
+    }
+
+    /**
+     * Creates a dictionary from the given bytes. Sequences that are expected to be used the most should come last.
+     *
+     * @param bytes dictionary bytes
+     * @return dictionary
+     * @throws IllegalArgumentException if the dictionary is larger than {@link #MAX_SIZE}
+     */
+    public static CompressionDictionary of(final byte[] bytes) {
+        if (bytes.length > MAX_SIZE) {
+            throw new IllegalArgumentException("Dictionary too large: " + bytes.length + " bytes");
+        }
+        return new CompressionDictionary(bytes.clone());
+    }
+
+    /**
+     * Trains a dictionary of up to {@link #MAX_SIZE} bytes from the given sample tags.
+     *
+     * @param samples sample tags, which should resemble the tags later compressed with the dictionary
+     * @return trained dictionary
+     * @see #train(Iterable, int)
+     */
+    public static CompressionDictionary train(final Iterable<? extends Tag> samples) {
+        return train(samples, MAX_SIZE);
+    }
+
+    /**
+     * Trains a dictionary from the given sample tags.
+     * <p>
+     * The dictionary is made of encoded byte sequences that repeat across the samples: compound keys with their tag id,
+     * both on their own and followed by their value for numbers and strings, as well as strings in lists.
+     * Sequences that would save the most bytes are placed last, where deflate can refer to them with the shortest distances.
+     *
+     * @param samples sample tags, which should resemble the tags later compressed with the dictionary
+     * @param maxSize max size of the dictionary
+     * @return trained dictionary
+     * @throws IllegalArgumentException if the max size is negative or larger than {@link #MAX_SIZE}
+     */
+    public static CompressionDictionary train(final Iterable<? extends Tag> samples, final int maxSize) {
+        if (maxSize < 0 || maxSize > MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid dictionary size: " + maxSize);
+        }
+
+        final Map<ByteBuffer, int[]> counts = new HashMap<>();
+        final ByteBufferDataOutput out = new ByteBufferDataOutput(MAX_FRAGMENT_LENGTH);
+        try {
+            for (final Tag sample : samples) {
+                countFragments(sample, counts, out);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final List<Map.Entry<ByteBuffer, int[]>> fragments = new ArrayList<>();
+        for (final Map.Entry<ByteBuffer, int[]> entry : counts.entrySet()) {
+            if (entry.getValue()[0] > 1) {
+                fragments.add(entry);
+            }
+        }
+        fragments.sort((a, b) -> Long.compare(savings(b), savings(a)));
+
+        // Take the fragments saving the most bytes, then write them in reverse to put them at the end
+        final List<ByteBuffer> selected = new ArrayList<>();
+        int size = 0;
+        for (final Map.Entry<ByteBuffer, int[]> fragment : fragments) {
+            final int length = fragment.getKey().remaining();
+            if (size + length <= maxSize) {
+                selected.add(fragment.getKey());
+                size += length;
+            }
+        }
+
+        final byte[] bytes = new byte[size];
+        int index = 0;
+        for (int i = selected.size() - 1; i >= 0; i--) {
+            final ByteBuffer fragment = selected.get(i);
+            final int length = fragment.remaining();
+            fragment.duplicate().get(bytes, index, length);
+            index += length;
+        }
+        return new CompressionDictionary(bytes);
+    }
+
+    private static long savings(final Map.Entry<ByteBuffer, int[]> fragment) {
+        return (long) (fragment.getValue()[0] - 1) * fragment.getKey().remaining();
+    }
+
+    private static void countFragments(final Tag tag, final Map<ByteBuffer, int[]> counts, final ByteBufferDataOutput out) throws IOException {
+        if (tag instanceof CompoundTag) {
+            for (final Map.Entry<String, Tag> entry : ((CompoundTag) tag).entrySet()) {
+                final Tag value = entry.getValue();
+                out.reset();
+                out.writeByte(value.getTagId());
+                out.writeUTF(entry.getKey());
+                count(out, counts);
+                if (value instanceof StringTag || value instanceof NumberTag) {
+                    // Identifiers, counts, and similar values often repeat together with their key
+                    value.write(out);
+                    count(out, counts);
+                } else {
+                    countFragments(value, counts, out);
+                }
+            }
+        } else if (tag instanceof ListTag) {
+            for (final Tag element : (ListTag<?>) tag) {
+                if (element instanceof StringTag) {
+                    out.reset();
+                    element.write(out);
+                    count(out, counts);
+                } else {
+                    countFragments(element, counts, out);
+                }
+            }
+        }
+    }
+
+    private static void count(final ByteBufferDataOutput out, final Map<ByteBuffer, int[]> counts) {
+        final int length = out.bytesWritten();
+        if (length > MAX_FRAGMENT_LENGTH) {
+            return;
+        }
+
+        final int[] count = counts.get(out.writtenBuffer());
+        if (count != null) {
+            count[0]++;
+        } else {
+            counts.put(ByteBuffer.wrap(out.toByteArray()), new int[]{1});
+        }
+    }
+
+    /**
+     * Returns the Adler-32 checksum of the dictionary, which zlib data compressed with it refers to.
+     *
+     * @return dictionary id
+     */
+    public int id() {
+        return this.id;
+    }
+
+    /**
+     * Returns the size of the dictionary in bytes.
+     *
+     * @return dictionary size
+     */
+    public int size() {
+        return this.bytes.length;
+    }
+
+    /**
+     * Returns a copy of the dictionary bytes.
+     *
+     * @return dictionary bytes
+     */
+    public byte[] toByteArray() {
+        return this.bytes.clone();
+    }
+
+    byte[] bytes() {
+        return this.bytes;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final CompressionDictionary that = (CompressionDictionary) o;
+        return this.id == that.id && Arrays.equals(this.bytes, that.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.id;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionDictionary{size=" + this.bytes.length + ", id=" + Integer.toHexString(this.id) + "}";
+    }
+}
@@ -0,0 +1,56 @@
+package com.viaversion.nbt.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.zip.Deflater;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Codec for deflate compressed data, either in the gzip or zlib format.
+ */
+final class DeflateCodec implements CompressionCodec {
+    static final DeflateCodec GZIP = new DeflateCodec(true, Deflater.DEFAULT_COMPRESSION, null);
+    static final DeflateCodec ZLIB = new DeflateCodec(false, Deflater.DEFAULT_COMPRESSION, null);
+    private final boolean gzip;
+    private final int level;
+    private final CompressionDictionary dictionary;
+
+    DeflateCodec(final boolean gzip, final int level, @Nullable final CompressionDictionary dictionary) {
+        if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        this.gzip = gzip;
+        this.level = level;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public InputStream decompress(final InputStream in) throws IOException {
+        return new InflatingInputStream(in, this.gzip, this.dictionary);
+    }
+
+    @Override
+    public OutputStream compress(final OutputStream out) throws IOException {
+        return new DeflatingOutputStream(out, this.gzip, this.level, this.dictionary);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final DeflateCodec that = (DeflateCodec) o;
+        return this.gzip == that.gzip && this.level == that.level && Objects.equals(this.dictionary, that.dictionary);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Boolean.hashCode(this.gzip) + this.level) + Objects.hashCode(this.dictionary);
+    }
+
+    @Override
+    public String toString() {
+        return (this.gzip ? "gzip" : "zlib") + "(level=" + this.level + (this.dictionary != null ? ", dictionary=" + this.dictionary : "") + ")";
+    }
+}
@@ -0,0 +1,149 @@
+package com.viaversion.nbt.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Output stream deflating written data into the gzip or zlib format with a pooled deflater.
+ * <p>
+ * Unlike {@link java.util.zip.GZIPOutputStream}, written data is buffered before being passed to the deflater,
+ * so writing single bytes or small values does not call into the deflater each time.
+ */
+final class DeflatingOutputStream extends OutputStream {
+    private static final byte[] GZIP_HEADER = {0x1F, (byte) 0x8B, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private final OutputStream out;
+    private final boolean gzip;
+    private final byte[] input = new byte[InflatingInputStream.BUFFER_SIZE];
+    private final byte[] output = new byte[InflatingInputStream.BUFFER_SIZE];
+    private final CRC32 crc;
+    private Deflater deflater;
+    private int inputLength;
+    private boolean finished;
+
+    DeflatingOutputStream(final OutputStream out, final boolean gzip, final int level, @Nullable final CompressionDictionary dictionary) throws IOException {
+        this.out = out;
+        this.gzip = gzip;
+        this.crc = gzip ? new CRC32() : null;
+        if (gzip) {
+            out.write(GZIP_HEADER);
+        }
+        this.deflater = ZipPools.acquireDeflater(level, gzip);
+        if (dictionary != null) {
+            this.deflater.setDictionary(dictionary.bytes());
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        if (this.inputLength == this.input.length) {
+            this.flushInput();
+        }
+        this.input[this.inputLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (len >= this.input.length) {
+            // Deflate large writes directly from the source array
+            this.flushInput();
+            this.deflate(b, off, len);
+            return;
+        }
+
+        if (len > this.input.length - this.inputLength) {
+            this.flushInput();
+        }
+        System.arraycopy(b, off, this.input, this.inputLength, len);
+        this.inputLength += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.flushInput();
+        this.out.flush();
+    }
+
+    /**
+     * Finishes writing the compressed data without closing the underlying stream.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void finish() throws IOException {
+        if (this.finished) {
+            return;
+        }
+
+        this.flushInput();
+        this.deflater.finish();
+        while (!this.deflater.finished()) {
+            this.writeDeflated();
+        }
+
+        if (this.gzip) {
+            writeIntLE(this.out, (int) this.crc.getValue());
+            writeIntLE(this.out, (int) this.deflater.getBytesRead());
+        }
+        this.finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.deflater == null) {
+            return;
+        }
+
+        try {
+            this.finish();
+        } finally {
+            ZipPools.releaseDeflater(this.deflater, this.gzip);
+            this.deflater = null;
+            this.out.close();
+        }
+    }
+
+    private void flushInput() throws IOException {
+        if (this.deflater == null) {
+            throw new IOException("Stream closed");
+        }
+        if (this.finished) {
+            throw new IOException("Compressed data already finished");
+        }
+
+        if (this.inputLength != 0) {
+            this.deflate(this.input, 0, this.inputLength);
+            this.inputLength = 0;
+        }
+    }
+
+    private void deflate(final byte[] b, final int off, final int len) throws IOException {
+        if (this.crc != null) {
+            this.crc.update(b, off, len);
+        }
+
+        this.deflater.setInput(b, off, len);
+        while (!this.deflater.needsInput()) {
+            this.writeDeflated();
+        }
+    }
+
+    private void writeDeflated() throws IOException {
+        final int length = this.deflater.deflate(this.output, 0, this.output.length);
+        if (length > 0) {
+            this.out.write(this.output, 0, length);
+        }
+    }
+
+    private static void writeIntLE(final OutputStream out, final int value) throws IOException {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+}
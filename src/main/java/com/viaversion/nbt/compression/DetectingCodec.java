@@ -0,0 +1,59 @@
+package com.viaversion.nbt.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+
+/**
+ * Codec choosing the format to decompress from the first two bytes of the data.
+ */
+final class DetectingCodec implements CompressionCodec {
+    static final DetectingCodec INSTANCE = new DetectingCodec();
+    private static final int GZIP_MAGIC_1 = 0x1F;
+    private static final int GZIP_MAGIC_2 = 0x8B;
+    private static final int ZLIB_DEFLATE_METHOD = 8;
+
+    private DetectingCodec() {
+    }
+
+    @Override
+    public InputStream decompress(final InputStream in) throws IOException {
+        final PushbackInputStream pushbackIn = new PushbackInputStream(in, 2);
+        final int first = pushbackIn.read();
+        if (first == -1) {
+            return pushbackIn;
+        }
+
+        final int second = pushbackIn.read();
+        if (second != -1) {
+            pushbackIn.unread(second);
+        }
+        pushbackIn.unread(first);
+        return detect(first, second).decompress(pushbackIn);
+    }
+
+    @Override
+    public OutputStream compress(final OutputStream out) throws IOException {
+        return DeflateCodec.GZIP.compress(out);
+    }
+
+    /**
+     * Returns the codec for data starting with the given bytes.
+     * Uncompressed NBT starts with a tag id, which never looks like a gzip or zlib header.
+     */
+    static CompressionCodec detect(final int first, final int second) {
+        if (first == GZIP_MAGIC_1 && second == GZIP_MAGIC_2) {
+            return DeflateCodec.GZIP;
+        }
+        if (second != -1 && (first & 0x0F) == ZLIB_DEFLATE_METHOD && ((first << 8) | second) % 31 == 0) {
+            return DeflateCodec.ZLIB;
+        }
+        return NoCompressionCodec.INSTANCE;
+    }
+
+    @Override
+    public String toString() {
+        return "detect";
+    }
+}
@@ -0,0 +1,290 @@
+package com.viaversion.nbt.compression;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Input stream inflating gzip or zlib data with a pooled inflater.
+ * <p>
+ * Unlike {@link java.util.zip.GZIPInputStream}, inflated data is buffered, so reading single bytes or small values does not call into the inflater each time.
+ * Gzip data can consist of multiple members, which are read one after another.
+ */
+final class InflatingInputStream extends InputStream {
+    static final int BUFFER_SIZE = 8192;
+    private static final int GZIP_MAGIC = 0x8B1F;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private final InputStream in;
+    private final boolean gzip;
+    private final byte[] input = new byte[BUFFER_SIZE];
+    private final byte[] output = new byte[BUFFER_SIZE];
+    private final CRC32 crc;
+    private final CompressionDictionary dictionary;
+    private Inflater inflater;
+    private int inputPosition;
+    private int inputLimit;
+    private int outputPosition;
+    private int outputLimit;
+    private boolean finished;
+
+    InflatingInputStream(final InputStream in, final boolean gzip, @Nullable final CompressionDictionary dictionary) throws IOException {
+        this.in = in;
+        this.gzip = gzip;
+        this.dictionary = dictionary;
+        this.crc = gzip ? new CRC32() : null;
+        this.inflater = ZipPools.acquireInflater(gzip);
+        try {
+            if (gzip) {
+                this.readHeader();
+            }
+        } catch (final IOException e) {
+            this.releaseInflater();
+            throw e;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (this.outputPosition == this.outputLimit && !this.fillOutput()) {
+            return -1;
+        }
+        return this.output[this.outputPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        final int buffered = this.outputLimit - this.outputPosition;
+        if (buffered > 0) {
+            final int length = Math.min(buffered, len);
+            System.arraycopy(this.output, this.outputPosition, b, off, length);
+            this.outputPosition += length;
+            return length;
+        }
+
+        // Inflate large reads directly into the target array
+        if (len >= BUFFER_SIZE) {
+            return this.inflate(b, off, len);
+        }
+        if (!this.fillOutput()) {
+            return -1;
+        }
+
+        final int length = Math.min(this.outputLimit, len);
+        System.arraycopy(this.output, 0, b, off, length);
+        this.outputPosition = length;
+        return length;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n) {
+            if (this.outputPosition == this.outputLimit && !this.fillOutput()) {
+                break;
+            }
+
+            final int length = (int) Math.min(this.outputLimit - this.outputPosition, n - skipped);
+            this.outputPosition += length;
+            skipped += length;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        this.ensureOpen();
+        return this.outputLimit - this.outputPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.inflater != null) {
+            this.releaseInflater();
+            this.in.close();
+        }
+    }
+
+    private void releaseInflater() {
+        ZipPools.releaseInflater(this.inflater, this.gzip);
+        this.inflater = null;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.inflater == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private boolean fillOutput() throws IOException {
+        final int length = this.inflate(this.output, 0, this.output.length);
+        this.outputPosition = 0;
+        this.outputLimit = Math.max(length, 0);
+        return length > 0;
+    }
+
+    /**
+     * Inflates data into the given array, returning the number of inflated bytes, or -1 if the end of the data is reached.
+     */
+    private int inflate(final byte[] b, final int off, final int len) throws IOException {
+        this.ensureOpen();
+        while (!this.finished) {
+            final int length;
+            try {
+                length = this.inflater.inflate(b, off, len);
+            } catch (final DataFormatException e) {
+                throw new ZipException(e.getMessage() != null ? e.getMessage() : "Invalid compressed data");
+            }
+
+            if (length > 0) {
+                if (this.crc != null) {
+                    this.crc.update(b, off, length);
+                }
+                return length;
+            }
+
+            if (this.inflater.finished()) {
+                this.finishMember();
+            } else if (this.inflater.needsDictionary()) {
+                if (this.dictionary == null) {
+                    throw new ZipException("Data requires a preset dictionary");
+                }
+                if (this.inflater.getAdler() != this.dictionary.id()) {
+                    throw new ZipException("Data requires a different preset dictionary");
+                }
+                this.inflater.setDictionary(this.dictionary.bytes());
+            } else if (this.inflater.needsInput()) {
+                this.inputPosition = this.inputLimit;
+                if (!this.ensureInput(1)) {
+                    throw new EOFException("Unexpected end of compressed data");
+                }
+                this.inflater.setInput(this.input, this.inputPosition, this.inputLimit - this.inputPosition);
+            }
+        }
+        return -1;
+    }
+
+    private void finishMember() throws IOException {
+        // Take back the input the inflater did not consume
+        this.inputPosition = this.inputLimit - this.inflater.getRemaining();
+        if (!this.gzip) {
+            this.finished = true;
+            return;
+        }
+
+        final long crc = this.readIntLE() & 0xFFFFFFFFL;
+        final long size = this.readIntLE() & 0xFFFFFFFFL;
+        if (crc != this.crc.getValue() || size != (this.inflater.getBytesWritten() & 0xFFFFFFFFL)) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+
+        // Continue with the next member if there is one, ignoring any other trailing data like GZIPInputStream does
+        if (!this.ensureInput(2) || this.peekShortLE() != GZIP_MAGIC) {
+            this.finished = true;
+            return;
+        }
+
+        this.inflater.reset();
+        this.crc.reset();
+        this.readHeader();
+    }
+
+    private void readHeader() throws IOException {
+        if (this.readShortLE() != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if (this.readByte() != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+
+        final int flags = this.readByte();
+        this.skipInput(6); // Modification time, extra flags, and operating system
+        if ((flags & FEXTRA) != 0) {
+            this.skipInput(this.readShortLE());
+        }
+        if ((flags & FNAME) != 0) {
+            this.skipZeroTerminated();
+        }
+        if ((flags & FCOMMENT) != 0) {
+            this.skipZeroTerminated();
+        }
+        if ((flags & FHCRC) != 0) {
+            this.skipInput(2);
+        }
+        this.inflater.setInput(this.input, this.inputPosition, this.inputLimit - this.inputPosition);
+    }
+
+    /**
+     * Makes sure at least the given number of unconsumed input bytes are buffered, returning false if the stream ends before.
+     */
+    private boolean ensureInput(final int bytes) throws IOException {
+        if (this.inputLimit - this.inputPosition >= bytes) {
+            return true;
+        }
+
+        // Move the unconsumed bytes to the start
+        final int remaining = this.inputLimit - this.inputPosition;
+        System.arraycopy(this.input, this.inputPosition, this.input, 0, remaining);
+        this.inputPosition = 0;
+        this.inputLimit = remaining;
+        while (this.inputLimit < bytes) {
+            final int read = this.in.read(this.input, this.inputLimit, this.input.length - this.inputLimit);
+            if (read == -1) {
+                return false;
+            }
+            this.inputLimit += read;
+        }
+        return true;
+    }
+
+    private int readByte() throws IOException {
+        if (!this.ensureInput(1)) {
+            throw new EOFException("Unexpected end of GZIP data");
+        }
+        return this.input[this.inputPosition++] & 0xFF;
+    }
+
+    private int readShortLE() throws IOException {
+        return this.readByte() | (this.readByte() << 8);
+    }
+
+    private int readIntLE() throws IOException {
+        return this.readShortLE() | (this.readShortLE() << 16);
+    }
+
+    private int peekShortLE() {
+        return (this.input[this.inputPosition] & 0xFF) | ((this.input[this.inputPosition + 1] & 0xFF) << 8);
+    }
+
+    private void skipInput(int bytes) throws IOException {
+        while (bytes > 0) {
+            if (!this.ensureInput(1)) {
+                throw new EOFException("Unexpected end of GZIP data");
+            }
+
+            final int skipped = Math.min(bytes, this.inputLimit - this.inputPosition);
+            this.inputPosition += skipped;
+            bytes -= skipped;
+        }
+    }
+
+    private void skipZeroTerminated() throws IOException {
+        while (this.readByte() != 0) {
+            // Skip until the terminating zero
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.viaversion.nbt.compression;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+final class NoCompressionCodec implements CompressionCodec {
+    static final NoCompressionCodec INSTANCE = new NoCompressionCodec();
+
+    private NoCompressionCodec() {
+    }
+
+    @Override
+    public InputStream decompress(final InputStream in) {
+        return in;
+    }
+
+    @Override
+    public OutputStream compress(final OutputStream out) {
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return "none";
+    }
+}
@@ -0,0 +1,128 @@
+package com.viaversion.nbt.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Output stream collecting written data into blocks, which are compressed into separate gzip members on an executor
+ * and written to the underlying stream in order.
+ */
+final class ParallelDeflatingOutputStream extends OutputStream {
+    private final Queue<CompletableFuture<ByteBuffer>> pending = new ArrayDeque<>();
+    private final OutputStream out;
+    private final int level;
+    private final int blockSize;
+    private final Executor executor;
+    private final int maxPendingBlocks;
+    private byte[] block;
+    private int blockLength;
+    private boolean submittedBlock;
+    private boolean closed;
+
+    ParallelDeflatingOutputStream(final OutputStream out, final int level, final int blockSize, final Executor executor, final int maxPendingBlocks) {
+        this.out = out;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.executor = executor;
+        this.maxPendingBlocks = maxPendingBlocks;
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.ensureOpen();
+        if (this.blockLength == this.block.length) {
+            this.submitBlock();
+        }
+        this.block[this.blockLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        this.ensureOpen();
+        while (len > 0) {
+            if (this.blockLength == this.block.length) {
+                this.submitBlock();
+            }
+
+            final int length = Math.min(len, this.block.length - this.blockLength);
+            System.arraycopy(b, off, this.block, this.blockLength, length);
+            this.blockLength += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    /**
+     * Writes all blocks compressed so far and flushes the underlying stream. The current block is not cut short by this.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        this.ensureOpen();
+        while (!this.pending.isEmpty()) {
+            this.writeNextBlock();
+        }
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        try {
+            // Gzip data needs at least one member, even if nothing was written
+            if (this.blockLength != 0 || !this.submittedBlock) {
+                this.submitBlock();
+            }
+            while (!this.pending.isEmpty()) {
+                this.writeNextBlock();
+            }
+        } finally {
+            for (final CompletableFuture<ByteBuffer> future : this.pending) {
+                future.cancel(false);
+            }
+            this.block = null;
+            this.out.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] data = this.block;
+        final int length = this.blockLength;
+        this.pending.add(CompletableFuture.supplyAsync(() -> ParallelGzipCodec.compressMember(data, length, this.level), this.executor));
+        this.submittedBlock = true;
+        if (!this.closed) {
+            this.block = new byte[this.blockSize];
+            this.blockLength = 0;
+        }
+
+        while (this.pending.size() > this.maxPendingBlocks) {
+            this.writeNextBlock();
+        }
+    }
+
+    private void writeNextBlock() throws IOException {
+        final ByteBuffer member = ParallelGzipCodec.join(this.pending.poll());
+        this.out.write(member.array(), 0, member.limit());
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.viaversion.nbt.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Gzip codec splitting data into blocks that are compressed and decompressed independently on an executor.
+ * <p>
+ * Each block is written as its own gzip member, which standard gzip readers decompress as one concatenated stream.
+ * The header of every member stores the member's compressed size in an extra field, so the reader can hand
+ * complete members to the executor without inflating them first. Gzip data without these fields is read sequentially.
+ */
+final class ParallelGzipCodec implements CompressionCodec {
+    static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+    static final int MAX_BLOCK_SIZE = 1 << 30;
+    static final int MAX_MEMBER_SIZE = MAX_BLOCK_SIZE + (MAX_BLOCK_SIZE >> 8);
+    /**
+     * Header with the FEXTRA flag set, followed by a single 'VN' subfield holding the member size as a 32-bit little-endian integer.
+     */
+    static final int HEADER_SIZE = 20;
+    static final int TRAILER_SIZE = 8;
+    private static final int INITIAL_INFLATED_CAPACITY = 1 << 16;
+    private static final int FEXTRA = 4;
+    private static final int EXTRA_LENGTH = 8;
+    private static final int SUBFIELD_LENGTH = 4;
+    private static final byte SUBFIELD_ID_1 = 'V';
+    private static final byte SUBFIELD_ID_2 = 'N';
+    private final int level;
+    private final int blockSize;
+    private final Executor executor;
+    private final int maxPendingBlocks;
+
+    ParallelGzipCodec(final int level, final int blockSize, final Executor executor) {
+        if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        if (blockSize <= 0 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        }
+        if (executor == null) {
+            throw new NullPointerException("executor cannot be null");
+        }
+        this.level = level;
+        this.blockSize = blockSize;
+        this.executor = executor;
+        // Keep every thread busy while the calling thread reads or writes, without buffering whole files in memory
+        this.maxPendingBlocks = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    @Override
+    public InputStream decompress(final InputStream in) {
+        return new ParallelInflatingInputStream(in, this.executor, this.maxPendingBlocks);
+    }
+
+    @Override
+    public OutputStream compress(final OutputStream out) {
+        return new ParallelDeflatingOutputStream(out, this.level, this.blockSize, this.executor, this.maxPendingBlocks);
+    }
+
+    /**
+     * Compresses the data into a complete gzip member, returned as a heap buffer from index 0 to its limit.
+     */
+    static ByteBuffer compressMember(final byte[] data, final int length, final int level) {
+        final Deflater deflater = ZipPools.acquireDeflater(level, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+
+            // Start with the max size of deflated data, as computed by zlib's deflateBound
+            byte[] member = new byte[HEADER_SIZE + length + (length >> 12) + (length >> 14) + (length >> 25) + 13 + TRAILER_SIZE];
+            int position = HEADER_SIZE;
+            while (!deflater.finished()) {
+                if (position == member.length) {
+                    member = Arrays.copyOf(member, member.length << 1);
+                }
+                position += deflater.deflate(member, position, member.length - position);
+            }
+
+            final int size = position + TRAILER_SIZE;
+            if (size > member.length) {
+                member = Arrays.copyOf(member, size);
+            }
+
+            final CRC32 crc = new CRC32();
+            crc.update(data, 0, length);
+            writeIntLE(member, position, (int) crc.getValue());
+            writeIntLE(member, position + 4, length);
+
+            member[0] = 0x1F;
+            member[1] = (byte) 0x8B;
+            member[2] = Deflater.DEFLATED;
+            member[3] = FEXTRA;
+            // Modification time, extra flags, and operating system are left at 0
+            member[10] = EXTRA_LENGTH;
+            member[11] = 0;
+            member[12] = SUBFIELD_ID_1;
+            member[13] = SUBFIELD_ID_2;
+            member[14] = SUBFIELD_LENGTH;
+            member[15] = 0;
+            writeIntLE(member, 16, size);
+            return ByteBuffer.wrap(member, 0, size);
+        } finally {
+            ZipPools.releaseDeflater(deflater, true);
+        }
+    }
+
+    /**
+     * Returns the size of the member starting with the given header, or -1 if the header was not written by this codec.
+     */
+    static int memberSize(final byte[] header) {
+        if ((header[0] & 0xFF) != 0x1F || (header[1] & 0xFF) != 0x8B || header[2] != Deflater.DEFLATED || header[3] != FEXTRA
+            || header[10] != EXTRA_LENGTH || header[11] != 0 || header[12] != SUBFIELD_ID_1 || header[13] != SUBFIELD_ID_2
+            || header[14] != SUBFIELD_LENGTH || header[15] != 0) {
+            return -1;
+        }
+        return readIntLE(header, 16);
+    }
+
+    /**
+     * Inflates the deflated data and trailer following the header of a member.
+     */
+    static byte[] inflateMember(final byte[] data) throws IOException {
+        final int deflatedLength = data.length - TRAILER_SIZE;
+        final int expectedCrc = readIntLE(data, deflatedLength);
+        final int size = readIntLE(data, deflatedLength + 4);
+        if (size < 0 || size > MAX_BLOCK_SIZE) {
+            throw new ZipException("Invalid block size: " + (size & 0xFFFFFFFFL));
+        }
+
+        final Inflater inflater = ZipPools.acquireInflater(true);
+        try {
+            inflater.setInput(data, 0, deflatedLength);
+
+            // Grow the array as data is inflated, so that a bogus size field cannot force a huge allocation up front
+            byte[] inflated = new byte[Math.min(size, INITIAL_INFLATED_CAPACITY)];
+            int position = 0;
+            while (!inflater.finished()) {
+                if (position == inflated.length) {
+                    if (position == size) {
+                        // Inflate one more byte to notice data larger than announced
+                        if (inflater.inflate(new byte[1]) != 0) {
+                            throw new ZipException("Corrupt GZIP trailer");
+                        }
+                        checkProgress(inflater);
+                        continue;
+                    }
+                    inflated = Arrays.copyOf(inflated, (int) Math.min((long) inflated.length << 1, size));
+                }
+
+                final int length = inflater.inflate(inflated, position, inflated.length - position);
+                if (length == 0) {
+                    checkProgress(inflater);
+                }
+                position += length;
+            }
+
+            final CRC32 crc = new CRC32();
+            crc.update(inflated, 0, position);
+            if (inflater.getRemaining() != 0 || position != size || (int) crc.getValue() != expectedCrc) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+            return inflated;
+        } catch (final DataFormatException e) {
+            throw new ZipException(e.getMessage() != null ? e.getMessage() : "Invalid compressed data");
+        } finally {
+            ZipPools.releaseInflater(inflater, true);
+        }
+    }
+
+    private static void checkProgress(final Inflater inflater) throws ZipException {
+        if (!inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+            throw new ZipException("Truncated or invalid compressed block");
+        }
+    }
+
+    /**
+     * Waits for the result of a block task, rethrowing its I/O exception.
+     */
+    static <T> T join(final CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static void writeIntLE(final byte[] bytes, final int index, final int value) {
+        bytes[index] = (byte) value;
+        bytes[index + 1] = (byte) (value >>> 8);
+        bytes[index + 2] = (byte) (value >>> 16);
+        bytes[index + 3] = (byte) (value >>> 24);
+    }
+
+    private static int readIntLE(final byte[] bytes, final int index) {
+        return (bytes[index] & 0xFF) | (bytes[index + 1] & 0xFF) << 8 | (bytes[index + 2] & 0xFF) << 16 | (bytes[index + 3] & 0xFF) << 24;
+    }
+
+    @Override
+    public String toString() {
+        return "parallelGzip(level=" + this.level + ", blockSize=" + this.blockSize + ")";
+    }
+}
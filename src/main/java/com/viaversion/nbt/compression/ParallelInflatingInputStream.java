@@ -0,0 +1,199 @@
+package com.viaversion.nbt.compression;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.ZipException;
+
+/**
+ * Input stream reading gzip members written by {@link ParallelDeflatingOutputStream} ahead of the caller and inflating them on an executor.
+ * Once a member without a size field is found, the rest of the data is inflated sequentially.
+ */
+final class ParallelInflatingInputStream extends InputStream {
+    private static final byte[] EMPTY = new byte[0];
+    private static final int INITIAL_MEMBER_CAPACITY = 1 << 16;
+    private final Queue<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+    private final InputStream in;
+    private final Executor executor;
+    private final int maxPendingBlocks;
+    private byte[] block = EMPTY;
+    private int blockPosition;
+    private InputStream sequentialIn;
+    private boolean readMember;
+    private boolean endOfInput;
+    private boolean closed;
+
+    ParallelInflatingInputStream(final InputStream in, final Executor executor, final int maxPendingBlocks) {
+        this.in = in;
+        this.executor = executor;
+        this.maxPendingBlocks = maxPendingBlocks;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (this.blockPosition == this.block.length && !this.nextBlock()) {
+            return this.sequentialIn != null ? this.sequentialIn.read() : -1;
+        }
+        return this.block[this.blockPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (this.blockPosition == this.block.length && !this.nextBlock()) {
+            return this.sequentialIn != null ? this.sequentialIn.read(b, off, len) : -1;
+        }
+
+        final int length = Math.min(len, this.block.length - this.blockPosition);
+        System.arraycopy(this.block, this.blockPosition, b, off, length);
+        this.blockPosition += length;
+        return length;
+    }
+
+    @Override
+    public int available() throws IOException {
+        this.ensureOpen();
+        if (this.blockPosition == this.block.length && this.pending.isEmpty() && this.sequentialIn != null) {
+            return this.sequentialIn.available();
+        }
+        return this.block.length - this.blockPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        for (final CompletableFuture<byte[]> future : this.pending) {
+            future.cancel(false);
+        }
+        this.pending.clear();
+        this.block = EMPTY;
+        if (this.sequentialIn != null) {
+            this.sequentialIn.close();
+        } else {
+            this.in.close();
+        }
+    }
+
+    private boolean nextBlock() throws IOException {
+        this.ensureOpen();
+        while (true) {
+            this.scheduleMembers();
+            final CompletableFuture<byte[]> future = this.pending.poll();
+            if (future == null) {
+                return false;
+            }
+
+            this.block = ParallelGzipCodec.join(future);
+            this.blockPosition = 0;
+            if (this.block.length != 0) {
+                return true;
+            }
+        }
+    }
+
+    private void scheduleMembers() throws IOException {
+        while (!this.endOfInput && this.sequentialIn == null && this.pending.size() < this.maxPendingBlocks) {
+            final byte[] data = this.readMemberData();
+            if (data == null) {
+                break;
+            }
+
+            this.pending.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return ParallelGzipCodec.inflateMember(data);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, this.executor));
+        }
+    }
+
+    /**
+     * Reads the data following the header of the next member, or returns null at the end of the input or if the member has to be read sequentially.
+     */
+    private byte[] readMemberData() throws IOException {
+        final byte[] header = new byte[ParallelGzipCodec.HEADER_SIZE];
+        final int headerLength = this.readAvailable(header);
+        if (headerLength == 0) {
+            this.endOfInput = true;
+            return null;
+        }
+
+        final int size = headerLength == header.length ? ParallelGzipCodec.memberSize(header) : -1;
+        if (size == -1) {
+            final boolean gzipMagic = headerLength >= 2 && (header[0] & 0xFF) == 0x1F && (header[1] & 0xFF) == 0x8B;
+            if (this.readMember && !gzipMagic) {
+                // Ignore trailing data after the last member like GZIPInputStream does
+                this.endOfInput = true;
+                return null;
+            }
+
+            this.sequentialIn = new InflatingInputStream(new SequenceInputStream(new ByteArrayInputStream(header, 0, headerLength), this.in), true, null);
+            return null;
+        }
+        if (size < ParallelGzipCodec.HEADER_SIZE + ParallelGzipCodec.TRAILER_SIZE || size > ParallelGzipCodec.MAX_MEMBER_SIZE) {
+            throw new ZipException("Invalid member size: " + (size & 0xFFFFFFFFL));
+        }
+
+        final byte[] data = this.readMemberBytes(size - ParallelGzipCodec.HEADER_SIZE);
+        this.readMember = true;
+        return data;
+    }
+
+    /**
+     * Reads the given number of bytes, growing the array as data arrives so that a bogus size field cannot force a huge allocation up front.
+     */
+    private byte[] readMemberBytes(final int size) throws IOException {
+        byte[] data = new byte[Math.min(size, INITIAL_MEMBER_CAPACITY)];
+        int length = 0;
+        while (true) {
+            length += this.readAvailable(data, length);
+            if (length == size) {
+                return data;
+            }
+            if (length < data.length) {
+                throw new EOFException("Unexpected end of GZIP data");
+            }
+            data = Arrays.copyOf(data, (int) Math.min((long) data.length << 1, size));
+        }
+    }
+
+    private int readAvailable(final byte[] bytes) throws IOException {
+        return this.readAvailable(bytes, 0);
+    }
+
+    private int readAvailable(final byte[] bytes, final int offset) throws IOException {
+        int length = offset;
+        while (length < bytes.length) {
+            final int read = this.in.read(bytes, length, bytes.length - length);
+            if (read == -1) {
+                break;
+            }
+            length += read;
+        }
+        return length - offset;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
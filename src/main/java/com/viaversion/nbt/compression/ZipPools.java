@@ -0,0 +1,83 @@
+package com.viaversion.nbt.compression;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Bounded pools of inflaters and deflaters, avoiding the cost of allocating their native state for every stream.
+ */
+final class ZipPools {
+    private static final int MAX_POOLED = 16;
+    private static final Pool<Inflater> RAW_INFLATERS = new Pool<>();
+    private static final Pool<Inflater> ZLIB_INFLATERS = new Pool<>();
+    private static final Pool<Deflater> RAW_DEFLATERS = new Pool<>();
+    private static final Pool<Deflater> ZLIB_DEFLATERS = new Pool<>();
+
+    private ZipPools() {
+    }
+
+    /**
+     * Returns an inflater for raw deflate data if nowrap is true, else for zlib data.
+     */
+    static Inflater acquireInflater(final boolean nowrap) {
+        final Inflater inflater = (nowrap ? RAW_INFLATERS : ZLIB_INFLATERS).poll();
+        return inflater != null ? inflater : new Inflater(nowrap);
+    }
+
+    /**
+     * Returns an inflater acquired with the given nowrap value to the pool. It must no longer be used afterwards.
+     */
+    static void releaseInflater(final Inflater inflater, final boolean nowrap) {
+        inflater.reset();
+        if (!(nowrap ? RAW_INFLATERS : ZLIB_INFLATERS).offer(inflater)) {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Returns a deflater with the given level for raw deflate data if nowrap is true, else for zlib data.
+     */
+    static Deflater acquireDeflater(final int level, final boolean nowrap) {
+        final Deflater deflater = (nowrap ? RAW_DEFLATERS : ZLIB_DEFLATERS).poll();
+        if (deflater == null) {
+            return new Deflater(level, nowrap);
+        }
+
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    /**
+     * Returns a deflater acquired with the given nowrap value to the pool. It must no longer be used afterwards.
+     */
+    static void releaseDeflater(final Deflater deflater, final boolean nowrap) {
+        deflater.reset();
+        if (!(nowrap ? RAW_DEFLATERS : ZLIB_DEFLATERS).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    private static final class Pool<T> {
+        private final Queue<T> pooled = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        T poll() {
+            final T value = this.pooled.poll();
+            if (value != null) {
+                this.size.decrementAndGet();
+            }
+            return value;
+        }
+
+        boolean offer(final T value) {
+            if (this.size.incrementAndGet() > MAX_POOLED) {
+                this.size.decrementAndGet();
+                return false;
+            }
+            return this.pooled.offer(value);
+        }
+    }
+}
@@ -14,6 +14,6 @@ public class ByteTagConverter implements TagConverter<ByteTag, Byte> {
 
     @Override
     public ByteTag convert(Byte value) {
-        return new ByteTag(value);
+        return ByteTag.valueOf(value);
     }
 }
@@ -14,6 +14,6 @@ public class DoubleTagConverter implements TagConverter<DoubleTag, Double> {
 
     @Override
     public DoubleTag convert(Double value) {
-        return new DoubleTag(value);
+        return DoubleTag.valueOf(value);
     }
 }
@@ -14,6 +14,6 @@ public class FloatTagConverter implements TagConverter<FloatTag, Float> {
 
     @Override
     public FloatTag convert(Float value) {
-        return new FloatTag(value);
+        return FloatTag.valueOf(value);
     }
 }
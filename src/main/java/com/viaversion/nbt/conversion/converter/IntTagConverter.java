@@ -14,6 +14,6 @@ public class IntTagConverter implements TagConverter<IntTag, Integer> {
 
     @Override
     public IntTag convert(Integer value) {
-        return new IntTag(value);
+        return IntTag.valueOf(value);
     }
 }
@@ -14,6 +14,6 @@ public class LongTagConverter implements TagConverter<LongTag, Long> {
 
     @Override
     public LongTag convert(Long value) {
-        return new LongTag(value);
+        return LongTag.valueOf(value);
     }
 }
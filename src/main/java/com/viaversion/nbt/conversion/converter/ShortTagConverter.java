@@ -14,6 +14,6 @@ public class ShortTagConverter implements TagConverter<ShortTag, Short> {
 
     @Override
     public ShortTag convert(Short value) {
-        return new ShortTag(value);
+        return ShortTag.valueOf(value);
     }
 }
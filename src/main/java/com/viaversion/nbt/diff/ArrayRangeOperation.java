@@ -0,0 +1,86 @@
+package com.viaversion.nbt.diff;
+
+import com.viaversion.nbt.tag.ByteArrayTag;
+import com.viaversion.nbt.tag.IntArrayTag;
+import com.viaversion.nbt.tag.LongArrayTag;
+import com.viaversion.nbt.tag.NumberArrayTag;
+import com.viaversion.nbt.tag.Tag;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Overwrites a range of the byte, int, or long array at the path, keeping its length.
+ */
+public final class ArrayRangeOperation extends PatchOperation {
+    private final int offset;
+    private final NumberArrayTag values;
+
+    ArrayRangeOperation(final TagPath path, final int offset, final NumberArrayTag values) {
+        super(path);
+        this.offset = offset;
+        this.values = values;
+    }
+
+    /**
+     * Returns the index of the first overwritten array element.
+     *
+     * @return index of the first overwritten element
+     */
+    public int offset() {
+        return this.offset;
+    }
+
+    /**
+     * Returns the new values of the range, as an array tag of the same type as the changed one.
+     *
+     * @return new values
+     */
+    public NumberArrayTag values() {
+        return this.values;
+    }
+
+    @Override
+    int type() {
+        return ARRAY_RANGE;
+    }
+
+    @Override
+    void apply(final Tag root) {
+        final Tag tag = this.resolve(root, this.path.depth());
+        if (tag.getClass() != this.values.getClass()) {
+            throw new IllegalArgumentException("Patch does not match the tag, expected a " + this.values.getClass().getSimpleName() + " at " + this.path);
+        }
+        if (this.values.length() > ((NumberArrayTag) tag).length() - this.offset) {
+            throw new IllegalArgumentException("Patch does not match the tag, array at " + this.path + " has only " + ((NumberArrayTag) tag).length() + " elements");
+        }
+        if (tag.isFrozen()) {
+            // The array of a frozen tag may be shared, it has to be replaced by a patched copy instead
+            throw new UnsupportedOperationException("Cannot modify a frozen tag");
+        }
+
+        if (tag instanceof ByteArrayTag) {
+            System.arraycopy(((ByteArrayTag) this.values).getValue(), 0, ((ByteArrayTag) tag).getValue(), this.offset, this.values.length());
+        } else if (tag instanceof IntArrayTag) {
+            System.arraycopy(((IntArrayTag) this.values).getValue(), 0, ((IntArrayTag) tag).getValue(), this.offset, this.values.length());
+        } else {
+            System.arraycopy(((LongArrayTag) this.values).getValue(), 0, ((LongArrayTag) tag).getValue(), this.offset, this.values.length());
+        }
+    }
+
+    @Override
+    void writePayload(final DataOutput out) throws IOException {
+        out.writeInt(this.offset);
+        out.writeByte(this.values.getTagId());
+        this.values.write(out);
+    }
+
+    @Override
+    int payloadSize() {
+        return Integer.BYTES + Byte.BYTES + this.values.serializedSize();
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayRangeOperation{path=" + this.path + ", offset=" + this.offset + ", values=" + this.values + "}";
+    }
+}
@@ -0,0 +1,91 @@
+package com.viaversion.nbt.diff;
+
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.Tag;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Single change of a {@link TagPatch}, applied to the tag at its path.
+ */
+public abstract class PatchOperation {
+    static final int SET = 1;
+    static final int REMOVE = 2;
+    static final int SPLICE = 3;
+    static final int ARRAY_RANGE = 4;
+    final TagPath path;
+
+    PatchOperation(final TagPath path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the path of the changed tag.
+     *
+     * @return path of the changed tag
+     */
+    public TagPath path() {
+        return this.path;
+    }
+
+    /**
+     * Returns the number of bytes the operation takes when written as part of a patch.
+     *
+     * @return serialized size in bytes
+     */
+    public int serializedSize() {
+        return Byte.BYTES + this.path.serializedSize() + this.payloadSize();
+    }
+
+    abstract int type();
+
+    abstract void apply(Tag root);
+
+    abstract void writePayload(DataOutput out) throws IOException;
+
+    abstract int payloadSize();
+
+    /**
+     * Returns the tag at the first {@code depth} segments of the path.
+     */
+    final Tag resolve(final Tag root, final int depth) {
+        Tag tag = root;
+        for (int i = 0; i < depth; i++) {
+            if (this.path.isKey(i)) {
+                tag = tag instanceof CompoundTag ? ((CompoundTag) tag).get(this.path.getKey(i)) : null;
+            } else {
+                final int index = this.path.getIndex(i);
+                tag = tag instanceof ListTag && index < ((ListTag<?>) tag).size() ? ((ListTag<?>) tag).get(index) : null;
+            }
+
+            if (tag == null) {
+                throw new IllegalArgumentException("Patch does not match the tag, missing tag at " + this.path);
+            }
+        }
+        return tag;
+    }
+
+    /**
+     * Returns the compound holding the tag at the path.
+     */
+    final CompoundTag parentCompound(final Tag root) {
+        final Tag parent = this.resolve(root, this.path.depth() - 1);
+        if (!(parent instanceof CompoundTag)) {
+            throw new IllegalArgumentException("Patch does not match the tag, expected a compound tag at " + this.path.parent());
+        }
+        return (CompoundTag) parent;
+    }
+
+    /**
+     * Returns the key of the tag at the path in its compound.
+     */
+    final String key() {
+        return this.path.getKey(this.path.depth() - 1);
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "{path=" + this.path + "}";
+    }
+}
@@ -0,0 +1,35 @@
+package com.viaversion.nbt.diff;
+
+import com.viaversion.nbt.tag.Tag;
+import java.io.DataOutput;
+
+/**
+ * Removes the entry with the path's last key from its compound.
+ */
+public final class RemoveOperation extends PatchOperation {
+
+    RemoveOperation(final TagPath path) {
+        super(path);
+    }
+
+    @Override
+    int type() {
+        return REMOVE;
+    }
+
+    @Override
+    void apply(final Tag root) {
+        if (this.parentCompound(root).remove(this.key()) == null) {
+            throw new IllegalArgumentException("Patch does not match the tag, missing tag at " + this.path);
+        }
+    }
+
+    @Override
+    void writePayload(final DataOutput out) {
+    }
+
+    @Override
+    int payloadSize() {
+        return 0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.viaversion.nbt.diff;
+
+import com.viaversion.nbt.tag.Tag;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Puts a tag into the compound holding the path's last key, adding or replacing the entry.
+ */
+public final class SetOperation extends PatchOperation {
+    private final Tag tag;
+
+    SetOperation(final TagPath path, final Tag tag) {
+        super(path);
+        this.tag = tag;
+    }
+
+    /**
+     * Returns the tag to put. It is copied when the operation is applied.
+     *
+     * @return tag to put
+     */
+    public Tag tag() {
+        return this.tag;
+    }
+
+    @Override
+    int type() {
+        return SET;
+    }
+
+    @Override
+    void apply(final Tag root) {
+        this.parentCompound(root).put(this.key(), this.tag.copy());
+    }
+
+    @Override
+    void writePayload(final DataOutput out) throws IOException {
+        out.writeByte(this.tag.getTagId());
+        this.tag.write(out);
+    }
+
+    @Override
+    int payloadSize() {
+        return Byte.BYTES + this.tag.serializedSize();
+    }
+
+    @Override
+    public String toString() {
+        return "SetOperation{path=" + this.path + ", tag=" + this.tag + "}";
+    }
+}
@@ -0,0 +1,127 @@
+package com.viaversion.nbt.diff;
+
+import com.viaversion.nbt.io.TagRegistry;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.Tag;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Replaces a range of elements of the list at the path with new elements.
+ */
+public final class SpliceOperation extends PatchOperation {
+    private final int index;
+    private final int removeCount;
+    private final List<Tag> elements;
+
+    SpliceOperation(final TagPath path, final int index, final int removeCount, final List<Tag> elements) {
+        super(path);
+        this.index = index;
+        this.removeCount = removeCount;
+        this.elements = Collections.unmodifiableList(elements);
+    }
+
+    /**
+     * Returns the index of the first replaced element.
+     *
+     * @return index of the first replaced element
+     */
+    public int index() {
+        return this.index;
+    }
+
+    /**
+     * Returns the number of removed elements.
+     *
+     * @return number of removed elements
+     */
+    public int removeCount() {
+        return this.removeCount;
+    }
+
+    /**
+     * Returns the elements inserted at the index. They are copied when the operation is applied.
+     *
+     * @return inserted elements
+     */
+    public List<Tag> elements() {
+        return this.elements;
+    }
+
+    @Override
+    int type() {
+        return SPLICE;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    void apply(final Tag root) {
+        final Tag tag = this.resolve(root, this.path.depth());
+        if (!(tag instanceof ListTag)) {
+            throw new IllegalArgumentException("Patch does not match the tag, expected a list tag at " + this.path);
+        }
+
+        final ListTag<Tag> list = (ListTag<Tag>) tag;
+        if (this.removeCount > list.size() - this.index) {
+            throw new IllegalArgumentException("Patch does not match the tag, list at " + this.path + " has only " + list.size() + " elements");
+        }
+        if (list.isFrozen()) {
+            throw new UnsupportedOperationException("Cannot modify a frozen tag");
+        }
+
+        // Remove the range at once instead of shifting the remaining elements for each of them
+        list.getValue().subList(this.index, this.index + this.removeCount).clear();
+        for (int i = 0; i < this.elements.size(); i++) {
+            list.add(this.index + i, this.elements.get(i).copy());
+        }
+    }
+
+    @Override
+    void writePayload(final DataOutput out) throws IOException {
+        out.writeInt(this.index);
+        out.writeInt(this.removeCount);
+
+        // Elements of mixed lists are written with their own ids
+        final int elementId = this.elementId();
+        out.writeByte(elementId);
+        out.writeInt(this.elements.size());
+        for (final Tag element : this.elements) {
+            if (elementId == TagRegistry.END) {
+                out.writeByte(element.getTagId());
+            }
+            element.write(out);
+        }
+    }
+
+    @Override
+    int payloadSize() {
+        int size = Integer.BYTES + Integer.BYTES + Byte.BYTES + Integer.BYTES;
+        final boolean mixed = this.elementId() == TagRegistry.END;
+        for (final Tag element : this.elements) {
+            size += (mixed ? Byte.BYTES : 0) + element.serializedSize();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the id shared by all elements, or {@link TagRegistry#END} if they differ or there are none.
+     */
+    int elementId() {
+        int id = TagRegistry.END;
+        for (final Tag element : this.elements) {
+            if (id == TagRegistry.END) {
+                id = element.getTagId();
+            } else if (id != element.getTagId()) {
+                return TagRegistry.END;
+            }
+        }
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "SpliceOperation{path=" + this.path + ", index=" + this.index + ", removeCount=" + this.removeCount + ", elements=" + this.elements + "}";
+    }
+}
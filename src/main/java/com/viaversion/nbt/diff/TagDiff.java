@@ -0,0 +1,261 @@
+package com.viaversion.nbt.diff;
+
+import com.viaversion.nbt.tag.ByteArrayTag;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.IntArrayTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.LongArrayTag;
+import com.viaversion.nbt.tag.MixedListTag;
+import com.viaversion.nbt.tag.NumberArrayTag;
+import com.viaversion.nbt.tag.Tag;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Creates {@link TagPatch}es from the differences between two tag trees.
+ * <p>
+ * Compounds are compared entry by entry, nested compounds and lists are only descended into if they are not the same instance.
+ * Lists are trimmed by their equal leading and trailing elements, with the rest either patched element by element or replaced as one range.
+ * Arrays of the same length are patched by their changed ranges.
+ * Whenever the nested changes of a tag would take more bytes than the tag itself, the tag is replaced as a whole instead.
+ * <p>
+ * The created patch references tags of the target tree, so they should not be modified while the patch is in use.
+ */
+public final class TagDiff {
+    // Maximum number of unchanged array elements merged into a surrounding range instead of starting a new one
+    private static final int ARRAY_RANGE_GAP = 8;
+
+    private TagDiff() {
+    }
+
+    /**
+     * Returns a patch turning the first compound tag into the second one.
+     *
+     * @param from original tag
+     * @param to   changed tag
+     * @return patch turning {@code from} into {@code to}
+     */
+    public static TagPatch diff(final CompoundTag from, final CompoundTag to) {
+        final List<PatchOperation> operations = new ArrayList<>();
+        diffCompound(TagPath.root(), from, to, operations);
+        return operations.isEmpty() ? TagPatch.empty() : new TagPatch(operations);
+    }
+
+    /**
+     * Returns a patch turning the first list tag into the second one.
+     *
+     * @param from original tag
+     * @param to   changed tag
+     * @return patch turning {@code from} into {@code to}
+     * @throws IllegalArgumentException if the lists have different element types, as the list cannot be replaced itself
+     */
+    public static TagPatch diff(final ListTag<?> from, final ListTag<?> to) {
+        if (!patchable(from, to)) {
+            throw new IllegalArgumentException("Cannot patch a list of " + elementTypeName(from) + " into a list of " + elementTypeName(to));
+        }
+
+        final List<PatchOperation> operations = new ArrayList<>();
+        diffList(TagPath.root(), from, to, operations);
+        return operations.isEmpty() ? TagPatch.empty() : new TagPatch(operations);
+    }
+
+    private static void diffCompound(final TagPath path, final CompoundTag from, final CompoundTag to, final List<PatchOperation> operations) {
+        if (from == to) {
+            return;
+        }
+
+        for (final String key : from.keySet()) {
+            if (!to.contains(key)) {
+                operations.add(new RemoveOperation(path.child(key)));
+            }
+        }
+
+        for (final Map.Entry<String, Tag> entry : to.entrySet()) {
+            final Tag fromValue = from.get(entry.getKey());
+            final Tag toValue = entry.getValue();
+            if (fromValue == toValue) {
+                continue;
+            }
+
+            final TagPath childPath = path.child(entry.getKey());
+            if (fromValue == null || !diffValue(childPath, fromValue, toValue, operations)) {
+                operations.add(new SetOperation(childPath, toValue));
+            }
+        }
+    }
+
+    private static void diffList(final TagPath path, final ListTag<?> from, final ListTag<?> to, final List<PatchOperation> operations) {
+        if (from == to) {
+            return;
+        }
+
+        final int fromSize = from.size();
+        final int toSize = to.size();
+        int start = 0;
+        while (start < fromSize && start < toSize && same(from.get(start), to.get(start))) {
+            start++;
+        }
+
+        int fromEnd = fromSize;
+        int toEnd = toSize;
+        while (fromEnd > start && toEnd > start && same(from.get(fromEnd - 1), to.get(toEnd - 1))) {
+            fromEnd--;
+            toEnd--;
+        }
+
+        if (fromEnd - start != toEnd - start) {
+            operations.add(new SpliceOperation(path, start, fromEnd - start, elements(to, start, toEnd)));
+            return;
+        }
+
+        // Same number of changed elements, patch them one by one and replace runs of unpatchable ones
+        int runStart = -1;
+        for (int i = start; i <= fromEnd; i++) {
+            final boolean replace = i < fromEnd && !same(from.get(i), to.get(i)) && !diffValue(path.child(i), from.get(i), to.get(i), operations);
+            if (replace && runStart == -1) {
+                runStart = i;
+            } else if (!replace && runStart != -1) {
+                operations.add(new SpliceOperation(path, runStart, i - runStart, elements(to, runStart, i)));
+                runStart = -1;
+            }
+        }
+    }
+
+    /**
+     * Adds the operations changing one tag into another one of the same type if it is worth it.
+     *
+     * @return whether the change was added, else the tag has to be replaced
+     */
+    private static boolean diffValue(final TagPath path, final Tag from, final Tag to, final List<PatchOperation> operations) {
+        if (from.getTagId() != to.getTagId()) {
+            return false;
+        }
+
+        final List<PatchOperation> nested = new ArrayList<>();
+        if (to instanceof CompoundTag) {
+            diffCompound(path, (CompoundTag) from, (CompoundTag) to, nested);
+        } else if (to instanceof ListTag) {
+            if (!patchable((ListTag<?>) from, (ListTag<?>) to)) {
+                return false;
+            }
+            diffList(path, (ListTag<?>) from, (ListTag<?>) to, nested);
+        } else if (to instanceof NumberArrayTag) {
+            if (((NumberArrayTag) from).length() != ((NumberArrayTag) to).length()) {
+                return false;
+            }
+            diffArray(path, (NumberArrayTag) from, (NumberArrayTag) to, nested);
+        } else {
+            return from.equals(to);
+        }
+
+        // Replacing the tag takes an operation id, the path, and the tag with its id
+        final int replaceSize = Byte.BYTES + path.serializedSize() + Byte.BYTES + to.serializedSize();
+        int size = 0;
+        for (final PatchOperation operation : nested) {
+            size += operation.serializedSize();
+            if (size > replaceSize) {
+                return false;
+            }
+        }
+
+        operations.addAll(nested);
+        return true;
+    }
+
+    private static void diffArray(final TagPath path, final NumberArrayTag from, final NumberArrayTag to, final List<PatchOperation> operations) {
+        final int length = to.length();
+        int rangeStart = -1;
+        int rangeEnd = -1;
+        for (int i = 0; i < length; i++) {
+            if (arrayElementEquals(from, to, i)) {
+                continue;
+            }
+
+            if (rangeStart != -1 && i - rangeEnd > ARRAY_RANGE_GAP) {
+                operations.add(new ArrayRangeOperation(path, rangeStart, arrayRange(to, rangeStart, rangeEnd)));
+                rangeStart = -1;
+            }
+            if (rangeStart == -1) {
+                rangeStart = i;
+            }
+            rangeEnd = i + 1;
+        }
+
+        if (rangeStart != -1) {
+            operations.add(new ArrayRangeOperation(path, rangeStart, arrayRange(to, rangeStart, rangeEnd)));
+        }
+    }
+
+    private static boolean arrayElementEquals(final NumberArrayTag from, final NumberArrayTag to, final int index) {
+        if (to instanceof ByteArrayTag) {
+            return ((ByteArrayTag) from).getValue()[index] == ((ByteArrayTag) to).getValue()[index];
+        } else if (to instanceof IntArrayTag) {
+            return ((IntArrayTag) from).getValue()[index] == ((IntArrayTag) to).getValue()[index];
+        } else {
+            return ((LongArrayTag) from).getValue()[index] == ((LongArrayTag) to).getValue()[index];
+        }
+    }
+
+    private static NumberArrayTag arrayRange(final NumberArrayTag tag, final int from, final int to) {
+        if (tag instanceof ByteArrayTag) {
+            return new ByteArrayTag(Arrays.copyOfRange(((ByteArrayTag) tag).getValue(), from, to));
+        } else if (tag instanceof IntArrayTag) {
+            return new IntArrayTag(Arrays.copyOfRange(((IntArrayTag) tag).getValue(), from, to));
+        } else {
+            return new LongArrayTag(Arrays.copyOfRange(((LongArrayTag) tag).getValue(), from, to));
+        }
+    }
+
+    /**
+     * Returns whether the elements of one list can be changed into the other's without changing the list's type.
+     * Lists without an element type take the type of the first element added to them.
+     */
+    private static boolean patchable(final ListTag<?> from, final ListTag<?> to) {
+        if (from.getClass() != to.getClass()) {
+            return false;
+        }
+        return from instanceof MixedListTag || from.getElementType() == null || Objects.equals(from.getElementType(), to.getElementType());
+    }
+
+    /**
+     * Returns whether two tags are equal, comparing references, types, and sizes before their contents.
+     */
+    private static boolean same(final Tag a, final Tag b) {
+        if (a == b) {
+            return true;
+        }
+        if (a.getTagId() != b.getTagId() || size(a) != size(b)) {
+            return false;
+        }
+        return a.equals(b);
+    }
+
+    private static int size(final Tag tag) {
+        if (tag instanceof CompoundTag) {
+            return ((CompoundTag) tag).size();
+        } else if (tag instanceof ListTag) {
+            return ((ListTag<?>) tag).size();
+        } else if (tag instanceof NumberArrayTag) {
+            return ((NumberArrayTag) tag).length();
+        }
+        return 0;
+    }
+
+    private static String elementTypeName(final ListTag<?> list) {
+        if (list instanceof MixedListTag) {
+            return "mixed tags";
+        }
+        return list.getElementType() != null ? list.getElementType().getSimpleName() : "no type";
+    }
+
+    private static List<Tag> elements(final ListTag<?> list, final int from, final int to) {
+        final List<Tag> elements = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            elements.add(list.get(i));
+        }
+        return elements;
+    }
+}
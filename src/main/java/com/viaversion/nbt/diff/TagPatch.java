@@ -0,0 +1,200 @@
+package com.viaversion.nbt.diff;
+
+import com.viaversion.nbt.io.TagRegistry;
+import com.viaversion.nbt.limiter.TagLimiter;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.NumberArrayTag;
+import com.viaversion.nbt.tag.Tag;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered list of changes turning one compound or list tag into another, as created by {@link TagDiff}.
+ * <p>
+ * The binary form starts with the number of operations, followed by every operation's type, path, and payload.
+ */
+public final class TagPatch {
+    private static final TagPatch EMPTY = new TagPatch(Collections.emptyList());
+    private final List<PatchOperation> operations;
+
+    TagPatch(final List<PatchOperation> operations) {
+        this.operations = Collections.unmodifiableList(operations);
+    }
+
+    /**
+     * Returns a patch without any changes.
+     *
+     * @return empty patch
+     */
+    public static TagPatch empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Reads a patch written by {@link #write(DataOutput)}.
+     *
+     * @param in         data input to read from
+     * @param tagLimiter tag limiter to use
+     * @return read patch
+     * @throws IOException if an I/O error occurs or the data is not a valid patch
+     */
+    public static TagPatch read(final DataInput in, final TagLimiter tagLimiter) throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Negative operation count: " + count);
+        }
+
+        tagLimiter.countInt();
+        final List<PatchOperation> operations = new ArrayList<>(Math.min(count, 64));
+        for (int i = 0; i < count; i++) {
+            operations.add(readOperation(in, tagLimiter));
+        }
+        return new TagPatch(operations);
+    }
+
+    private static PatchOperation readOperation(final DataInput in, final TagLimiter tagLimiter) throws IOException {
+        final int type = in.readByte();
+        tagLimiter.countByte();
+        final TagPath path = TagPath.read(in, tagLimiter);
+        final int nestingLevel = path.depth();
+        switch (type) {
+            case PatchOperation.SET: {
+                checkKeyPath(path);
+                final int id = in.readByte();
+                tagLimiter.countByte();
+                return new SetOperation(path, TagRegistry.read(id, in, tagLimiter, nestingLevel));
+            }
+            case PatchOperation.REMOVE:
+                checkKeyPath(path);
+                return new RemoveOperation(path);
+            case PatchOperation.SPLICE: {
+                final int index = in.readInt();
+                final int removeCount = in.readInt();
+                final int elementId = in.readByte();
+                final int count = in.readInt();
+                if (index < 0 || removeCount < 0 || count < 0) {
+                    throw new IOException("Negative splice range: " + index + ", " + removeCount + ", " + count);
+                }
+
+                tagLimiter.countBytes(Integer.BYTES + Integer.BYTES + Byte.BYTES + Integer.BYTES);
+                final List<Tag> elements = new ArrayList<>(Math.min(count, 64));
+                for (int i = 0; i < count; i++) {
+                    final int id;
+                    if (elementId == TagRegistry.END) {
+                        id = in.readByte();
+                        tagLimiter.countByte();
+                    } else {
+                        id = elementId;
+                    }
+                    elements.add(TagRegistry.read(id, in, tagLimiter, nestingLevel + 1));
+                }
+                return new SpliceOperation(path, index, removeCount, elements);
+            }
+            case PatchOperation.ARRAY_RANGE: {
+                final int offset = in.readInt();
+                if (offset < 0) {
+                    throw new IOException("Negative array offset: " + offset);
+                }
+
+                final int id = in.readByte();
+                tagLimiter.countBytes(Integer.BYTES + Byte.BYTES);
+                final Tag values = TagRegistry.read(id, in, tagLimiter, nestingLevel);
+                if (!(values instanceof NumberArrayTag)) {
+                    throw new IOException("Array range values must be an array tag, got " + values.getClass().getSimpleName());
+                }
+                return new ArrayRangeOperation(path, offset, (NumberArrayTag) values);
+            }
+            default:
+                throw new IOException("Unknown patch operation type: " + type);
+        }
+    }
+
+    private static void checkKeyPath(final TagPath path) throws IOException {
+        if (path.depth() == 0 || !path.isKey(path.depth() - 1)) {
+            throw new IOException("Path of a compound entry must end with a key: " + path);
+        }
+    }
+
+    /**
+     * Returns the operations in the order they are applied.
+     *
+     * @return unmodifiable list of operations
+     */
+    public List<PatchOperation> operations() {
+        return this.operations;
+    }
+
+    public boolean isEmpty() {
+        return this.operations.isEmpty();
+    }
+
+    /**
+     * Applies the patch to the given compound tag in place.
+     * Tags held by the patch are copied, so a patch can be applied to multiple tags.
+     * <p>
+     * If the patch does not match the tag, an exception is thrown and the operations before the failing one stay applied.
+     *
+     * @param tag tag to change
+     * @throws IllegalArgumentException if the patch does not match the tag
+     * @throws UnsupportedOperationException if a changed tag is frozen
+     */
+    public void apply(final CompoundTag tag) {
+        this.applyTo(tag);
+    }
+
+    /**
+     * Applies the patch to the given list tag in place.
+     *
+     * @param tag tag to change
+     * @throws IllegalArgumentException if the patch does not match the tag
+     * @throws UnsupportedOperationException if a changed tag is frozen
+     * @see #apply(CompoundTag)
+     */
+    public void apply(final ListTag<?> tag) {
+        this.applyTo(tag);
+    }
+
+    private void applyTo(final Tag tag) {
+        for (final PatchOperation operation : this.operations) {
+            operation.apply(tag);
+        }
+    }
+
+    /**
+     * Writes the patch to a data output.
+     *
+     * @param out data output to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(final DataOutput out) throws IOException {
+        out.writeInt(this.operations.size());
+        for (final PatchOperation operation : this.operations) {
+            out.writeByte(operation.type());
+            operation.path.write(out);
+            operation.writePayload(out);
+        }
+    }
+
+    /**
+     * Returns the exact number of bytes the patch takes when written with {@link #write(DataOutput)}.
+     *
+     * @return serialized size in bytes
+     */
+    public int serializedSize() {
+        int size = Integer.BYTES;
+        for (final PatchOperation operation : this.operations) {
+            size += operation.serializedSize();
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "TagPatch" + this.operations;
+    }
+}
@@ -0,0 +1,185 @@
+package com.viaversion.nbt.diff;
+
+import com.viaversion.nbt.io.ModifiedUtf8;
+import com.viaversion.nbt.limiter.TagLimiter;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Immutable path to a tag inside a tag tree, made of compound keys and list indices.
+ */
+public final class TagPath {
+    private static final TagPath ROOT = new TagPath(new Object[0]);
+    private static final int KEY = 0;
+    private static final int INDEX = 1;
+    private final Object[] segments; // String keys and Integer indices
+
+    private TagPath(final Object[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Returns the empty path, pointing at the root tag.
+     *
+     * @return empty path
+     */
+    public static TagPath root() {
+        return ROOT;
+    }
+
+    /**
+     * Returns a new path pointing at the entry with the given key of the compound at this path.
+     *
+     * @param key compound key
+     * @return child path
+     */
+    public TagPath child(final String key) {
+        return this.append(key);
+    }
+
+    /**
+     * Returns a new path pointing at the element with the given index of the list at this path.
+     *
+     * @param index list index
+     * @return child path
+     */
+    public TagPath child(final int index) {
+        return this.append(index);
+    }
+
+    /**
+     * Returns the path without its last segment.
+     *
+     * @return parent path
+     * @throws IllegalStateException if this is the root path
+     */
+    public TagPath parent() {
+        if (this.segments.length == 0) {
+            throw new IllegalStateException("Root path has no parent");
+        }
+        return new TagPath(Arrays.copyOf(this.segments, this.segments.length - 1));
+    }
+
+    /**
+     * Returns the number of segments.
+     *
+     * @return number of segments
+     */
+    public int depth() {
+        return this.segments.length;
+    }
+
+    /**
+     * Returns whether the segment at the given position is a compound key.
+     *
+     * @param position position of the segment
+     * @return whether the segment is a compound key, else it is a list index
+     */
+    public boolean isKey(final int position) {
+        return this.segments[position] instanceof String;
+    }
+
+    /**
+     * Returns the compound key at the given position.
+     *
+     * @param position position of the segment
+     * @return compound key
+     * @throws ClassCastException if the segment is a list index
+     */
+    public String getKey(final int position) {
+        return (String) this.segments[position];
+    }
+
+    /**
+     * Returns the list index at the given position.
+     *
+     * @param position position of the segment
+     * @return list index
+     * @throws ClassCastException if the segment is a compound key
+     */
+    public int getIndex(final int position) {
+        return (Integer) this.segments[position];
+    }
+
+    private TagPath append(final Object segment) {
+        final Object[] segments = Arrays.copyOf(this.segments, this.segments.length + 1);
+        segments[this.segments.length] = segment;
+        return new TagPath(segments);
+    }
+
+    void write(final DataOutput out) throws IOException {
+        out.writeShort(this.segments.length);
+        for (final Object segment : this.segments) {
+            if (segment instanceof String) {
+                out.writeByte(KEY);
+                out.writeUTF((String) segment);
+            } else {
+                out.writeByte(INDEX);
+                out.writeInt((Integer) segment);
+            }
+        }
+    }
+
+    int serializedSize() {
+        int size = Short.BYTES;
+        for (final Object segment : this.segments) {
+            size += Byte.BYTES + (segment instanceof String ? Short.BYTES + ModifiedUtf8.encodedLength((String) segment) : Integer.BYTES);
+        }
+        return size;
+    }
+
+    static TagPath read(final DataInput in, final TagLimiter tagLimiter) throws IOException {
+        final int depth = in.readUnsignedShort();
+        tagLimiter.countBytes(Short.BYTES);
+        final Object[] segments = new Object[depth];
+        for (int i = 0; i < depth; i++) {
+            final int type = in.readByte();
+            if (type == KEY) {
+                final String key = in.readUTF();
+                tagLimiter.countBytes(Byte.BYTES + 2 * key.length());
+                segments[i] = key;
+            } else if (type == INDEX) {
+                final int index = in.readInt();
+                if (index < 0) {
+                    throw new IOException("Negative list index in path: " + index);
+                }
+                tagLimiter.countBytes(Byte.BYTES + Integer.BYTES);
+                segments[i] = index;
+            } else {
+                throw new IOException("Unknown path segment type: " + type);
+            }
+        }
+        return depth != 0 ? new TagPath(segments) : ROOT;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final TagPath tagPath = (TagPath) o;
+        return Arrays.equals(this.segments, tagPath.segments);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.segments);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (final Object segment : this.segments) {
+            if (segment instanceof String) {
+                if (builder.length() != 0) {
+                    builder.append('.');
+                }
+                builder.append(segment);
+            } else {
+                builder.append('[').append(segment).append(']');
+            }
+        }
+        return builder.toString();
+    }
+}
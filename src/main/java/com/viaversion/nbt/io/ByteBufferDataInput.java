@@ -0,0 +1,312 @@
+package com.viaversion.nbt.io;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Data input reading directly from a {@link ByteBuffer} using absolute indices, without going through an input stream.
+ * <p>
+ * The buffer's own position is not modified while reading, use {@link #position()} or {@link #bytesRead()}
+ * to find out how many bytes have been consumed.
+ *
+ * @see TagReader#read(ByteBuffer)
+ */
+public final class ByteBufferDataInput implements DataInput {
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int limit;
+    private int position;
+    private char[] chars;
+    private KeyCache keyCache;
+
+    /**
+     * Creates a data input reading from the buffer's current position up to its limit.
+     * Values are always read in big-endian order, regardless of the buffer's byte order.
+     *
+     * @param buffer buffer to read from
+     */
+    public ByteBufferDataInput(final ByteBuffer buffer) {
+        this.buffer = buffer.order() == ByteOrder.BIG_ENDIAN ? buffer : buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        this.start = buffer.position();
+        this.limit = buffer.limit();
+        this.position = this.start;
+    }
+
+    /**
+     * Creates a data input reading the given range of the byte array.
+     *
+     * @param bytes  bytes to read from
+     * @param offset offset to start reading at
+     * @param length number of readable bytes
+     */
+    public ByteBufferDataInput(final byte[] bytes, final int offset, final int length) {
+        this(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Returns the absolute index in the buffer that will be read next.
+     *
+     * @return absolute index of the next byte to read
+     */
+    public int position() {
+        return this.position;
+    }
+
+    /**
+     * Returns the number of bytes read since the creation of this input.
+     *
+     * @return number of bytes read
+     */
+    public int bytesRead() {
+        return this.position - this.start;
+    }
+
+    /**
+     * Returns the number of bytes left to read.
+     *
+     * @return number of remaining bytes
+     */
+    public int remaining() {
+        return this.limit - this.position;
+    }
+
+    /**
+     * Sets the cache used to look up keys read through {@link #readKey()}.
+     *
+     * @param keyCache key cache to use, or null to decode every key
+     */
+    public void setKeyCache(@Nullable final KeyCache keyCache) {
+        this.keyCache = keyCache;
+    }
+
+    /**
+     * Returns a copy of the bytes between the given absolute indices.
+     */
+    byte[] copyBytes(final int from, final int to) {
+        final byte[] bytes = new byte[to - from];
+        if (this.buffer.hasArray()) {
+            System.arraycopy(this.buffer.array(), this.buffer.arrayOffset() + from, bytes, 0, bytes.length);
+        } else {
+            final ByteBuffer duplicate = this.buffer.duplicate();
+            ((Buffer) duplicate).position(from);
+            duplicate.get(bytes);
+        }
+        return bytes;
+    }
+
+    private int advance(final int bytes) throws EOFException {
+        final int position = this.position;
+        if (bytes > this.limit - position) {
+            throw new EOFException("Tried to read " + bytes + " bytes, but only " + (this.limit - position) + " are left");
+        }
+        this.position = position + bytes;
+        return position;
+    }
+
+    @Override
+    public void readFully(final byte[] b) throws IOException {
+        this.readFully(b, 0, b.length);
+    }
+
+    @Override
+    public void readFully(final byte[] b, final int off, final int len) throws IOException {
+        if (len < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        final int index = this.advance(len);
+        if (this.buffer.hasArray()) {
+            System.arraycopy(this.buffer.array(), this.buffer.arrayOffset() + index, b, off, len);
+        } else {
+            final ByteBuffer duplicate = this.buffer.duplicate();
+            ((Buffer) duplicate).position(index);
+            duplicate.get(b, off, len);
+        }
+    }
+
+    @Override
+    public int skipBytes(final int n) {
+        final int skipped = Math.max(0, Math.min(n, this.limit - this.position));
+        this.position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return this.readByte() != 0;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        return this.buffer.get(this.advance(Byte.BYTES));
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return this.readByte() & 0xFF;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        return this.buffer.getShort(this.advance(Short.BYTES));
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return this.readShort() & 0xFFFF;
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        return this.buffer.getChar(this.advance(Character.BYTES));
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        return this.buffer.getInt(this.advance(Integer.BYTES));
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        return this.buffer.getLong(this.advance(Long.BYTES));
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return this.buffer.getFloat(this.advance(Float.BYTES));
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        return this.buffer.getDouble(this.advance(Double.BYTES));
+    }
+
+    /**
+     * Reads a range of big-endian ints as one bulk copy, equivalent to calling {@link #readInt()} for each of them.
+     *
+     * @param values array to read into
+     * @param offset index of the first value to read into
+     * @param length number of values to read
+     * @throws IOException if the buffer does not have enough bytes left
+     */
+    public void readInts(final int[] values, final int offset, final int length) throws IOException {
+        this.view(Integer.BYTES, length).asIntBuffer().get(values, offset, length);
+    }
+
+    /**
+     * Reads a range of big-endian longs as one bulk copy, equivalent to calling {@link #readLong()} for each of them.
+     *
+     * @param values array to read into
+     * @param offset index of the first value to read into
+     * @param length number of values to read
+     * @throws IOException if the buffer does not have enough bytes left
+     */
+    public void readLongs(final long[] values, final int offset, final int length) throws IOException {
+        this.view(Long.BYTES, length).asLongBuffer().get(values, offset, length);
+    }
+
+    /**
+     * Reads a range of big-endian floats as one bulk copy, equivalent to calling {@link #readFloat()} for each of them.
+     *
+     * @param values array to read into
+     * @param offset index of the first value to read into
+     * @param length number of values to read
+     * @throws IOException if the buffer does not have enough bytes left
+     */
+    public void readFloats(final float[] values, final int offset, final int length) throws IOException {
+        this.view(Float.BYTES, length).asFloatBuffer().get(values, offset, length);
+    }
+
+    /**
+     * Reads a range of big-endian doubles as one bulk copy, equivalent to calling {@link #readDouble()} for each of them.
+     *
+     * @param values array to read into
+     * @param offset index of the first value to read into
+     * @param length number of values to read
+     * @throws IOException if the buffer does not have enough bytes left
+     */
+    public void readDoubles(final double[] values, final int offset, final int length) throws IOException {
+        this.view(Double.BYTES, length).asDoubleBuffer().get(values, offset, length);
+    }
+
+    /**
+     * Consumes the given number of elements and returns a big-endian buffer starting at them.
+     */
+    private ByteBuffer view(final int elementBytes, final int length) throws EOFException {
+        if (length < 0) {
+            throw new IndexOutOfBoundsException("Invalid length: " + length);
+        }
+        if (length > this.remaining() / elementBytes) {
+            throw new EOFException("Tried to read " + length + " values of " + elementBytes + " bytes, but only " + this.remaining() + " bytes are left");
+        }
+
+        final int index = this.advance(length * elementBytes);
+        final ByteBuffer duplicate = this.buffer.duplicate();
+        ((Buffer) duplicate).limit(index + length * elementBytes).position(index);
+        return duplicate.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Unsupported, as NBT does not contain line-terminated data.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    @Deprecated
+    public String readLine() {
+        throw new UnsupportedOperationException("readLine is not supported");
+    }
+
+    /**
+     * Reads a string in modified UTF-8, producing the same results and errors as {@link DataInputStream#readUTF(DataInput)}.
+     * ASCII strings are created directly from the buffer, other strings are decoded into a char buffer reused by this input.
+     *
+     * @return the read string
+     * @throws IOException if the end of the buffer is reached or the bytes are not valid modified UTF-8
+     */
+    @Override
+    public String readUTF() throws IOException {
+        final int length = this.readUnsignedShort();
+        final int index = this.advance(length);
+        if (length == 0) {
+            return "";
+        }
+        return ModifiedUtf8.decode(this.buffer, index, length, this.chars(length));
+    }
+
+    /**
+     * Reads a compound key in modified UTF-8 like {@link #readUTF()}, looking it up in the key cache if one is set.
+     *
+     * @return the read key
+     * @throws IOException if the end of the buffer is reached or the bytes are not valid modified UTF-8
+     * @see #setKeyCache(KeyCache)
+     */
+    public String readKey() throws IOException {
+        final KeyCache keyCache = this.keyCache;
+        if (keyCache == null) {
+            return this.readUTF();
+        }
+
+        final int length = this.readUnsignedShort();
+        final int index = this.advance(length);
+        if (length == 0) {
+            return "";
+        }
+        return keyCache.read(this.buffer, index, length, this.chars(length));
+    }
+
+    private char[] chars(final int length) {
+        char[] chars = this.chars;
+        if (chars == null || chars.length < length) {
+            // Grow in steps to not reallocate for every slightly longer string
+            chars = this.chars = new char[Math.min(Math.max(length, chars != null ? chars.length << 1 : 64), ModifiedUtf8.MAX_LENGTH)];
+        }
+        return chars;
+    }
+}
@@ -0,0 +1,305 @@
+package com.viaversion.nbt.io;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Data output writing directly into a {@link ByteBuffer} using absolute indices, without going through an output stream.
+ * <p>
+ * The output either writes into a fixed, caller-supplied buffer, or into an internal heap buffer
+ * that grows as needed and can be reused via {@link #reset()}.
+ * The buffer's own position is not modified while writing, use {@link #position()} or {@link #bytesWritten()}
+ * to find out how many bytes have been written.
+ *
+ * @see TagWriter#write(ByteBuffer, com.viaversion.nbt.tag.Tag)
+ * @see TagWriter#toByteArray(com.viaversion.nbt.tag.Tag)
+ */
+public final class ByteBufferDataOutput implements DataOutput {
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private final boolean growable;
+    private final int start;
+    private ByteBuffer buffer;
+    private int limit;
+    private int position;
+
+    /**
+     * Creates a data output writing into the given buffer, from its current position up to its limit.
+     * Values are always written in big-endian order, regardless of the buffer's byte order.
+     *
+     * @param buffer buffer to write into
+     */
+    public ByteBufferDataOutput(final ByteBuffer buffer) {
+        this.buffer = buffer.order() == ByteOrder.BIG_ENDIAN ? buffer : buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        this.growable = false;
+        this.start = buffer.position();
+        this.limit = buffer.limit();
+        this.position = this.start;
+    }
+
+    /**
+     * Creates a data output writing into an internal heap buffer, growing it as needed.
+     *
+     * @param initialCapacity initial capacity of the buffer
+     */
+    public ByteBufferDataOutput(final int initialCapacity) {
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+        this.growable = true;
+        this.start = 0;
+        this.limit = initialCapacity;
+    }
+
+    /**
+     * Returns the absolute index in the buffer that will be written to next.
+     *
+     * @return absolute index of the next byte to write
+     */
+    public int position() {
+        return this.position;
+    }
+
+    /**
+     * Returns the number of bytes written since the creation or last reset of this output.
+     *
+     * @return number of bytes written
+     */
+    public int bytesWritten() {
+        return this.position - this.start;
+    }
+
+    /**
+     * Returns the current capacity of the underlying buffer.
+     *
+     * @return capacity of the underlying buffer
+     */
+    public int capacity() {
+        return this.buffer.capacity();
+    }
+
+    /**
+     * Resets the write position to the start, allowing the output and its buffer to be reused.
+     */
+    public void reset() {
+        this.position = this.start;
+    }
+
+    /**
+     * Returns a buffer containing the written bytes, sharing the content of the underlying buffer.
+     * The returned buffer is only valid until the next write or reset.
+     *
+     * @return buffer view of the written bytes
+     */
+    public ByteBuffer writtenBuffer() {
+        final ByteBuffer duplicate = this.buffer.duplicate();
+        ((Buffer) duplicate).limit(this.position).position(this.start);
+        return duplicate;
+    }
+
+    /**
+     * Returns a copy of the written bytes.
+     *
+     * @return written bytes
+     */
+    public byte[] toByteArray() {
+        if (this.buffer.hasArray()) {
+            final int offset = this.buffer.arrayOffset();
+            return Arrays.copyOfRange(this.buffer.array(), offset + this.start, offset + this.position);
+        }
+
+        final byte[] bytes = new byte[this.bytesWritten()];
+        this.writtenBuffer().get(bytes);
+        return bytes;
+    }
+
+    private int advance(final int bytes) throws IOException {
+        final int position = this.position;
+        if (bytes > this.limit - position) {
+            this.grow(position + bytes);
+        }
+        this.position = position + bytes;
+        return position;
+    }
+
+    private void grow(final int minCapacity) throws IOException {
+        if (!this.growable) {
+            throw new IOException("Not enough space left in buffer: needed " + (minCapacity - this.position) + " bytes, but only " + (this.limit - this.position) + " are left");
+        }
+        if (minCapacity < 0 || minCapacity > MAX_ARRAY_SIZE) {
+            throw new IOException("Required buffer size too large");
+        }
+
+        final int newCapacity = (int) Math.min(Math.max((long) this.limit << 1, minCapacity), MAX_ARRAY_SIZE);
+        this.buffer = ByteBuffer.wrap(Arrays.copyOf(this.buffer.array(), newCapacity));
+        this.limit = newCapacity;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        final int index = this.advance(Byte.BYTES);
+        this.buffer.put(index, (byte) b);
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        this.write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        final int index = this.advance(len);
+        if (this.buffer.hasArray()) {
+            System.arraycopy(b, off, this.buffer.array(), this.buffer.arrayOffset() + index, len);
+        } else {
+            final ByteBuffer duplicate = this.buffer.duplicate();
+            ((Buffer) duplicate).position(index);
+            duplicate.put(b, off, len);
+        }
+    }
+
+    @Override
+    public void writeBoolean(final boolean v) throws IOException {
+        this.writeByte(v ? 1 : 0);
+    }
+
+    @Override
+    public void writeByte(final int v) throws IOException {
+        final int index = this.advance(Byte.BYTES);
+        this.buffer.put(index, (byte) v);
+    }
+
+    @Override
+    public void writeShort(final int v) throws IOException {
+        final int index = this.advance(Short.BYTES);
+        this.buffer.putShort(index, (short) v);
+    }
+
+    @Override
+    public void writeChar(final int v) throws IOException {
+        final int index = this.advance(Character.BYTES);
+        this.buffer.putChar(index, (char) v);
+    }
+
+    @Override
+    public void writeInt(final int v) throws IOException {
+        final int index = this.advance(Integer.BYTES);
+        this.buffer.putInt(index, v);
+    }
+
+    @Override
+    public void writeLong(final long v) throws IOException {
+        final int index = this.advance(Long.BYTES);
+        this.buffer.putLong(index, v);
+    }
+
+    @Override
+    public void writeFloat(final float v) throws IOException {
+        final int index = this.advance(Float.BYTES);
+        this.buffer.putFloat(index, v);
+    }
+
+    @Override
+    public void writeDouble(final double v) throws IOException {
+        final int index = this.advance(Double.BYTES);
+        this.buffer.putDouble(index, v);
+    }
+
+    /**
+     * Writes a range of ints in big-endian order as one bulk copy, equivalent to calling {@link #writeInt(int)} for each of them.
+     *
+     * @param values array to write from
+     * @param offset index of the first value to write
+     * @param length number of values to write
+     * @throws IOException if the buffer does not have enough space left
+     */
+    public void writeInts(final int[] values, final int offset, final int length) throws IOException {
+        this.view(Integer.BYTES, length).asIntBuffer().put(values, offset, length);
+    }
+
+    /**
+     * Writes a range of longs in big-endian order as one bulk copy, equivalent to calling {@link #writeLong(long)} for each of them.
+     *
+     * @param values array to write from
+     * @param offset index of the first value to write
+     * @param length number of values to write
+     * @throws IOException if the buffer does not have enough space left
+     */
+    public void writeLongs(final long[] values, final int offset, final int length) throws IOException {
+        this.view(Long.BYTES, length).asLongBuffer().put(values, offset, length);
+    }
+
+    /**
+     * Writes a range of floats in big-endian order as one bulk copy, equivalent to calling {@link #writeFloat(float)} for each of them.
+     *
+     * @param values array to write from
+     * @param offset index of the first value to write
+     * @param length number of values to write
+     * @throws IOException if the buffer does not have enough space left
+     */
+    public void writeFloats(final float[] values, final int offset, final int length) throws IOException {
+        this.view(Float.BYTES, length).asFloatBuffer().put(values, offset, length);
+    }
+
+    /**
+     * Writes a range of doubles in big-endian order as one bulk copy, equivalent to calling {@link #writeDouble(double)} for each of them.
+     *
+     * @param values array to write from
+     * @param offset index of the first value to write
+     * @param length number of values to write
+     * @throws IOException if the buffer does not have enough space left
+     */
+    public void writeDoubles(final double[] values, final int offset, final int length) throws IOException {
+        this.view(Double.BYTES, length).asDoubleBuffer().put(values, offset, length);
+    }
+
+    /**
+     * Reserves space for the given number of elements and returns a big-endian buffer starting at it.
+     */
+    private ByteBuffer view(final int elementBytes, final int length) throws IOException {
+        if (length < 0 || length > MAX_ARRAY_SIZE / elementBytes) {
+            throw new IndexOutOfBoundsException("Invalid length: " + length);
+        }
+
+        final int index = this.advance(length * elementBytes);
+        final ByteBuffer duplicate = this.buffer.duplicate();
+        ((Buffer) duplicate).limit(index + length * elementBytes).position(index);
+        return duplicate.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    @Override
+    public void writeBytes(final String s) throws IOException {
+        final int length = s.length();
+        int index = this.advance(length);
+        for (int i = 0; i < length; i++) {
+            this.buffer.put(index++, (byte) s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeChars(final String s) throws IOException {
+        final int length = s.length();
+        int index = this.advance(length * Character.BYTES);
+        for (int i = 0; i < length; i++) {
+            this.buffer.putChar(index, s.charAt(i));
+            index += Character.BYTES;
+        }
+    }
+
+    @Override
+    public void writeUTF(final String s) throws IOException {
+        final int encodedLength = ModifiedUtf8.encodedLength(s);
+        if (encodedLength > ModifiedUtf8.MAX_LENGTH) {
+            throw new UTFDataFormatException("Encoded string too long: " + encodedLength + " bytes");
+        }
+
+        final int index = this.advance(Short.BYTES + encodedLength);
+        ModifiedUtf8.write(this.buffer, index, s, encodedLength);
+    }
+}
@@ -0,0 +1,210 @@
+package com.viaversion.nbt.io;
+
+import com.viaversion.nbt.tag.ByteArrayTag;
+import com.viaversion.nbt.tag.ByteTag;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.DoubleTag;
+import com.viaversion.nbt.tag.FloatTag;
+import com.viaversion.nbt.tag.IntArrayTag;
+import com.viaversion.nbt.tag.IntTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.LongArrayTag;
+import com.viaversion.nbt.tag.LongTag;
+import com.viaversion.nbt.tag.ShortTag;
+import com.viaversion.nbt.tag.StringTag;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+
+/**
+ * Utilities for reading encoded tag payloads directly from a big-endian {@link ByteBuffer} using absolute indices.
+ * <p>
+ * These methods do not validate the data, so they should only be used on data that has already been validated or was encoded by the caller.
+ * Invalid data results in {@link IndexOutOfBoundsException}s or wrong results.
+ */
+public final class EncodedTags {
+
+    private EncodedTags() {
+    }
+
+    /**
+     * Returns the absolute index after the payload of a tag with the given id.
+     *
+     * @param buffer buffer to read from
+     * @param index  absolute index of the payload
+     * @param id     tag id
+     * @return absolute index after the payload
+     * @throws IllegalArgumentException if the tag id is unknown
+     */
+    public static int skip(final ByteBuffer buffer, int index, final int id) {
+        switch (id) {
+            case ByteArrayTag.ID:
+                return index + Integer.BYTES + buffer.getInt(index);
+            case StringTag.ID:
+                return index + Short.BYTES + buffer.getChar(index);
+            case ListTag.ID: {
+                final int elementId = buffer.get(index);
+                final int count = buffer.getInt(index + Byte.BYTES);
+                index += Byte.BYTES + Integer.BYTES;
+                final int size = fixedSize(elementId);
+                if (size != -1) {
+                    return index + count * size;
+                }
+                for (int i = 0; i < count; i++) {
+                    index = skip(buffer, index, elementId);
+                }
+                return index;
+            }
+            case CompoundTag.ID: {
+                int entryId;
+                while ((entryId = buffer.get(index++)) != TagRegistry.END) {
+                    index += Short.BYTES + buffer.getChar(index);
+                    index = skip(buffer, index, entryId);
+                }
+                return index;
+            }
+            case IntArrayTag.ID:
+                return index + Integer.BYTES + buffer.getInt(index) * Integer.BYTES;
+            case LongArrayTag.ID:
+                return index + Integer.BYTES + buffer.getInt(index) * Long.BYTES;
+            default:
+                final int size = fixedSize(id);
+                if (size == -1) {
+                    throw new IllegalArgumentException("Unknown tag id: " + id);
+                }
+                return index + size;
+        }
+    }
+
+    /**
+     * Returns the encoded size of payloads with the given id, or -1 if their size is not fixed.
+     *
+     * @param id tag id
+     * @return fixed payload size, or -1
+     */
+    public static int fixedSize(final int id) {
+        switch (id) {
+            case TagRegistry.END:
+                return 0;
+            case ByteTag.ID:
+                return Byte.BYTES;
+            case ShortTag.ID:
+                return Short.BYTES;
+            case IntTag.ID:
+            case FloatTag.ID:
+                return Integer.BYTES;
+            case LongTag.ID:
+            case DoubleTag.ID:
+                return Long.BYTES;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Returns whether the given id belongs to a number tag.
+     *
+     * @param id tag id
+     * @return whether the id belongs to a number tag
+     */
+    public static boolean isNumber(final int id) {
+        return id >= ByteTag.ID && id <= DoubleTag.ID;
+    }
+
+    /**
+     * Reads a number payload as an int, converting it like {@link com.viaversion.nbt.tag.NumberTag#asInt()}.
+     *
+     * @param buffer buffer to read from
+     * @param index  absolute index of the payload
+     * @param id     tag id of a number tag
+     * @return number as an int
+     */
+    public static int intValue(final ByteBuffer buffer, final int index, final int id) {
+        return id >= FloatTag.ID ? (int) doubleValue(buffer, index, id) : (int) longValue(buffer, index, id);
+    }
+
+    /**
+     * Reads a number payload as a long, converting it like {@link com.viaversion.nbt.tag.NumberTag#asLong()}.
+     *
+     * @param buffer buffer to read from
+     * @param index  absolute index of the payload
+     * @param id     tag id of a number tag
+     * @return number as a long
+     */
+    public static long longValue(final ByteBuffer buffer, final int index, final int id) {
+        switch (id) {
+            case ByteTag.ID:
+                return buffer.get(index);
+            case ShortTag.ID:
+                return buffer.getShort(index);
+            case IntTag.ID:
+                return buffer.getInt(index);
+            case LongTag.ID:
+                return buffer.getLong(index);
+            default:
+                return (long) doubleValue(buffer, index, id);
+        }
+    }
+
+    /**
+     * Reads a number payload as a float, converting it like {@link com.viaversion.nbt.tag.NumberTag#asFloat()}.
+     *
+     * @param buffer buffer to read from
+     * @param index  absolute index of the payload
+     * @param id     tag id of a number tag
+     * @return number as a float
+     */
+    public static float floatValue(final ByteBuffer buffer, final int index, final int id) {
+        return id == LongTag.ID ? (float) buffer.getLong(index) : (float) doubleValue(buffer, index, id);
+    }
+
+    /**
+     * Reads a number payload as a double, converting it like {@link com.viaversion.nbt.tag.NumberTag#asDouble()}.
+     *
+     * @param buffer buffer to read from
+     * @param index  absolute index of the payload
+     * @param id     tag id of a number tag
+     * @return number as a double
+     */
+    public static double doubleValue(final ByteBuffer buffer, final int index, final int id) {
+        switch (id) {
+            case FloatTag.ID:
+                return buffer.getFloat(index);
+            case DoubleTag.ID:
+                return buffer.getDouble(index);
+            default:
+                return longValue(buffer, index, id);
+        }
+    }
+
+    /**
+     * Compares an encoded string with the given string, without decoding it if the given string is plain ASCII.
+     *
+     * @param buffer buffer to read from
+     * @param index  absolute index of the string's length prefix
+     * @param string string to compare with
+     * @return whether the strings are equal
+     */
+    public static boolean stringEquals(final ByteBuffer buffer, final int index, final String string) {
+        final int length = buffer.getChar(index);
+        if (length < string.length()) {
+            return false;
+        }
+
+        final int start = index + Short.BYTES;
+        for (int i = 0; i < string.length(); i++) {
+            final char c = string.charAt(i);
+            if (c == 0 || c >= 0x80) {
+                // Encoded with more than one byte, compare the decoded string instead
+                try {
+                    return string.equals(ModifiedUtf8.decode(buffer, start, length, new char[length]));
+                } catch (final UTFDataFormatException e) {
+                    return false;
+                }
+            }
+            if (buffer.get(start + i) != c) {
+                return false;
+            }
+        }
+        return length == string.length();
+    }
+}
@@ -0,0 +1,151 @@
+package com.viaversion.nbt.io;
+
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+
+/**
+ * Bounded table of compound keys, letting repeated keys resolve to one shared string instance.
+ * <p>
+ * Keys are looked up by their encoded bytes before decoding them, so a key found in the cache is neither decoded nor allocated again.
+ * The table has a fixed number of slots, where a newly read key replaces the key previously stored in its slot.
+ * Keys longer than the configured max length are not cached. Instances are thread-safe and can be shared between readers.
+ *
+ * @see TagReader#keyCache(KeyCache)
+ */
+public final class KeyCache {
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int DEFAULT_MAX_KEY_LENGTH = 64;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private final Entry[] entries;
+    private final int mask;
+    private final int maxKeyLength;
+
+    /**
+     * Creates a key cache with {@link #DEFAULT_CAPACITY} slots, caching keys of up to {@link #DEFAULT_MAX_KEY_LENGTH} encoded bytes.
+     */
+    public KeyCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_KEY_LENGTH);
+    }
+
+    /**
+     * Creates a key cache.
+     *
+     * @param capacity     number of slots, rounded up to the next power of two
+     * @param maxKeyLength max number of encoded bytes of a cached key
+     * @throws IllegalArgumentException if the capacity is not positive or too large, or if the max key length is negative
+     */
+    public KeyCache(final int capacity, final int maxKeyLength) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        if (maxKeyLength < 0) {
+            throw new IllegalArgumentException("Invalid max key length: " + maxKeyLength);
+        }
+
+        final int slots = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.entries = new Entry[slots];
+        this.mask = slots - 1;
+        this.maxKeyLength = maxKeyLength;
+    }
+
+    /**
+     * Returns the number of slots of this cache.
+     *
+     * @return number of slots
+     */
+    public int capacity() {
+        return this.entries.length;
+    }
+
+    /**
+     * Returns the max number of encoded bytes of a cached key.
+     *
+     * @return max encoded key length
+     */
+    public int maxKeyLength() {
+        return this.maxKeyLength;
+    }
+
+    /**
+     * Returns the number of keys currently cached.
+     *
+     * @return number of cached keys
+     */
+    public int size() {
+        int size = 0;
+        for (final Entry entry : this.entries) {
+            if (entry != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all cached keys.
+     */
+    public void clear() {
+        for (int i = 0; i < this.entries.length; i++) {
+            this.entries[i] = null;
+        }
+    }
+
+    /**
+     * Returns the key encoded in the given range of the buffer, not including the length prefix, decoding and caching it if needed.
+     *
+     * @param buffer buffer to read from
+     * @param index  absolute index of the first encoded byte
+     * @param length number of encoded bytes
+     * @param chars  scratch buffer with space for at least {@code length} chars
+     * @return the key
+     * @throws UTFDataFormatException if the bytes are not valid modified UTF-8
+     */
+    String read(final ByteBuffer buffer, final int index, final int length, final char[] chars) throws UTFDataFormatException {
+        if (length > this.maxKeyLength) {
+            return ModifiedUtf8.decode(buffer, index, length, chars);
+        }
+
+        int hash = length;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer.get(index + i);
+        }
+        hash ^= hash >>> 16;
+
+        // Entries are immutable and only published as a whole, so racing reads and writes at worst miss the cache
+        final int slot = hash & this.mask;
+        final Entry entry = this.entries[slot];
+        if (entry != null && entry.matches(buffer, index, length)) {
+            return entry.key;
+        }
+
+        final String key = ModifiedUtf8.decode(buffer, index, length, chars);
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(index + i);
+        }
+        this.entries[slot] = new Entry(bytes, key);
+        return key;
+    }
+
+    private static final class Entry {
+        private final byte[] bytes;
+        private final String key;
+
+        private Entry(final byte[] bytes, final String key) {
+            this.bytes = bytes;
+            this.key = key;
+        }
+
+        private boolean matches(final ByteBuffer buffer, final int index, final int length) {
+            if (this.bytes.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (this.bytes[i] != buffer.get(index + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
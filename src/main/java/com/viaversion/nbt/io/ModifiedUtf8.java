@@ -0,0 +1,158 @@
+package com.viaversion.nbt.io;
+
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utility for the modified UTF-8 encoding used by {@link java.io.DataOutput#writeUTF(String)}.
+ */
+public final class ModifiedUtf8 {
+
+    /**
+     * Max number of encoded bytes a string can have, not including the length prefix.
+     */
+    public static final int MAX_LENGTH = 65535;
+
+    private ModifiedUtf8() {
+    }
+
+    /**
+     * Returns the number of bytes the string takes in modified UTF-8, not including the two byte length prefix.
+     *
+     * @param s string to measure
+     * @return encoded length of the string
+     */
+    public static int encodedLength(final String s) {
+        final int length = s.length();
+        int encodedLength = length;
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c >= 0x80 || c == 0) {
+                encodedLength += c >= 0x800 ? 2 : 1;
+            }
+        }
+        return encodedLength;
+    }
+
+    /**
+     * Writes the string including its two byte length prefix at the given index of the buffer.
+     * The buffer needs to have at least {@code 2 + encodedLength} bytes of space left from the index,
+     * and the encoded length must not exceed {@link #MAX_LENGTH}.
+     *
+     * @param buffer        buffer to write to
+     * @param index         absolute index to start writing at
+     * @param s             string to write
+     * @param encodedLength encoded length of the string as returned by {@link #encodedLength(String)}
+     * @return the index after the written string
+     */
+    static int write(final ByteBuffer buffer, int index, final String s, final int encodedLength) {
+        buffer.putShort(index, (short) encodedLength);
+        index += Short.BYTES;
+
+        final int length = s.length();
+        if (encodedLength == length) {
+            // Only ASCII characters
+            for (int i = 0; i < length; i++) {
+                buffer.put(index++, (byte) s.charAt(i));
+            }
+            return index;
+        }
+
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c != 0 && c < 0x80) {
+                buffer.put(index++, (byte) c);
+            } else if (c >= 0x800) {
+                buffer.put(index++, (byte) (0xE0 | ((c >> 12) & 0x0F)));
+                buffer.put(index++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put(index++, (byte) (0x80 | (c & 0x3F)));
+            } else {
+                buffer.put(index++, (byte) (0xC0 | ((c >> 6) & 0x1F)));
+                buffer.put(index++, (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Decodes a string from the given range of the buffer, not including the length prefix,
+     * producing the same results and errors as {@link java.io.DataInputStream#readUTF(java.io.DataInput)}.
+     *
+     * @param buffer buffer to read from
+     * @param index  absolute index of the first encoded byte
+     * @param length number of encoded bytes
+     * @param chars  scratch buffer with space for at least {@code length} chars
+     * @return the decoded string
+     * @throws UTFDataFormatException if the bytes are not valid modified UTF-8
+     */
+    static String decode(final ByteBuffer buffer, final int index, final int length, final char[] chars) throws UTFDataFormatException {
+        int count = 0;
+        if (buffer.hasArray()) {
+            final byte[] array = buffer.array();
+            final int offset = buffer.arrayOffset() + index;
+            while (count < length && array[offset + count] >= 0) {
+                count++;
+            }
+            if (count == length) {
+                // Only ASCII characters, which map directly to Latin-1
+                return new String(array, offset, length, StandardCharsets.ISO_8859_1);
+            }
+            for (int i = 0; i < count; i++) {
+                chars[i] = (char) array[offset + i];
+            }
+        } else {
+            byte b;
+            while (count < length && (b = buffer.get(index + count)) >= 0) {
+                chars[count++] = (char) b;
+            }
+        }
+
+        int charCount = count;
+        while (count < length) {
+            final int c = buffer.get(index + count) & 0xFF;
+            switch (c >> 4) {
+                case 0:
+                case 1:
+                case 2:
+                case 3:
+                case 4:
+                case 5:
+                case 6:
+                case 7:
+                    count++;
+                    chars[charCount++] = (char) c;
+                    break;
+                case 12:
+                case 13: {
+                    count += 2;
+                    if (count > length) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    final int c2 = buffer.get(index + count - 1);
+                    if ((c2 & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("malformed input around byte " + count);
+                    }
+                    chars[charCount++] = (char) (((c & 0x1F) << 6) | (c2 & 0x3F));
+                    break;
+                }
+                case 14: {
+                    count += 3;
+                    if (count > length) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    final int c2 = buffer.get(index + count - 2);
+                    final int c3 = buffer.get(index + count - 1);
+                    if ((c2 & 0xC0) != 0x80 || (c3 & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("malformed input around byte " + (count - 1));
+                    }
+                    chars[charCount++] = (char) (((c & 0x0F) << 12) | ((c2 & 0x3F) << 6) | (c3 & 0x3F));
+                    break;
+                }
+                default:
+                    throw new UTFDataFormatException("malformed input around byte " + count);
+            }
+        }
+        return new String(chars, 0, charCount);
+    }
+}
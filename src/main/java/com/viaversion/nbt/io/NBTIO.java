@@ -5,6 +5,8 @@ import com.viaversion.nbt.limiter.TagLimiter;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -55,6 +57,81 @@ public final class NBTIO {
      * @throws IOException if an I/O error occurs
      */
     public static <T extends Tag> T readTag(final DataInput in, final TagLimiter tagLimiter, final boolean named, @Nullable final Class<T> expectedTagType) throws IOException {
+        final int id = readTagId(in, named, expectedTagType);
+
+        //noinspection unchecked
+        return (T) TagRegistry.read(id, in, tagLimiter, 0);
+    }
+
+    /**
+     * Walks an NBT tag from a data input, passing its contents to the visitor without creating tag instances.
+     *
+     * @param in              input stream to read from
+     * @param tagLimiter      tag limiter to use
+     * @param named           whether the tag is named
+     * @param expectedTagType the expected tag type, or null if any is accepted
+     * @param visitor         visitor to pass the contents to
+     * @throws IOException if an I/O error occurs
+     */
+    public static void visitTag(final DataInput in, final TagLimiter tagLimiter, final boolean named, @Nullable final Class<? extends Tag> expectedTagType, final TagVisitor visitor) throws IOException {
+        final int id = readTagId(in, named, expectedTagType);
+        TagWalker.visit(id, in, visitor, tagLimiter, 0);
+    }
+
+    /**
+     * Skips a tag from a data input without creating tag instances.
+     * Strings, arrays, and lists of fixed-size elements are skipped by their length.
+     *
+     * @param in         input stream to read from
+     * @param tagLimiter tag limiter to use
+     * @param named      whether the tag is named
+     * @throws IOException if an I/O error occurs
+     */
+    public static void skipTag(final DataInput in, final TagLimiter tagLimiter, final boolean named) throws IOException {
+        final int id = readTagId(in, named, null);
+        TagRegistry.skip(id, in, tagLimiter, 0);
+    }
+
+    /**
+     * Skips a tag from a buffer, starting at its current position, without creating tag instances.
+     * After a successful skip, the buffer's position is advanced by the number of bytes the tag takes.
+     *
+     * @param buffer     buffer to read from
+     * @param tagLimiter tag limiter to use
+     * @param named      whether the tag is named
+     * @throws IOException if an I/O error occurs or the buffer ends before the tag does
+     */
+    public static void skipTag(final ByteBuffer buffer, final TagLimiter tagLimiter, final boolean named) throws IOException {
+        final ByteBufferDataInput in = new ByteBufferDataInput(buffer);
+        skipTag(in, tagLimiter, named);
+        ((Buffer) buffer).position(in.position());
+    }
+
+    /**
+     * Checks whether the buffer contains a well-formed tag within the limits of the tag limiter, starting at its current position.
+     * The buffer's position is not modified.
+     * <p>
+     * In addition to the checks done while skipping, string contents are checked for valid modified UTF-8.
+     *
+     * @param buffer     buffer to read from
+     * @param tagLimiter tag limiter to use
+     * @param named      whether the tag is named
+     * @return validation result with basic statistics about the tag
+     */
+    public static ValidationResult validate(final ByteBuffer buffer, final TagLimiter tagLimiter, final boolean named) {
+        final ByteBufferDataInput in = new ByteBufferDataInput(buffer);
+        final TagWalker.Statistics statistics = new TagWalker.Statistics();
+        String error = null;
+        try {
+            final int id = readTagId(in, named, null);
+            TagWalker.skip(id, in, tagLimiter, 0, statistics);
+        } catch (final IOException | IllegalArgumentException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        return new ValidationResult(error, in.bytesRead(), statistics.tags(), statistics.maxNestingLevel());
+    }
+
+    static int readTagId(final DataInput in, final boolean named, @Nullable final Class<? extends Tag> expectedTagType) throws IOException {
         final int id = in.readByte();
         if (expectedTagType != null && expectedTagType != TagRegistry.getClassFor(id)) {
             throw new IOException("Expected tag type " + expectedTagType.getSimpleName() + " but got " + TagRegistry.getClassFor(id).getSimpleName());
@@ -63,9 +140,19 @@ public final class NBTIO {
         if (named) {
             in.skipBytes(in.readUnsignedShort()); // Skip name
         }
+        return id;
+    }
 
-        //noinspection unchecked
-        return (T) TagRegistry.read(id, in, tagLimiter, 0);
+    /**
+     * Returns the exact number of bytes the tag takes when written with {@link #writeTag(DataOutput, Tag, boolean)}.
+     *
+     * @param tag   tag to measure
+     * @param named whether the tag is named
+     * @return serialized size of the tag in bytes
+     */
+    public static int serializedSize(final Tag tag, final boolean named) {
+        // Tag id, empty name if named, and payload
+        return Byte.BYTES + (named ? Short.BYTES : 0) + tag.serializedSize();
     }
 
     /**
@@ -0,0 +1,289 @@
+package com.viaversion.nbt.io;
+
+import com.viaversion.nbt.tag.Tag;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Bounded cache of read tags keyed by their encoded bytes, letting repeated inputs skip decoding.
+ * <p>
+ * Inputs are looked up by a 64-bit hash of their bytes, and a hit is only returned if the bytes are equal to the cached ones.
+ * The cache holds at most the configured number of entries and estimated bytes, counting both the cached bytes and
+ * the {@link Tag#retainedSize() retained size} of the tags, and evicts the least recently used entries beyond that.
+ * Cached tags are frozen, as they are returned to every reader hitting them.
+ * <p>
+ * Instances are thread-safe and can be shared between readers, as long as they are configured the same way,
+ * since a cached tag reflects the settings of the reader that read it.
+ * Entries are split across lock-protected segments by their hash, so concurrent reads mostly lock different segments.
+ *
+ * @see TagReader#parseCache(ParseCache)
+ */
+public final class ParseCache {
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+    public static final long DEFAULT_MAX_BYTES = 16L << 20;
+    private static final int MAX_SEGMENTS = 16;
+    private static final int ENTRY_OVERHEAD = 64; // Entry object, key array header, and hash map slot
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Segment[] segments;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    /**
+     * Creates a parse cache holding up to {@link #DEFAULT_MAX_ENTRIES} entries and {@link #DEFAULT_MAX_BYTES} estimated bytes.
+     */
+    public ParseCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a parse cache.
+     * <p>
+     * Both limits are split evenly across the segments, so a single entry can take up at most a fraction of the max bytes.
+     *
+     * @param maxEntries max number of cached entries
+     * @param maxBytes   max estimated number of bytes of all cached entries
+     * @throws IllegalArgumentException if either limit is not positive
+     */
+    public ParseCache(final int maxEntries, final long maxBytes) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Invalid max entries: " + maxEntries);
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Invalid max bytes: " + maxBytes);
+        }
+
+        final int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maxEntries));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            this.segments[i] = new Segment(maxEntries / segmentCount, maxBytes / segmentCount);
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the max number of cached entries.
+     *
+     * @return max number of entries
+     */
+    public int maxEntries() {
+        return this.maxEntries;
+    }
+
+    /**
+     * Returns the max estimated number of bytes of all cached entries.
+     *
+     * @return max estimated bytes
+     */
+    public long maxBytes() {
+        return this.maxBytes;
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (final Segment segment : this.segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the estimated number of bytes of all cached entries.
+     *
+     * @return estimated bytes
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (final Segment segment : this.segments) {
+            synchronized (segment) {
+                bytes += segment.bytes;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the number of reads that returned a cached tag.
+     *
+     * @return number of hits
+     */
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of reads that had to decode their input.
+     *
+     * @return number of misses
+     */
+    public long misses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the number of entries removed to stay within the limits.
+     *
+     * @return number of evictions
+     */
+    public long evictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Removes all cached entries and resets the statistics.
+     */
+    public void clear() {
+        for (final Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+                segment.bytes = 0;
+            }
+        }
+        this.hits.reset();
+        this.misses.reset();
+        this.evictions.reset();
+    }
+
+    /**
+     * Returns the cached entry for the buffer's remaining bytes, counting the lookup as a hit or miss.
+     *
+     * @param buffer buffer holding exactly the bytes of the tag, which is not modified
+     * @param hash   hash of the input as returned by {@link #hash(ByteBuffer)}
+     * @return the cached entry, or null if there is none
+     */
+    @Nullable Entry get(final ByteBuffer buffer, final long hash) {
+        final Segment segment = this.segment(hash);
+        final Entry entry;
+        synchronized (segment) {
+            entry = segment.entries.getAndMoveToLast(hash);
+        }
+
+        // Entries are immutable, so their bytes can be compared outside the lock
+        if (entry != null && ByteBuffer.wrap(entry.bytes).equals(buffer)) {
+            this.hits.increment();
+            return entry;
+        }
+
+        this.misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches the frozen tag read from the buffer's remaining bytes, unless it is too large for its segment.
+     *
+     * @param buffer buffer holding exactly the bytes of the tag, which is not modified
+     * @param hash   hash of the input as returned by {@link #hash(ByteBuffer)}
+     * @param tag    frozen tag read from the input
+     */
+    void put(final ByteBuffer buffer, final long hash, final Tag tag) {
+        final Segment segment = this.segment(hash);
+        final long size = ENTRY_OVERHEAD + buffer.remaining() + tag.retainedSize();
+        if (size > segment.maxBytes) {
+            return;
+        }
+
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        final Entry entry = new Entry(bytes, tag, size);
+        synchronized (segment) {
+            final Entry previous = segment.entries.put(hash, entry);
+            if (previous != null) {
+                segment.bytes -= previous.size;
+            }
+
+            segment.bytes += size;
+            while (segment.entries.size() > segment.maxEntries || segment.bytes > segment.maxBytes) {
+                segment.bytes -= segment.entries.removeFirst().size;
+                this.evictions.increment();
+            }
+        }
+    }
+
+    private Segment segment(final long hash) {
+        return this.segments[(int) (hash >>> 32) & (this.segments.length - 1)];
+    }
+
+    /**
+     * Returns a 64-bit hash of the buffer's remaining bytes, processing them in four independent lanes of a long each.
+     *
+     * @param buffer buffer to hash, which is not modified
+     * @return hash of the remaining bytes
+     */
+    static long hash(final ByteBuffer buffer) {
+        final int end = buffer.limit();
+        int index = buffer.position();
+        long lane1 = 0x9E3779B97F4A7C15L;
+        long lane2 = 0xC2B2AE3D27D4EB4FL;
+        long lane3 = 0x165667B19E3779F9L;
+        long lane4 = 0x85EBCA77C2B2AE63L;
+        for (; index + 4 * Long.BYTES <= end; index += 4 * Long.BYTES) {
+            lane1 = mix(lane1, buffer.getLong(index));
+            lane2 = mix(lane2, buffer.getLong(index + Long.BYTES));
+            lane3 = mix(lane3, buffer.getLong(index + 2 * Long.BYTES));
+            lane4 = mix(lane4, buffer.getLong(index + 3 * Long.BYTES));
+        }
+
+        long hash = Long.rotateLeft(lane1, 1) + Long.rotateLeft(lane2, 7) + Long.rotateLeft(lane3, 12) + Long.rotateLeft(lane4, 18);
+        hash ^= buffer.remaining();
+        for (; index + Long.BYTES <= end; index += Long.BYTES) {
+            hash = mix(hash, buffer.getLong(index));
+        }
+
+        long tail = 0;
+        for (; index < end; index++) {
+            tail = tail << 8 | buffer.get(index) & 0xFF;
+        }
+        hash = mix(hash, tail);
+
+        // Final avalanche of MurmurHash3
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ hash >>> 33;
+    }
+
+    private static long mix(final long hash, final long value) {
+        final long k = Long.rotateLeft(value * 0x87C37B91114253D5L, 31) * 0x4CF5AD432745937FL;
+        return Long.rotateLeft(hash ^ k, 27) * 5 + 0x52DCE729;
+    }
+
+    static final class Entry {
+        private final byte[] bytes;
+        private final Tag tag;
+        private final long size;
+
+        private Entry(final byte[] bytes, final Tag tag, final long size) {
+            this.bytes = bytes;
+            this.tag = tag;
+            this.size = size;
+        }
+
+        Tag tag() {
+            return this.tag;
+        }
+    }
+
+    private static final class Segment {
+        private final Long2ObjectLinkedOpenHashMap<Entry> entries = new Long2ObjectLinkedOpenHashMap<>();
+        private final int maxEntries;
+        private final long maxBytes;
+        private long bytes;
+
+        private Segment(final int maxEntries, final long maxBytes) {
+            this.maxEntries = maxEntries;
+            this.maxBytes = maxBytes;
+        }
+    }
+}
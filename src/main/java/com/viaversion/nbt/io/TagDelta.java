@@ -0,0 +1,419 @@
+package com.viaversion.nbt.io;
+
+import com.viaversion.nbt.tag.ByteArrayTag;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.IntArrayTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.LongArrayTag;
+import com.viaversion.nbt.tag.StringTag;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.CRC32;
+
+/**
+ * Binary deltas between two encoded tags, e.g. an old and a new version of a file written by {@link TagWriter}.
+ * <p>
+ * Both encodings are split into segments at tag boundaries, with every value and the headers of compounds and lists
+ * forming their own segments, and long strings, arrays, and number lists being split into blocks from the start of their payload.
+ * Segments of the new data are then found in the old data by their hash, so values moved by changed lengths before them are still matched.
+ * Data that is not an uncompressed tag is split into blocks of fixed size instead.
+ * <p>
+ * A delta stores the length and CRC32 checksum of both the old and new data, followed by instructions
+ * either copying a range of the old data or inserting literal bytes.
+ */
+public final class TagDelta {
+    private static final int BLOCK_SIZE = 64;
+    // Copies shorter than this take more bytes than inserting the data directly
+    private static final int MIN_COPY_LENGTH = 8;
+    private static final int MAX_NESTING_LEVEL = 512;
+    private static final int COPY = 0;
+    private static final int INSERT = 1;
+
+    private TagDelta() {
+    }
+
+    /**
+     * Creates a delta turning the old data into the new data.
+     *
+     * @param oldData old encoded data
+     * @param newData new encoded data
+     * @return delta to pass to {@link #apply(byte[], byte[])}
+     */
+    public static byte[] create(final byte[] oldData, final byte[] newData) {
+        final IntArrayList oldSegments = segments(oldData);
+        final Long2IntMap oldOffsets = new Long2IntOpenHashMap(oldSegments.size());
+        oldOffsets.defaultReturnValue(-1);
+        for (int i = 1; i < oldSegments.size(); i++) {
+            final int start = oldSegments.getInt(i - 1);
+            oldOffsets.putIfAbsent(hash(oldData, start, oldSegments.getInt(i) - start), start);
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DeltaWriter writer = new DeltaWriter(new DataOutputStream(bytes), newData);
+        try {
+            writer.out.writeInt(oldData.length);
+            writer.out.writeInt(checksum(oldData));
+            writer.out.writeInt(newData.length);
+            writer.out.writeInt(checksum(newData));
+
+            final IntArrayList newSegments = segments(newData);
+            for (int i = 1; i < newSegments.size(); i++) {
+                final int start = newSegments.getInt(i - 1);
+                final int length = newSegments.getInt(i) - start;
+
+                // Prefer continuing the current copy, so unchanged runs become a single instruction
+                final int next = writer.copyOffset + writer.copyLength;
+                if (writer.copyLength != 0 && regionEquals(oldData, next, newData, start, length)) {
+                    writer.copyLength += length;
+                    continue;
+                }
+
+                final int offset = oldOffsets.get(hash(newData, start, length));
+                if (offset != -1 && regionEquals(oldData, offset, newData, start, length)) {
+                    writer.flushCopy();
+                    writer.copyOffset = offset;
+                    writer.copyLength = length;
+                } else {
+                    writer.flushCopy();
+                    writer.insertLength += length;
+                }
+            }
+            writer.flushCopy();
+            writer.flushInsert();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Applies a delta created by {@link #create(byte[], byte[])} to the old data.
+     *
+     * @param oldData old encoded data
+     * @param delta   delta to apply
+     * @return new encoded data
+     * @throws IOException if the delta is malformed or was created for different old data
+     */
+    public static byte[] apply(final byte[] oldData, final byte[] delta) throws IOException {
+        final ByteBufferDataInput in = new ByteBufferDataInput(delta, 0, delta.length);
+        final int oldLength = in.readInt();
+        final int oldChecksum = in.readInt();
+        if (oldLength != oldData.length || oldChecksum != checksum(oldData)) {
+            throw new IOException("Delta was created for different data");
+        }
+
+        final int newLength = in.readInt();
+        final int newChecksum = in.readInt();
+        if (newLength < 0) {
+            throw new IOException("Negative data length: " + newLength);
+        }
+
+        final byte[] newData = new byte[newLength];
+        int position = 0;
+        int copyEnd = 0;
+        while (position < newLength) {
+            final int type = in.readByte();
+            if (type == COPY) {
+                final int offset = copyEnd + zigZagDecode(readVarInt(in));
+                final int length = readVarInt(in);
+                if (offset < 0 || length < 0 || offset > oldData.length - length || length > newLength - position) {
+                    throw new IOException("Copy instruction out of bounds: " + offset + ", " + length);
+                }
+                System.arraycopy(oldData, offset, newData, position, length);
+                copyEnd = offset + length;
+                position += length;
+            } else if (type == INSERT) {
+                final int length = readVarInt(in);
+                if (length < 0 || length > newLength - position) {
+                    throw new IOException("Insert instruction out of bounds: " + length);
+                }
+                in.readFully(newData, position, length);
+                position += length;
+            } else {
+                throw new IOException("Unknown delta instruction: " + type);
+            }
+        }
+
+        if (checksum(newData) != newChecksum) {
+            throw new IOException("Checksum mismatch of the patched data");
+        }
+        return newData;
+    }
+
+    /**
+     * Returns the absolute indices of all segment boundaries, starting with 0 and ending with the data's length.
+     */
+    private static IntArrayList segments(final byte[] data) {
+        // Root tags are usually written named, but fall back to unnamed ones if that fails
+        final Segmenter named = new Segmenter(data);
+        named.segmentRoot(true);
+        if (named.parsedEnd != data.length) {
+            final Segmenter unnamed = new Segmenter(data);
+            unnamed.segmentRoot(false);
+            if (unnamed.parsedEnd > named.parsedEnd) {
+                return unnamed.finish();
+            }
+        }
+        return named.finish();
+    }
+
+    private static long hash(final byte[] data, final int start, final int length) {
+        // 64-bit FNV-1a, mixed with the length
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < start + length; i++) {
+            hash = (hash ^ data[i]) * 0x100000001b3L;
+        }
+        return hash ^ ((long) length << 40);
+    }
+
+    private static boolean regionEquals(final byte[] a, final int aStart, final byte[] b, final int bStart, final int length) {
+        if (aStart < 0 || aStart + length > a.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (a[aStart + i] != b[bStart + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int checksum(final byte[] data) {
+        final CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        return (int) crc.getValue();
+    }
+
+    private static void writeVarInt(final DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(final DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarInt too big");
+    }
+
+    private static int zigZagEncode(final int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int zigZagDecode(final int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Collects the pending copy or insert instruction until it cannot be extended anymore.
+     */
+    private static final class DeltaWriter {
+        private final DataOutput out;
+        private final byte[] newData;
+        private int position;
+        private int copyEnd;
+        private int copyOffset;
+        private int copyLength;
+        private int insertLength;
+
+        private DeltaWriter(final DataOutput out, final byte[] newData) {
+            this.out = out;
+            this.newData = newData;
+        }
+
+        private void flushCopy() throws IOException {
+            if (this.copyLength == 0) {
+                return;
+            }
+
+            if (this.copyLength < MIN_COPY_LENGTH) {
+                // Directly follows the pending insert in the new data
+                this.insertLength += this.copyLength;
+            } else {
+                this.flushInsert();
+                this.out.writeByte(COPY);
+                writeVarInt(this.out, zigZagEncode(this.copyOffset - this.copyEnd));
+                writeVarInt(this.out, this.copyLength);
+                this.copyEnd = this.copyOffset + this.copyLength;
+                this.position += this.copyLength;
+            }
+            this.copyLength = 0;
+        }
+
+        private void flushInsert() throws IOException {
+            if (this.insertLength == 0) {
+                return;
+            }
+
+            this.out.writeByte(INSERT);
+            writeVarInt(this.out, this.insertLength);
+            this.out.write(this.newData, this.position, this.insertLength);
+            this.position += this.insertLength;
+            this.insertLength = 0;
+        }
+    }
+
+    /**
+     * Finds the segment boundaries of an encoded tag, validating lengths on the way.
+     */
+    private static final class Segmenter {
+        private final byte[] data;
+        private final ByteBufferDataInput in;
+        private final IntArrayList boundaries = new IntArrayList();
+        private int parsedEnd;
+
+        private Segmenter(final byte[] data) {
+            this.data = data;
+            this.in = new ByteBufferDataInput(data, 0, data.length);
+            this.boundaries.add(0);
+        }
+
+        private void segmentRoot(final boolean named) {
+            try {
+                final int id = this.in.readByte();
+                if (named) {
+                    this.skip(this.in.readUnsignedShort());
+                }
+                this.value(id, 0);
+            } catch (final IOException | IllegalArgumentException e) {
+                // Keep the boundaries found before the invalid data
+            }
+        }
+
+        private IntArrayList finish() {
+            // Split data after the last valid boundary into fixed blocks
+            int position = this.boundaries.getInt(this.boundaries.size() - 1);
+            while (position < this.data.length) {
+                position = Math.min(position + BLOCK_SIZE, this.data.length);
+                this.boundaries.add(position);
+            }
+            return this.boundaries;
+        }
+
+        private void value(final int id, final int nestingLevel) throws IOException {
+            switch (id) {
+                case CompoundTag.ID:
+                    this.compound(nestingLevel);
+                    break;
+                case ListTag.ID:
+                    this.list(nestingLevel);
+                    break;
+                case StringTag.ID:
+                    this.blocks(this.in.readUnsignedShort());
+                    break;
+                case ByteArrayTag.ID:
+                    this.blocks((long) this.length() * Byte.BYTES);
+                    break;
+                case IntArrayTag.ID:
+                    this.blocks((long) this.length() * Integer.BYTES);
+                    break;
+                case LongArrayTag.ID:
+                    this.blocks((long) this.length() * Long.BYTES);
+                    break;
+                default:
+                    final int size = EncodedTags.fixedSize(id);
+                    if (size <= 0) {
+                        throw new IOException("Unknown tag ID: " + id);
+                    }
+                    this.skip(size);
+                    this.mark();
+                    break;
+            }
+        }
+
+        private void compound(final int nestingLevel) throws IOException {
+            this.checkLevel(nestingLevel);
+            this.mark(); // Header, which is the entry's id and key or the root's id and name
+            int id;
+            while ((id = this.in.readByte()) != TagRegistry.END) {
+                this.skip(this.in.readUnsignedShort());
+                this.value(id, nestingLevel + 1);
+            }
+            this.mark();
+        }
+
+        private void list(final int nestingLevel) throws IOException {
+            this.checkLevel(nestingLevel);
+            final int id = this.in.readByte();
+            final int count = this.length();
+            this.mark();
+
+            final int size = EncodedTags.fixedSize(id);
+            if (size != -1) {
+                this.blocks((long) count * size);
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                this.value(id, nestingLevel + 1);
+            }
+        }
+
+        /**
+         * Skips a payload of the given length, splitting it into blocks if it is long.
+         */
+        private void blocks(final long length) throws IOException {
+            this.checkRemaining(length);
+            if (length <= BLOCK_SIZE) {
+                this.skip(length);
+                this.mark();
+                return;
+            }
+
+            this.mark();
+            final int end = this.in.position() + (int) length;
+            while (this.in.position() < end) {
+                this.in.skipBytes(Math.min(BLOCK_SIZE, end - this.in.position()));
+                this.mark();
+            }
+        }
+
+        private void mark() {
+            final int position = this.in.position();
+            if (position > this.boundaries.getInt(this.boundaries.size() - 1)) {
+                this.boundaries.add(position);
+            }
+            this.parsedEnd = position;
+        }
+
+        private int length() throws IOException {
+            final int length = this.in.readInt();
+            if (length < 0) {
+                throw new IOException("Negative length: " + length);
+            }
+            return length;
+        }
+
+        private void skip(final long bytes) throws IOException {
+            this.checkRemaining(bytes);
+            this.in.skipBytes((int) bytes);
+        }
+
+        private void checkRemaining(final long bytes) throws EOFException {
+            if (bytes > this.in.remaining()) {
+                throw new EOFException("Tried to read " + bytes + " bytes, but only " + this.in.remaining() + " are left");
+            }
+        }
+
+        private void checkLevel(final int nestingLevel) throws IOException {
+            if (nestingLevel > MAX_NESTING_LEVEL) {
+                throw new IOException("Nesting level higher than expected (capped at " + MAX_NESTING_LEVEL + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.viaversion.nbt.io;
+
+import com.viaversion.nbt.limiter.TagLimiter;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.Tag;
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tree of key paths, used to only decode selected parts of a compound tag and/or to keep parts of it as raw tags.
+ * <p>
+ * Paths consist of compound keys separated by dots, where a key followed by {@code []} applies
+ * the rest of the path to every element of a list, e.g. {@code Level.Sections[].BlockStates}.
+ */
+final class TagPathSelection {
+    private static final String LIST_ELEMENTS_SUFFIX = "[]";
+    private static final int NONE = 0;
+    private static final int DECODE = 1;
+    private static final int RAW = 2;
+    private final Map<String, TagPathSelection> children = new HashMap<>();
+    private final boolean skipUnselected;
+    private TagPathSelection elements;
+    private boolean rawChildren;
+    private int mode = NONE;
+
+    private TagPathSelection(final boolean skipUnselected) {
+        this.skipUnselected = skipUnselected;
+    }
+
+    /**
+     * Creates a path selection.
+     *
+     * @param selectedPaths paths to decode, or null to decode everything not kept raw
+     * @param rawPaths      paths to keep as raw tags
+     * @param rawSubtrees   whether to keep all compounds and lists directly inside the root compound as raw tags
+     * @return path selection
+     */
+    static TagPathSelection create(final String @Nullable [] selectedPaths, final String[] rawPaths, final boolean rawSubtrees) {
+        final TagPathSelection root = new TagPathSelection(selectedPaths != null);
+        root.rawChildren = rawSubtrees;
+        if (selectedPaths != null) {
+            for (final String path : selectedPaths) {
+                root.add(path, DECODE);
+            }
+        }
+        for (final String path : rawPaths) {
+            if (path.endsWith(LIST_ELEMENTS_SUFFIX)) {
+                throw new IllegalArgumentException("Raw tags cannot be used as list elements: " + path);
+            }
+            root.add(path, RAW);
+        }
+        return root;
+    }
+
+    private void add(final String path, final int mode) {
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("Empty path");
+        }
+
+        TagPathSelection selection = this;
+        for (String key : path.split("\\.", -1)) {
+            int listDepth = 0;
+            while (key.endsWith(LIST_ELEMENTS_SUFFIX)) {
+                key = key.substring(0, key.length() - LIST_ELEMENTS_SUFFIX.length());
+                listDepth++;
+            }
+            if (key.isEmpty()) {
+                throw new IllegalArgumentException("Empty key in path " + path);
+            }
+
+            selection = selection.children.computeIfAbsent(key, k -> new TagPathSelection(this.skipUnselected));
+            for (int i = 0; i < listDepth; i++) {
+                if (selection.elements == null) {
+                    selection.elements = new TagPathSelection(this.skipUnselected);
+                }
+                selection = selection.elements;
+            }
+        }
+
+        // Fully decoding a path takes precedence over keeping it raw
+        if (mode == DECODE || selection.mode == NONE) {
+            selection.mode = mode;
+        }
+    }
+
+    /**
+     * Reads a compound tag payload according to the selection.
+     */
+    CompoundTag readCompound(final DataInput in, final TagLimiter tagLimiter, final int nestingLevel) throws IOException {
+        tagLimiter.checkLevel(nestingLevel);
+        final int newNestingLevel = nestingLevel + 1;
+
+        final CompoundTag compoundTag = new CompoundTag();
+        while (true) {
+            tagLimiter.countByte();
+            final int id = in.readByte();
+            if (id == TagRegistry.END) {
+                break;
+            }
+
+            final String name = TagWalker.readKey(in);
+            tagLimiter.countBytes(2 * name.length());
+
+            final TagPathSelection selection = this.children.get(name);
+            Tag tag = selection != null ? selection.read(id, in, tagLimiter, newNestingLevel) : null;
+            if (tag == null) {
+                if (this.rawChildren && (id == CompoundTag.ID || id == ListTag.ID)) {
+                    tag = TagWalker.readRaw(id, in, tagLimiter, newNestingLevel, false);
+                } else if (this.skipUnselected) {
+                    TagWalker.skip(id, in, tagLimiter, newNestingLevel);
+                    continue;
+                } else {
+                    tag = readFully(id, in, tagLimiter, newNestingLevel);
+                }
+            }
+            compoundTag.put(name, tag);
+        }
+        return compoundTag;
+    }
+
+    /**
+     * Reads the selected parts of a tag payload, or returns null without consuming anything if none of the tag is selected.
+     */
+    private @Nullable Tag read(final int id, final DataInput in, final TagLimiter tagLimiter, final int nestingLevel) throws IOException {
+        if (this.mode == DECODE) {
+            return readFully(id, in, tagLimiter, nestingLevel);
+        } else if (this.mode == RAW) {
+            return TagWalker.readRaw(id, in, tagLimiter, nestingLevel, false);
+        }
+
+        if (id == CompoundTag.ID && !this.children.isEmpty()) {
+            return this.readCompound(in, tagLimiter, nestingLevel);
+        }
+        if (id == ListTag.ID && this.elements != null) {
+            return this.elements.readList(in, tagLimiter, nestingLevel);
+        }
+        return null;
+    }
+
+    private ListTag<?> readList(final DataInput in, final TagLimiter tagLimiter, final int nestingLevel) throws IOException {
+        tagLimiter.checkLevel(nestingLevel);
+        tagLimiter.countBytes(Byte.BYTES + Integer.BYTES);
+        final int newNestingLevel = nestingLevel + 1;
+
+        final int id = in.readByte();
+        final int count = in.readInt();
+        TagRegistry.checkListHeader(id, count);
+
+        final List<Tag> tags = new ArrayList<>(Math.min(count, Short.MAX_VALUE));
+        final boolean container = id == CompoundTag.ID || id == ListTag.ID;
+        for (int i = 0; i < count; i++) {
+            Tag tag = container ? this.read(id, in, tagLimiter, newNestingLevel) : null;
+            if (tag == null) {
+                // Nothing to select in the elements, read them as they are
+                tag = readFully(id, in, tagLimiter, newNestingLevel);
+            }
+            tags.add(tag);
+        }
+        return ListTag.of(tags);
+    }
+
+    private static Tag readFully(final int id, final DataInput in, final TagLimiter tagLimiter, final int nestingLevel) throws IOException {
+        try {
+            return TagRegistry.read(id, in, tagLimiter, nestingLevel);
+        } catch (final IllegalArgumentException e) {
+            throw new IOException("Failed to create tag.", e);
+        }
+    }
+}
@@ -1,15 +1,24 @@
 package com.viaversion.nbt.io;
 
+import com.viaversion.nbt.compression.CompressionCodec;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.RawTag;
 import com.viaversion.nbt.tag.Tag;
+import com.viaversion.nbt.tag.TagDeduplicator;
 import com.viaversion.nbt.limiter.TagLimiter;
 import it.unimi.dsi.fastutil.io.FastBufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.zip.GZIPInputStream;
+import java.nio.file.StandardOpenOption;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -22,6 +31,15 @@ public final class TagReader<T extends Tag> {
     private final Class<T> expectedTagType;
     private TagLimiter tagLimiter = TagLimiter.noop();
     private boolean named;
+    private boolean memoryMapped;
+    private boolean lazy;
+    private KeyCache keyCache;
+    private TagDeduplicator deduplicator;
+    private ParseCache parseCache;
+    private String[] selectedPaths;
+    private String[] rawPaths = new String[0];
+    private boolean rawSubtrees;
+    private TagPathSelection selection;
 
     TagReader(@Nullable final Class<T> expectedTagType) {
         this.expectedTagType = expectedTagType;
@@ -48,6 +66,153 @@ public final class TagReader<T extends Tag> {
         return this;
     }
 
+    /**
+     * Sets this reader to memory-map uncompressed files in {@link #read(Path, boolean)} and decode directly from the mapped region,
+     * instead of reading them through a buffered input stream.
+     *
+     * @return self
+     */
+    public TagReader<T> memoryMapped() {
+        this.memoryMapped = true;
+        return this;
+    }
+
+    /**
+     * Sets this reader to keep nested compounds and lists encoded until they are accessed when reading from a
+     * {@link ByteBuffer}, byte array, or memory-mapped file. Other inputs, as well as reads using
+     * {@link #select(String...)} or {@link #raw(String...)}, are decoded fully.
+     *
+     * @return self
+     * @see CompoundTag#readLazy(DataInput, TagLimiter, int)
+     */
+    public TagReader<T> lazy() {
+        this.lazy = true;
+        return this;
+    }
+
+    /**
+     * Sets the cache used to share compound key strings between reads from a {@link ByteBuffer}, byte array, or memory-mapped file.
+     * Keys are matched by their encoded bytes, so cached keys are not decoded again.
+     * The cache is thread-safe and can be shared between readers.
+     *
+     * @param keyCache key cache to use, or null to decode every key
+     * @return self
+     * @see ByteBufferDataInput#setKeyCache(KeyCache)
+     */
+    public TagReader<T> keyCache(@Nullable final KeyCache keyCache) {
+        this.keyCache = keyCache;
+        return this;
+    }
+
+    /**
+     * Sets the deduplicator used to share equal subtrees between read tags.
+     * Read tags are then frozen, and equal frozen subtrees of previously read tags are used in place of newly read ones.
+     * As raw tags cannot be frozen, this cannot be combined with {@link #raw(String...)} or {@link #rawSubtrees()}.
+     * The deduplicator is thread-safe and can be shared between readers.
+     *
+     * @param deduplicator deduplicator to use, or null to not freeze or deduplicate read tags
+     * @return self
+     * @throws IllegalStateException if this reader keeps tags as raw tags
+     * @see Tag#freeze()
+     */
+    public TagReader<T> deduplicator(@Nullable final TagDeduplicator deduplicator) {
+        if (deduplicator != null) {
+            this.checkNoRawTags("a deduplicator");
+        }
+        this.deduplicator = deduplicator;
+        return this;
+    }
+
+    /**
+     * Sets the cache used to return the same tag for repeated inputs read from a {@link ByteBuffer} or byte array, without decoding them again.
+     * Inputs are first skipped over to find the end of the tag, also checking the limits of the tag limiter,
+     * and the tag's bytes are then used as the key, ignoring anything after them.
+     * Read tags are then frozen and shared between reads, so they have to be copied before modifying them.
+     * As raw tags cannot be frozen, this cannot be combined with {@link #raw(String...)} or {@link #rawSubtrees()}.
+     * The cache is thread-safe, but should only be shared between readers with the same settings.
+     *
+     * @param parseCache parse cache to use, or null to decode every read tag
+     * @return self
+     * @throws IllegalStateException if this reader keeps tags as raw tags
+     */
+    public TagReader<T> parseCache(@Nullable final ParseCache parseCache) {
+        if (parseCache != null) {
+            this.checkNoRawTags("a parse cache");
+        }
+        this.parseCache = parseCache;
+        return this;
+    }
+
+    /**
+     * Sets this reader to only read the given key paths of a compound tag, skipping all other entries without decoding them.
+     * <p>
+     * Paths consist of compound keys separated by dots. A key followed by {@code []} applies the rest of the path
+     * to every element of a list, e.g. {@code Level.Sections[].BlockStates} or {@code DataVersion}.
+     * Compounds on the way to a selected path are included even if the path is not present in them.
+     *
+     * @param paths key paths to read
+     * @return self
+     * @throws IllegalArgumentException if a path is malformed
+     */
+    public TagReader<T> select(final String... paths) {
+        this.selectedPaths = paths.length != 0 ? paths.clone() : null;
+        this.updateSelection();
+        return this;
+    }
+
+    /**
+     * Sets this reader to keep the given key paths of a compound tag as {@link RawTag}s, holding their encoded bytes
+     * instead of decoding them. Uses the same path format as {@link #select(String...)}, but the last part of a path
+     * cannot select list elements.
+     *
+     * @param paths key paths to keep as raw tags
+     * @return self
+     * @throws IllegalArgumentException if a path is malformed
+     * @throws IllegalStateException if this reader freezes read tags for a parse cache or deduplicator
+     */
+    public TagReader<T> raw(final String... paths) {
+        if (paths.length != 0) {
+            this.checkNoFrozenTags();
+        }
+        this.rawPaths = paths.clone();
+        this.updateSelection();
+        return this;
+    }
+
+    /**
+     * Sets this reader to keep all compounds and lists directly inside the root compound tag as {@link RawTag}s.
+     *
+     * @return self
+     * @throws IllegalStateException if this reader freezes read tags for a parse cache or deduplicator
+     * @see #raw(String...)
+     */
+    public TagReader<T> rawSubtrees() {
+        this.checkNoFrozenTags();
+        this.rawSubtrees = true;
+        this.updateSelection();
+        return this;
+    }
+
+    private void checkNoRawTags(final String feature) {
+        if (this.rawPaths.length != 0 || this.rawSubtrees) {
+            throw new IllegalStateException("Cannot use " + feature + " when keeping raw tags, as they cannot be frozen");
+        }
+    }
+
+    private void checkNoFrozenTags() {
+        if (this.parseCache != null || this.deduplicator != null) {
+            throw new IllegalStateException("Cannot keep raw tags when using a parse cache or deduplicator, as raw tags cannot be frozen");
+        }
+    }
+
+    private void updateSelection() {
+        if (this.selectedPaths == null && this.rawPaths.length == 0 && !this.rawSubtrees) {
+            this.selection = null;
+        } else {
+            this.selection = TagPathSelection.create(this.selectedPaths, this.rawPaths, this.rawSubtrees);
+        }
+    }
+
     /**
      * Reads the tag from the given data output.
      *
@@ -55,10 +220,64 @@ public final class TagReader<T extends Tag> {
      * @throws IOException if an I/O error occurs
      */
     public T read(final DataInput in) throws IOException {
+        final T tag = this.readTag(in);
+        if (this.deduplicator != null) {
+            return this.deduplicator.freezeAndDeduplicate(tag);
+        }
+        return tag;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T readTag(final DataInput in) throws IOException {
         this.tagLimiter.reset();
+        if (this.selection != null) {
+            return this.readSelected(in);
+        }
+        if (this.lazy && in instanceof ByteBufferDataInput) {
+            final int id = NBTIO.readTagId(in, this.named, this.expectedTagType);
+            return (T) TagRegistry.readLazy(id, in, this.tagLimiter, 0);
+        }
         return NBTIO.readTag(in, this.tagLimiter, this.named, this.expectedTagType);
     }
 
+    @SuppressWarnings("unchecked")
+    private T readSelected(final DataInput in) throws IOException {
+        final int id = NBTIO.readTagId(in, this.named, this.expectedTagType);
+        if (id != CompoundTag.ID) {
+            throw new IOException("Selective and raw reads require a compound tag, but got tag with id " + id);
+        }
+
+        return (T) this.selection.readCompound(in, this.tagLimiter, 0);
+    }
+
+    /**
+     * Walks the tag from the given data input, passing its contents to the visitor without creating tag instances.
+     *
+     * @param in      data input to read from
+     * @param visitor visitor to pass the contents to
+     * @throws IOException if an I/O error occurs
+     * @see TagVisitor
+     */
+    public void visit(final DataInput in, final TagVisitor visitor) throws IOException {
+        this.tagLimiter.reset();
+        NBTIO.visitTag(in, this.tagLimiter, this.named, this.expectedTagType, visitor);
+    }
+
+    /**
+     * Walks the tag from the given buffer, starting at its current position, passing its contents to the visitor without creating tag instances.
+     * After a successful read, the buffer's position is advanced by the number of bytes consumed.
+     *
+     * @param buffer  buffer to read from
+     * @param visitor visitor to pass the contents to
+     * @throws IOException if an I/O error occurs or the buffer ends before the tag does
+     * @see TagVisitor
+     */
+    public void visit(final ByteBuffer buffer, final TagVisitor visitor) throws IOException {
+        final ByteBufferDataInput in = this.input(buffer);
+        this.visit(in, visitor);
+        ((Buffer) buffer).position(in.position());
+    }
+
     /**
      * Reads a tag from the given input stream.
      *
@@ -71,22 +290,145 @@ public final class TagReader<T extends Tag> {
         return this.read(dataInput);
     }
 
+    /**
+     * Reads a tag from the given buffer, starting at its current position.
+     * After a successful read, the buffer's position is advanced by the number of bytes consumed,
+     * allowing further data to be read after the tag.
+     *
+     * @param buffer buffer to read from
+     * @return the read tag
+     * @throws IOException if an I/O error occurs or the buffer ends before the tag does
+     */
+    public T read(final ByteBuffer buffer) throws IOException {
+        if (this.parseCache != null) {
+            return this.readCached(buffer);
+        }
+
+        final ByteBufferDataInput in = this.input(buffer);
+        final T tag = this.read(in);
+        ((Buffer) buffer).position(in.position());
+        return tag;
+    }
+
+    /**
+     * Reads a tag from the given byte array.
+     *
+     * @param bytes bytes to read from
+     * @return the read tag
+     * @throws IOException if an I/O error occurs or the array ends before the tag does
+     */
+    public T read(final byte[] bytes) throws IOException {
+        return this.read(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads a tag from the given range of the byte array.
+     * To find out how many bytes were consumed, read from a {@link ByteBufferDataInput} or a {@link ByteBuffer} instead.
+     *
+     * @param bytes  bytes to read from
+     * @param offset offset to start reading at
+     * @param length number of readable bytes
+     * @return the read tag
+     * @throws IOException if an I/O error occurs or the range ends before the tag does
+     */
+    public T read(final byte[] bytes, final int offset, final int length) throws IOException {
+        return this.read(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T readCached(final ByteBuffer buffer) throws IOException {
+        final ByteBuffer key = buffer.duplicate();
+        ((Buffer) key).limit(buffer.position() + this.encodedLength(buffer));
+        final long hash = ParseCache.hash(key);
+        final ParseCache.Entry entry = this.parseCache.get(key, hash);
+        if (entry != null) {
+            ((Buffer) buffer).position(key.limit());
+            return (T) entry.tag();
+        }
+
+        final ByteBufferDataInput in = this.input(key.duplicate());
+        final T tag = this.read(in);
+        tag.freeze();
+        this.parseCache.put(key, hash, tag);
+        ((Buffer) buffer).position(in.position());
+        return tag;
+    }
+
+    /**
+     * Returns the number of bytes taken by the tag at the buffer's position, skipping over it without decoding it.
+     */
+    private int encodedLength(final ByteBuffer buffer) throws IOException {
+        final ByteBufferDataInput in = new ByteBufferDataInput(buffer.duplicate());
+        this.tagLimiter.reset();
+        final int id = NBTIO.readTagId(in, this.named, this.expectedTagType);
+        TagWalker.skip(id, in, this.tagLimiter, 0);
+        return in.position() - buffer.position();
+    }
+
+    /**
+     * Reads a tag from the given byte array, decompressing it with the given codec.
+     *
+     * @param bytes compressed bytes to read from
+     * @param codec compression codec of the bytes
+     * @return the read tag
+     * @throws IOException if an I/O error occurs or the data is invalid
+     * @see CompressionCodec#zlib(int, com.viaversion.nbt.compression.CompressionDictionary)
+     */
+    public T read(final byte[] bytes, final CompressionCodec codec) throws IOException {
+        if (codec == CompressionCodec.none()) {
+            return this.read(bytes);
+        }
+
+        try (final InputStream in = codec.decompress(new ByteArrayInputStream(bytes))) {
+            return this.read(in);
+        }
+    }
+
+    private ByteBufferDataInput input(final ByteBuffer buffer) {
+        final ByteBufferDataInput in = new ByteBufferDataInput(buffer);
+        in.setKeyCache(this.keyCache);
+        return in;
+    }
+
     /**
      * Reads a tag from the given path. At least so far, the standard format is always named, so make sure to call {@link #named()}.
      *
      * @param path       path to read from
-     * @param compressed whether the file is compressed
+     * @param compressed whether the file is gzip compressed
      * @throws IOException if an I/O error occurs
+     * @see #read(Path, CompressionCodec)
      */
     public T read(final Path path, final boolean compressed) throws IOException {
-        InputStream in = new FastBufferedInputStream(Files.newInputStream(path));
-        try {
-            if (compressed) {
-                in = new GZIPInputStream(in);
-            }
+        return this.read(path, compressed ? CompressionCodec.gzip() : CompressionCodec.none());
+    }
+
+    /**
+     * Reads a tag from the given path. At least so far, the standard format is always named, so make sure to call {@link #named()}.
+     *
+     * @param path  path to read from
+     * @param codec compression codec of the file
+     * @throws IOException if an I/O error occurs
+     * @see #memoryMapped()
+     */
+    public T read(final Path path, final CompressionCodec codec) throws IOException {
+        if (this.memoryMapped && codec == CompressionCodec.none()) {
+            return this.readMapped(path);
+        }
+
+        try (final InputStream in = codec.decompress(new FastBufferedInputStream(Files.newInputStream(path)))) {
             return this.read(in);
-        } finally {
-            in.close();
         }
     }
-}
\ No newline at end of file
+
+    private T readMapped(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to be memory-mapped: " + size + " bytes");
+            }
+
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return this.read(buffer);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import com.viaversion.nbt.tag.IntTag;
 import com.viaversion.nbt.tag.ListTag;
 import com.viaversion.nbt.tag.LongArrayTag;
 import com.viaversion.nbt.tag.LongTag;
+import com.viaversion.nbt.tag.RawTag;
 import com.viaversion.nbt.tag.ShortTag;
 import com.viaversion.nbt.tag.StringTag;
 import com.viaversion.nbt.tag.Tag;
@@ -104,6 +105,76 @@ public final class TagRegistry {
         return supplier.create(in, tagLimiter, nestingLevel);
     }
 
+    /**
+     * Checks the element id and length read from a list header the same way {@link ListTag#read(DataInput, TagLimiter, int)} does,
+     * only allowing {@link #END} as the element id of empty lists.
+     *
+     * @param id    element id of the list
+     * @param count number of elements
+     * @throws IOException if the element id is unknown, the list has elements without a type, or the length is negative
+     */
+    public static void checkListHeader(int id, int count) throws IOException {
+        if (count < 0) {
+            throw new IOException("Negative list length: " + count);
+        }
+        if (id == END) {
+            if (count != 0) {
+                throw new IOException("List of " + count + " elements has no element type");
+            }
+        } else if (getClassFor(id) == null) {
+            throw new IOException("Unknown tag ID in ListTag: " + id);
+        }
+    }
+
+    /**
+     * Skips the payload of a tag with the given id without creating tag instances, counting bytes and nesting levels like {@link #read(int, DataInput, TagLimiter, int)}.
+     *
+     * @param id           id of the tag
+     * @param in           data input to read from
+     * @param tagLimiter   tag limiter to use
+     * @param nestingLevel current nesting level
+     * @throws IOException if an I/O error occurs or the id is unknown
+     */
+    public static void skip(int id, DataInput in, TagLimiter tagLimiter, int nestingLevel) throws IOException {
+        TagWalker.skip(id, in, tagLimiter, nestingLevel);
+    }
+
+    /**
+     * Reads a tag with the given id, keeping nested compounds and lists encoded until they are accessed.
+     *
+     * @param id           id of the tag
+     * @param in           data input to read from
+     * @param tagLimiter   tag limiter to use
+     * @param nestingLevel current nesting level
+     * @return the read tag
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if no tags is registered over the provided id
+     * @see CompoundTag#readLazy(DataInput, TagLimiter, int)
+     */
+    public static Tag readLazy(int id, DataInput in, TagLimiter tagLimiter, int nestingLevel) throws IOException {
+        if (id == CompoundTag.ID) {
+            return CompoundTag.readLazy(in, tagLimiter, nestingLevel);
+        } else if (id == ListTag.ID) {
+            return ListTag.readLazy(in, tagLimiter, nestingLevel);
+        }
+        return read(id, in, tagLimiter, nestingLevel);
+    }
+
+    /**
+     * Reads the payload of a tag with the given id as a raw tag, counting bytes and nesting levels like {@link #read(int, DataInput, TagLimiter, int)}.
+     *
+     * @param id           id of the tag
+     * @param in           data input to read from
+     * @param tagLimiter   tag limiter to use
+     * @param nestingLevel current nesting level
+     * @param lazy         whether decoding the raw tag should keep its nested compounds and lists encoded
+     * @return the raw tag
+     * @throws IOException if an I/O error occurs or the id is unknown
+     */
+    public static RawTag readRaw(int id, DataInput in, TagLimiter tagLimiter, int nestingLevel, boolean lazy) throws IOException {
+        return TagWalker.readRaw(id, in, tagLimiter, nestingLevel, lazy);
+    }
+
     private static final class RegisteredTagType {
 
         private final Class<? extends Tag> type;
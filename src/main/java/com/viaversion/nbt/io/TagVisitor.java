@@ -0,0 +1,84 @@
+package com.viaversion.nbt.io;
+
+/**
+ * Visitor receiving callbacks while binary NBT is being walked, without building a tag tree.
+ * <p>
+ * Compound entries and list contents can be skipped at byte level by returning false from
+ * {@link #visitKey(String, int)} and {@link #visitListStart(int, int)}. Mixed lists are visited in their
+ * serialized form, as lists of compounds with a single empty key.
+ * All methods do nothing by default.
+ *
+ * @see TagReader#visit(java.io.DataInput, TagVisitor)
+ */
+public interface TagVisitor {
+
+    default void visitByte(byte value) {
+    }
+
+    default void visitShort(short value) {
+    }
+
+    default void visitInt(int value) {
+    }
+
+    default void visitLong(long value) {
+    }
+
+    default void visitFloat(float value) {
+    }
+
+    default void visitDouble(double value) {
+    }
+
+    default void visitString(String value) {
+    }
+
+    default void visitByteArray(byte[] value) {
+    }
+
+    default void visitIntArray(int[] value) {
+    }
+
+    default void visitLongArray(long[] value) {
+    }
+
+    /**
+     * Called before the entries of a compound tag are visited.
+     */
+    default void visitCompoundStart() {
+    }
+
+    /**
+     * Called for each entry of a compound tag, before its value is visited.
+     *
+     * @param key    key of the entry
+     * @param typeId tag id of the value
+     * @return whether the value should be visited, else it is skipped
+     */
+    default boolean visitKey(String key, int typeId) {
+        return true;
+    }
+
+    /**
+     * Called after all entries of a compound tag have been visited or skipped.
+     */
+    default void visitCompoundEnd() {
+    }
+
+    /**
+     * Called before the elements of a list tag are visited.
+     *
+     * @param typeId element tag id, or {@link TagRegistry#END} if the list is empty
+     * @param count  number of elements
+     * @return whether the elements should be visited, else they are skipped
+     */
+    default boolean visitListStart(int typeId, int count) {
+        return true;
+    }
+
+    /**
+     * Called after all elements of a list tag have been visited or skipped.
+     */
+    default void visitListEnd() {
+    }
+}
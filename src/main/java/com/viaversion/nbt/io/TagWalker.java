@@ -0,0 +1,369 @@
+package com.viaversion.nbt.io;
+
+import com.viaversion.nbt.limiter.TagLimiter;
+import com.viaversion.nbt.tag.ByteArrayTag;
+import com.viaversion.nbt.tag.ByteTag;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.DoubleTag;
+import com.viaversion.nbt.tag.FloatTag;
+import com.viaversion.nbt.tag.IntArrayTag;
+import com.viaversion.nbt.tag.IntTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.LongArrayTag;
+import com.viaversion.nbt.tag.LongTag;
+import com.viaversion.nbt.tag.ShortTag;
+import com.viaversion.nbt.tag.RawTag;
+import com.viaversion.nbt.tag.StringTag;
+import com.viaversion.nbt.tag.Tag;
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Walks binary NBT without creating tag instances, either passing values to a {@link TagVisitor} or skipping them.
+ * Counts bytes and nesting levels in the same way as the tag read methods, with skipped strings being counted by their encoded length.
+ */
+final class TagWalker {
+
+    private TagWalker() {
+    }
+
+    static void visit(final int id, final DataInput in, final TagVisitor visitor, final TagLimiter tagLimiter, final int nestingLevel) throws IOException {
+        switch (id) {
+            case ByteTag.ID:
+                tagLimiter.countByte();
+                visitor.visitByte(in.readByte());
+                break;
+            case ShortTag.ID:
+                tagLimiter.countShort();
+                visitor.visitShort(in.readShort());
+                break;
+            case IntTag.ID:
+                tagLimiter.countInt();
+                visitor.visitInt(in.readInt());
+                break;
+            case LongTag.ID:
+                tagLimiter.countLong();
+                visitor.visitLong(in.readLong());
+                break;
+            case FloatTag.ID:
+                tagLimiter.countFloat();
+                visitor.visitFloat(in.readFloat());
+                break;
+            case DoubleTag.ID:
+                tagLimiter.countDouble();
+                visitor.visitDouble(in.readDouble());
+                break;
+            case ByteArrayTag.ID:
+                visitor.visitByteArray(ByteArrayTag.read(in, tagLimiter).getValue());
+                break;
+            case StringTag.ID:
+                final String value = in.readUTF();
+                tagLimiter.countBytes(2 * value.length());
+                visitor.visitString(value);
+                break;
+            case ListTag.ID:
+                visitList(in, visitor, tagLimiter, nestingLevel);
+                break;
+            case CompoundTag.ID:
+                visitCompound(in, visitor, tagLimiter, nestingLevel);
+                break;
+            case IntArrayTag.ID:
+                visitor.visitIntArray(IntArrayTag.read(in, tagLimiter).getValue());
+                break;
+            case LongArrayTag.ID:
+                visitor.visitLongArray(LongArrayTag.read(in, tagLimiter).getValue());
+                break;
+            default:
+                throw new IOException("Unknown tag ID: " + id);
+        }
+    }
+
+    private static void visitCompound(final DataInput in, final TagVisitor visitor, final TagLimiter tagLimiter, final int nestingLevel) throws IOException {
+        tagLimiter.checkLevel(nestingLevel);
+        final int newNestingLevel = nestingLevel + 1;
+
+        visitor.visitCompoundStart();
+        while (true) {
+            tagLimiter.countByte();
+            final int id = in.readByte();
+            if (id == TagRegistry.END) {
+                break;
+            }
+
+            final String name = readKey(in);
+            tagLimiter.countBytes(2 * name.length());
+            if (visitor.visitKey(name, id)) {
+                visit(id, in, visitor, tagLimiter, newNestingLevel);
+            } else {
+                skip(id, in, tagLimiter, newNestingLevel);
+            }
+        }
+        visitor.visitCompoundEnd();
+    }
+
+    private static void visitList(final DataInput in, final TagVisitor visitor, final TagLimiter tagLimiter, final int nestingLevel) throws IOException {
+        tagLimiter.checkLevel(nestingLevel);
+        tagLimiter.countBytes(Byte.BYTES + Integer.BYTES);
+
+        final int id = in.readByte();
+        final int count = in.readInt();
+        TagRegistry.checkListHeader(id, count);
+
+        if (visitor.visitListStart(id, count)) {
+            final int newNestingLevel = nestingLevel + 1;
+            for (int i = 0; i < count; i++) {
+                visit(id, in, visitor, tagLimiter, newNestingLevel);
+            }
+        } else {
+            skipListElements(id, count, in, tagLimiter, nestingLevel + 1, null);
+        }
+        visitor.visitListEnd();
+    }
+
+    /**
+     * Skips the payload of a tag with the given id.
+     */
+    static void skip(final int id, final DataInput in, final TagLimiter tagLimiter, final int nestingLevel) throws IOException {
+        skip(id, in, tagLimiter, nestingLevel, null);
+    }
+
+    /**
+     * Skips the payload of a tag with the given id, additionally validating strings and collecting statistics if present.
+     */
+    static void skip(final int id, final DataInput in, final TagLimiter tagLimiter, final int nestingLevel, @Nullable final Statistics statistics) throws IOException {
+        if (statistics != null) {
+            statistics.tag(nestingLevel);
+        }
+
+        switch (id) {
+            case ByteTag.ID:
+                tagLimiter.countByte();
+                skipFully(in, Byte.BYTES);
+                break;
+            case ShortTag.ID:
+                tagLimiter.countShort();
+                skipFully(in, Short.BYTES);
+                break;
+            case IntTag.ID:
+                tagLimiter.countInt();
+                skipFully(in, Integer.BYTES);
+                break;
+            case LongTag.ID:
+                tagLimiter.countLong();
+                skipFully(in, Long.BYTES);
+                break;
+            case FloatTag.ID:
+                tagLimiter.countFloat();
+                skipFully(in, Float.BYTES);
+                break;
+            case DoubleTag.ID:
+                tagLimiter.countDouble();
+                skipFully(in, Double.BYTES);
+                break;
+            case ByteArrayTag.ID:
+                skipArray(in, tagLimiter, Byte.BYTES);
+                break;
+            case StringTag.ID:
+                skipString(in, tagLimiter, statistics);
+                break;
+            case ListTag.ID:
+                tagLimiter.checkLevel(nestingLevel);
+                tagLimiter.countBytes(Byte.BYTES + Integer.BYTES);
+                final int elementId = in.readByte();
+                final int count = in.readInt();
+                TagRegistry.checkListHeader(elementId, count);
+                skipListElements(elementId, count, in, tagLimiter, nestingLevel + 1, statistics);
+                break;
+            case CompoundTag.ID:
+                tagLimiter.checkLevel(nestingLevel);
+                while (true) {
+                    tagLimiter.countByte();
+                    final int entryId = in.readByte();
+                    if (entryId == TagRegistry.END) {
+                        break;
+                    }
+
+                    skipString(in, tagLimiter, statistics);
+                    skip(entryId, in, tagLimiter, nestingLevel + 1, statistics);
+                }
+                break;
+            case IntArrayTag.ID:
+                skipArray(in, tagLimiter, Integer.BYTES);
+                break;
+            case LongArrayTag.ID:
+                skipArray(in, tagLimiter, Long.BYTES);
+                break;
+            default:
+                throw new IOException("Unknown tag ID: " + id);
+        }
+    }
+
+    /**
+     * Reads a compound key, using the key cache of a {@link ByteBufferDataInput} if it has one.
+     */
+    static String readKey(final DataInput in) throws IOException {
+        return in instanceof ByteBufferDataInput ? ((ByteBufferDataInput) in).readKey() : in.readUTF();
+    }
+
+    /**
+     * Reads the payload of a tag with the given id as a raw tag. Payloads from a {@link ByteBufferDataInput} are skipped
+     * and copied in one go, while other inputs have to be decoded and encoded again.
+     */
+    static RawTag readRaw(final int id, final DataInput in, final TagLimiter tagLimiter, final int nestingLevel, final boolean lazy) throws IOException {
+        if (in instanceof ByteBufferDataInput) {
+            final ByteBufferDataInput bufferInput = (ByteBufferDataInput) in;
+            final int start = bufferInput.position();
+            skip(id, in, tagLimiter, nestingLevel);
+            return new RawTag(id, bufferInput.copyBytes(start, bufferInput.position()), lazy);
+        }
+
+        final Tag tag;
+        try {
+            tag = TagRegistry.read(id, in, tagLimiter, nestingLevel);
+        } catch (final IllegalArgumentException e) {
+            throw new IOException("Failed to create tag.", e);
+        }
+
+        final ByteBufferDataOutput out = new ByteBufferDataOutput(tag.serializedSize());
+        tag.write(out);
+        return new RawTag(id, out.toByteArray(), lazy);
+    }
+
+    private static void skipListElements(final int id, final int count, final DataInput in, final TagLimiter tagLimiter, final int nestingLevel, @Nullable final Statistics statistics) throws IOException {
+        if (count == 0) {
+            return;
+        }
+
+        final int fixedSize = fixedSize(id);
+        if (fixedSize != -1) {
+            // Skip all at once, counting them the same way as when reading them one by one
+            final long bytes = (long) fixedSize * count;
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IOException("List too large: " + count + " elements");
+            }
+
+            final int countedSize = id == FloatTag.ID ? Double.BYTES : fixedSize;
+            tagLimiter.countBytes((int) Math.min((long) countedSize * count, Integer.MAX_VALUE));
+            skipFully(in, (int) bytes);
+            if (statistics != null) {
+                statistics.tags(count, nestingLevel);
+            }
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            skip(id, in, tagLimiter, nestingLevel, statistics);
+        }
+    }
+
+    private static int fixedSize(final int id) {
+        switch (id) {
+            case ByteTag.ID:
+                return Byte.BYTES;
+            case ShortTag.ID:
+                return Short.BYTES;
+            case IntTag.ID:
+            case FloatTag.ID:
+                return Integer.BYTES;
+            case LongTag.ID:
+            case DoubleTag.ID:
+                return Long.BYTES;
+            default:
+                return -1;
+        }
+    }
+
+    private static void skipArray(final DataInput in, final TagLimiter tagLimiter, final int elementSize) throws IOException {
+        tagLimiter.countInt();
+        final int length = in.readInt();
+        final long bytes = (long) elementSize * length;
+        if (length < 0 || bytes > Integer.MAX_VALUE) {
+            throw new IOException("Invalid array length: " + length);
+        }
+
+        tagLimiter.countBytes((int) bytes);
+        skipFully(in, (int) bytes);
+    }
+
+    private static void skipString(final DataInput in, final TagLimiter tagLimiter, @Nullable final Statistics statistics) throws IOException {
+        final int length = in.readUnsignedShort();
+        tagLimiter.countBytes(2 * length);
+        if (statistics != null) {
+            validateModifiedUtf8(in, length);
+        } else {
+            skipFully(in, length);
+        }
+    }
+
+    /**
+     * Reads the given number of bytes and checks them the same way {@link DataInput#readUTF()} does, without decoding them.
+     */
+    private static void validateModifiedUtf8(final DataInput in, final int length) throws IOException {
+        int index = 0;
+        while (index < length) {
+            final int b = in.readUnsignedByte();
+            index++;
+            final int continuationBytes;
+            if (b < 0x80) {
+                continuationBytes = 0;
+            } else if ((b & 0xE0) == 0xC0) {
+                continuationBytes = 1;
+            } else if ((b & 0xF0) == 0xE0) {
+                continuationBytes = 2;
+            } else {
+                throw new UTFDataFormatException("Malformed input around byte " + (index - 1));
+            }
+
+            if (index + continuationBytes > length) {
+                throw new UTFDataFormatException("Malformed input: partial character at end");
+            }
+            for (int i = 0; i < continuationBytes; i++) {
+                if ((in.readUnsignedByte() & 0xC0) != 0x80) {
+                    throw new UTFDataFormatException("Malformed input around byte " + index);
+                }
+                index++;
+            }
+        }
+    }
+
+    static void skipFully(final DataInput in, int bytes) throws IOException {
+        while (bytes > 0) {
+            final int skipped = in.skipBytes(bytes);
+            if (skipped <= 0) {
+                // Either at the end, or the input doesn't support skipping; throws an EOFException in the former case
+                in.readByte();
+                bytes--;
+            } else {
+                bytes -= skipped;
+            }
+        }
+    }
+
+    /**
+     * Statistics collected while validating.
+     */
+    static final class Statistics {
+        private int tags;
+        private int maxNestingLevel;
+
+        void tag(final int nestingLevel) {
+            this.tags++;
+            this.maxNestingLevel = Math.max(this.maxNestingLevel, nestingLevel);
+        }
+
+        void tags(final int count, final int nestingLevel) {
+            this.tags += count;
+            this.maxNestingLevel = Math.max(this.maxNestingLevel, nestingLevel);
+        }
+
+        int tags() {
+            return this.tags;
+        }
+
+        int maxNestingLevel() {
+            return this.maxNestingLevel;
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.viaversion.nbt.io;
 
+import com.viaversion.nbt.compression.CompressionCodec;
 import com.viaversion.nbt.tag.Tag;
 import it.unimi.dsi.fastutil.io.FastBufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.zip.GZIPOutputStream;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Reusable NBT tag writer.
@@ -16,7 +22,11 @@ import java.util.zip.GZIPOutputStream;
  * @see NBTIO#writer()
  */
 public final class TagWriter {
+    private static final int INITIAL_BUFFER_SIZE = 256;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1 << 21;
+    private ByteBufferDataOutput scratchOutput;
     private boolean named;
+    private boolean memoryMapped;
 
     /**
      * Sets this writer to write a named tag.
@@ -28,6 +38,17 @@ public final class TagWriter {
         return this;
     }
 
+    /**
+     * Sets this writer to memory-map uncompressed files in {@link #write(Path, Tag, boolean)} and encode directly into the mapped region,
+     * instead of writing them through a buffered output stream. The file is mapped with the tag's exact serialized size.
+     *
+     * @return self
+     */
+    public TagWriter memoryMapped() {
+        this.memoryMapped = true;
+        return this;
+    }
+
     /**
      * Writes the tag to the given data output.
      *
@@ -50,15 +71,88 @@ public final class TagWriter {
         NBTIO.writeTag(new DataOutputStream(out), tag, this.named);
     }
 
+    /**
+     * Writes the tag into the given buffer, starting at its current position.
+     * After a successful write, the buffer's position is advanced by the number of bytes written.
+     *
+     * @param buffer buffer to write into
+     * @param tag    tag to write
+     * @throws IOException if an I/O error occurs or the buffer does not have enough space left
+     */
+    public void write(final ByteBuffer buffer, final Tag tag) throws IOException {
+        final ByteBufferDataOutput out = new ByteBufferDataOutput(buffer);
+        NBTIO.writeTag(out, tag, this.named);
+        ((Buffer) buffer).position(out.position());
+    }
+
+    /**
+     * Writes the tag into a byte array. The intermediate buffer is kept and reused for later calls,
+     * so this method is not thread-safe.
+     *
+     * @param tag tag to write
+     * @return the written bytes
+     * @throws IOException if an I/O error occurs
+     */
+    public byte[] toByteArray(final Tag tag) throws IOException {
+        ByteBufferDataOutput out = this.scratchOutput;
+        if (out == null) {
+            out = new ByteBufferDataOutput(INITIAL_BUFFER_SIZE);
+        } else {
+            out.reset();
+        }
+
+        NBTIO.writeTag(out, tag, this.named);
+        final byte[] bytes = out.toByteArray();
+
+        // Don't keep huge buffers around after writing a single large tag
+        this.scratchOutput = out.capacity() <= MAX_RETAINED_BUFFER_SIZE ? out : null;
+        return bytes;
+    }
+
+    /**
+     * Writes the tag into a byte array, compressed with the given codec.
+     *
+     * @param tag   tag to write
+     * @param codec compression codec to use
+     * @return the compressed bytes
+     * @throws IOException if an I/O error occurs
+     * @see CompressionCodec#zlib(int, com.viaversion.nbt.compression.CompressionDictionary)
+     */
+    public byte[] toByteArray(final Tag tag, final CompressionCodec codec) throws IOException {
+        if (codec == CompressionCodec.none()) {
+            return this.toByteArray(tag);
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final OutputStream out = codec.compress(bytes)) {
+            this.write(out, tag);
+        }
+        return bytes.toByteArray();
+    }
+
     /**
      * Writes the tag to the given path. At least so far, the standard format is always named, so make sure to call {@link #named()}.
      *
      * @param path       path to write to
      * @param tag        tag to write
-     * @param compressed whether to compress the file
+     * @param compressed whether to gzip compress the file
      * @throws IOException if an I/O error occurs
+     * @see #write(Path, Tag, CompressionCodec)
      */
     public void write(final Path path, final Tag tag, final boolean compressed) throws IOException {
+        this.write(path, tag, compressed ? CompressionCodec.gzip() : CompressionCodec.none());
+    }
+
+    /**
+     * Writes the tag to the given path. At least so far, the standard format is always named, so make sure to call {@link #named()}.
+     *
+     * @param path  path to write to
+     * @param tag   tag to write
+     * @param codec compression codec to use
+     * @throws IOException if an I/O error occurs
+     * @see #memoryMapped()
+     */
+    public void write(final Path path, final Tag tag, final CompressionCodec codec) throws IOException {
         if (!Files.exists(path)) {
             if (path.getParent() != null) {
                 Files.createDirectories(path.getParent());
@@ -66,14 +160,22 @@ public final class TagWriter {
             Files.createFile(path);
         }
 
-        OutputStream out = new FastBufferedOutputStream(Files.newOutputStream(path));
-        try {
-            if (compressed) {
-                out = new GZIPOutputStream(out);
-            }
+        if (this.memoryMapped && codec == CompressionCodec.none()) {
+            this.writeMapped(path, tag);
+            return;
+        }
+
+        try (final OutputStream out = codec.compress(new FastBufferedOutputStream(Files.newOutputStream(path)))) {
             this.write(out, tag);
-        } finally {
-            out.close();
         }
     }
-}
\ No newline at end of file
+
+    private void writeMapped(final Path path, final Tag tag) throws IOException {
+        final int size = NBTIO.serializedSize(tag, this.named);
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            this.write(buffer, tag);
+            buffer.force();
+        }
+    }
+}
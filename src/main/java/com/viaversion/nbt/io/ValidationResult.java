@@ -0,0 +1,77 @@
+package com.viaversion.nbt.io;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Result of validating binary NBT, including basic statistics about the walked data.
+ *
+ * @see NBTIO#validate(java.nio.ByteBuffer, com.viaversion.nbt.limiter.TagLimiter, boolean)
+ */
+public final class ValidationResult {
+    private final @Nullable String error;
+    private final int bytes;
+    private final int tags;
+    private final int maxNestingLevel;
+
+    ValidationResult(@Nullable final String error, final int bytes, final int tags, final int maxNestingLevel) {
+        this.error = error;
+        this.bytes = bytes;
+        this.tags = tags;
+        this.maxNestingLevel = maxNestingLevel;
+    }
+
+    /**
+     * Returns whether the data is a well-formed tag within the limits of the used tag limiter.
+     *
+     * @return whether the data is valid
+     */
+    public boolean valid() {
+        return this.error == null;
+    }
+
+    /**
+     * Returns the reason the data is invalid.
+     *
+     * @return error message, or null if the data is valid
+     */
+    public @Nullable String error() {
+        return this.error;
+    }
+
+    /**
+     * Returns the number of bytes the tag takes, or the number of bytes read until the data was found to be invalid.
+     *
+     * @return number of bytes read
+     */
+    public int bytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Returns the number of tags, including the root tag, list elements, and compound entries.
+     *
+     * @return number of tags
+     */
+    public int tags() {
+        return this.tags;
+    }
+
+    /**
+     * Returns the highest nesting level of any tag, with the root tag being at level 0.
+     *
+     * @return highest nesting level
+     */
+    public int maxNestingLevel() {
+        return this.maxNestingLevel;
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationResult{" +
+                "error=" + this.error +
+                ", bytes=" + this.bytes +
+                ", tags=" + this.tags +
+                ", maxNestingLevel=" + this.maxNestingLevel +
+                '}';
+    }
+}
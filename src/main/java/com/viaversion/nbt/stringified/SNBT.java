@@ -7,6 +7,8 @@ import com.viaversion.nbt.tag.Tag;
  * Serialization of stringifies tags.
  */
 public final class SNBT {
+    public static final int DEFAULT_MAX_LENGTH = 8192;
+    public static final int DEFAULT_MAX_ELEMENTS = 128;
 
     private SNBT() {
     }
@@ -51,4 +53,47 @@ public final class SNBT {
         writer.writeTag(tag);
         return builder.toString();
     }
+
+    /**
+     * Serializes a tag to SNBT, stopping after the given number of characters or elements per compound, list, or array.
+     * Omitted content is replaced by {@code ...}, after which the output is no longer valid SNBT.
+     * Nested tags are only visited until the limits are reached, so even huge tags are serialized quickly.
+     *
+     * @param tag         the tag
+     * @param maxLength   max number of characters, not including the trailing {@code ...}
+     * @param maxElements max number of elements written per compound, list, or array
+     * @return serialized and possibly truncated SNBT
+     * @throws IllegalArgumentException if an unknown tag is provided or a limit is negative
+     */
+    public static String serialize(final Tag tag, final int maxLength, final int maxElements) {
+        if (maxLength < 0 || maxElements < 0) {
+            throw new IllegalArgumentException("Invalid limits: " + maxLength + ", " + maxElements);
+        }
+
+        final StringBuilder builder = new StringBuilder(Math.min(maxLength, 256));
+        final TagStringWriter writer = new TagStringWriter(builder, maxLength, maxElements);
+        writer.writeTag(tag);
+        if (writer.reachedMaxLength() || builder.length() > maxLength) {
+            int length = Math.min(builder.length(), maxLength);
+            if (length > 0 && Character.isHighSurrogate(builder.charAt(length - 1))) {
+                length--;
+            }
+            builder.setLength(length);
+            builder.append(TagStringWriter.TRUNCATION_MARKER);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Serializes a tag to SNBT, truncated to {@link #DEFAULT_MAX_LENGTH} characters and {@link #DEFAULT_MAX_ELEMENTS} elements
+     * per compound, list, or array, as used by the tags' {@link Object#toString()}.
+     *
+     * @param tag the tag
+     * @return serialized and possibly truncated SNBT
+     * @throws IllegalArgumentException if an unknown tag is provided
+     * @see #serialize(Tag, int, int)
+     */
+    public static String serializeTruncated(final Tag tag) {
+        return serialize(tag, DEFAULT_MAX_LENGTH, DEFAULT_MAX_ELEMENTS);
+    }
 }
\ No newline at end of file
@@ -318,11 +318,11 @@ final class TagStringReader {
             }
         } else { // default to int or double parsing before falling back to string
             try {
-                return new IntTag(this.parseInt(strippedString, radix, signed));
+                return IntTag.valueOf(this.parseInt(strippedString, radix, signed));
             } catch (final NumberFormatException ex) {
                 if (strippedString.indexOf('.') != -1) {
                     try {
-                        return new DoubleTag(Double.parseDouble(strippedString));
+                        return DoubleTag.valueOf(Double.parseDouble(strippedString));
                     } catch (final NumberFormatException ex2) {
                         // ignore
                     }
@@ -331,9 +331,9 @@ final class TagStringReader {
         }
 
         if (original.equalsIgnoreCase(Tokens.LITERAL_TRUE)) {
-            return new ByteTag((byte) 1);
+            return ByteTag.valueOf(true);
         } else if (original.equalsIgnoreCase(Tokens.LITERAL_FALSE)) {
-            return new ByteTag((byte) 0);
+            return ByteTag.valueOf(false);
         }
         return new StringTag(original);
     }
@@ -367,23 +367,23 @@ final class TagStringReader {
     private @Nullable NumberTag parseNumberTag(final String s, final char typeToken, final int radix, final boolean signed) {
         switch (typeToken) {
             case Tokens.TYPE_BYTE:
-                return new ByteTag(this.parseByte(s, radix, signed));
+                return ByteTag.valueOf(this.parseByte(s, radix, signed));
             case Tokens.TYPE_SHORT:
-                return new ShortTag(this.parseShort(s, radix, signed));
+                return ShortTag.valueOf(this.parseShort(s, radix, signed));
             case Tokens.TYPE_INT:
-                return new IntTag(this.parseInt(s, radix, signed));
+                return IntTag.valueOf(this.parseInt(s, radix, signed));
             case Tokens.TYPE_LONG:
-                return new LongTag(this.parseLong(s, radix, signed));
+                return LongTag.valueOf(this.parseLong(s, radix, signed));
             case Tokens.TYPE_FLOAT:
                 final float floatValue = Float.parseFloat(s);
                 if (Float.isFinite(floatValue)) { // don't accept NaN and Infinity
-                    return new FloatTag(floatValue);
+                    return FloatTag.valueOf(floatValue);
                 }
                 break;
             case Tokens.TYPE_DOUBLE:
                 final double doubleValue = Double.parseDouble(s);
                 if (Double.isFinite(doubleValue)) { // don't accept NaN and Infinity
-                    return new DoubleTag(doubleValue);
+                    return DoubleTag.valueOf(doubleValue);
                 }
                 break;
         }
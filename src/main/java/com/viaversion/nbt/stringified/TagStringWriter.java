@@ -34,6 +34,7 @@ import com.viaversion.nbt.tag.ListTag;
 import com.viaversion.nbt.tag.LongArrayTag;
 import com.viaversion.nbt.tag.LongTag;
 import com.viaversion.nbt.tag.NumberTag;
+import com.viaversion.nbt.tag.RawTag;
 import com.viaversion.nbt.tag.ShortTag;
 import com.viaversion.nbt.tag.StringTag;
 import com.viaversion.nbt.tag.Tag;
@@ -42,6 +43,9 @@ import java.util.Map;
 // Specific Via changes:
 // - Use ViaNBT tags
 // - Do not throw IOException for non-I/O operation, replace Appendable with explicit StringBuilder
+// - Write the contents of raw tags
+// - Optionally stop after a max length or number of elements per compound, list, or array
+// - Escape strings directly into the output
 
 /**
  * An emitter for the SNBT format.
@@ -49,14 +53,41 @@ import java.util.Map;
  * <p>Details on the format are described in the package documentation.</p>
  */
 final class TagStringWriter {
+    static final String TRUNCATION_MARKER = "...";
     private final StringBuilder out;
+    private final int maxLength;
+    private final int maxElements;
+    private boolean reachedMaxLength;
     /**
      * Whether a {@link Tokens#VALUE_SEPARATOR} needs to be printed before the beginning of the next object.
      */
     private boolean needsSeparator;
 
     public TagStringWriter(final StringBuilder out) {
+        this(out, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a writer that stops writing once the output reaches the max length,
+     * and replaces the elements of compounds, lists, and arrays beyond the max number of elements with {@link #TRUNCATION_MARKER}.
+     *
+     * @param out         output to append to
+     * @param maxLength   length of the output after which nothing more is written, though the current token may exceed it
+     * @param maxElements max number of elements written per compound, list, or array
+     */
+    public TagStringWriter(final StringBuilder out, final int maxLength, final int maxElements) {
         this.out = out;
+        this.maxLength = maxLength;
+        this.maxElements = maxElements;
+    }
+
+    /**
+     * Returns whether the output reached the max length, after which nothing more was written.
+     *
+     * @return whether the output reached the max length
+     */
+    public boolean reachedMaxLength() {
+        return this.reachedMaxLength;
     }
 
     // NBT-specific
@@ -86,6 +117,9 @@ final class TagStringWriter {
             return this.value(Float.toString(((NumberTag) tag).asFloat()), Tokens.TYPE_FLOAT);
         } else if (tag instanceof DoubleTag) {
             return this.value(Double.toString(((NumberTag) tag).asDouble()), Tokens.TYPE_DOUBLE);
+        } else if (tag instanceof RawTag) {
+            final RawTag rawTag = (RawTag) tag;
+            return this.writeTag(rawTag.isDecoded() ? rawTag.decode() : rawTag.decodeCopy());
         } else {
             throw new IllegalArgumentException("Unknown tag type: " + tag.getClass().getSimpleName());
             // unknown!
@@ -94,7 +128,11 @@ final class TagStringWriter {
 
     private TagStringWriter writeCompound(final CompoundTag tag) {
         this.beginCompound();
+        int index = 0;
         for (final Map.Entry<String, Tag> entry : tag.entrySet()) {
+            if (this.omitRemaining(index++)) {
+                break;
+            }
             this.key(entry.getKey());
             this.writeTag(entry.getValue());
         }
@@ -104,7 +142,11 @@ final class TagStringWriter {
 
     private TagStringWriter writeList(final ListTag<?> tag) {
         this.beginList();
+        int index = 0;
         for (final Tag el : tag) {
+            if (this.omitRemaining(index++)) {
+                break;
+            }
             this.printAndResetSeparator();
             this.writeTag(el);
         }
@@ -117,6 +159,9 @@ final class TagStringWriter {
 
         final byte[] value = tag.getValue();
         for (int i = 0, length = value.length; i < length; i++) {
+            if (this.omitRemaining(i)) {
+                break;
+            }
             this.printAndResetSeparator();
             this.value(Byte.toString(value[i]), Tokens.TYPE_BYTE);
         }
@@ -129,6 +174,9 @@ final class TagStringWriter {
 
         final int[] value = tag.getValue();
         for (int i = 0, length = value.length; i < length; i++) {
+            if (this.omitRemaining(i)) {
+                break;
+            }
             this.printAndResetSeparator();
             this.value(Integer.toString(value[i]), Tokens.TYPE_INT);
         }
@@ -141,6 +189,9 @@ final class TagStringWriter {
 
         final long[] value = tag.getValue();
         for (int i = 0, length = value.length; i < length; i++) {
+            if (this.omitRemaining(i)) {
+                break;
+            }
             this.printAndResetSeparator();
             this.value(Long.toString(value[i]), Tokens.TYPE_LONG);
         }
@@ -206,8 +257,14 @@ final class TagStringWriter {
     }
 
     private void writeMaybeQuoted(final String content, boolean requireQuotes) {
+        // Everything after the max length is cut off anyway, so avoid escaping and copying it
+        final int end = Math.min(content.length(), Math.max(this.maxLength - this.out.length(), 0));
+        if (end < content.length()) {
+            this.reachedMaxLength = true;
+        }
+
         if (!requireQuotes) {
-            for (int i = 0; i < content.length(); ++i) {
+            for (int i = 0; i < end; ++i) {
                 if (!Tokens.id(content.charAt(i))) {
                     requireQuotes = true;
                     break;
@@ -216,23 +273,43 @@ final class TagStringWriter {
         }
         if (requireQuotes) {
             this.out.append(Tokens.DOUBLE_QUOTE);
-            this.out.append(escape(content, Tokens.DOUBLE_QUOTE));
+            this.appendEscaped(content, end, Tokens.DOUBLE_QUOTE);
             this.out.append(Tokens.DOUBLE_QUOTE);
         } else {
-            this.out.append(content);
+            this.out.append(content, 0, end);
         }
     }
 
-    private static String escape(final String content, final char quoteChar) {
-        final StringBuilder output = new StringBuilder(content.length());
-        for (int i = 0; i < content.length(); ++i) {
+    private void appendEscaped(final String content, final int end, final char quoteChar) {
+        int start = 0;
+        for (int i = 0; i < end; ++i) {
             final char c = content.charAt(i);
             if (c == quoteChar || c == '\\') {
-                output.append(Tokens.ESCAPE_MARKER);
+                this.out.append(content, start, i).append(Tokens.ESCAPE_MARKER);
+                start = i;
             }
-            output.append(c);
         }
-        return output.toString();
+        this.out.append(content, start, end);
+    }
+
+    /**
+     * Checks whether the element at the given index of a compound, list, or array should be omitted,
+     * writing the truncation marker if the max number of elements is exceeded.
+     *
+     * @param index index of the element
+     * @return whether the element and all elements after it should be omitted
+     */
+    private boolean omitRemaining(final int index) {
+        if (this.reachedMaxLength || this.out.length() >= this.maxLength) {
+            this.reachedMaxLength = true;
+            return true;
+        }
+        if (index >= this.maxElements) {
+            this.printAndResetSeparator();
+            this.out.append(TRUNCATION_MARKER);
+            return true;
+        }
+        return false;
     }
 
     private void printAndResetSeparator() {
@@ -14,6 +14,7 @@ public final class ByteArrayTag implements NumberArrayTag {
     public static final int ID = 7;
     private static final byte[] EMPTY_ARRAY = new byte[0];
     private byte[] value;
+    private boolean frozen;
 
     /**
      * Creates a tag.
@@ -64,6 +65,7 @@ public final class ByteArrayTag implements NumberArrayTag {
             return;
         }
 
+        this.checkMutable();
         this.value = value;
     }
 
@@ -84,6 +86,7 @@ public final class ByteArrayTag implements NumberArrayTag {
      * @param value Value to set.
      */
     public void set(int index, byte value) {
+        this.checkMutable();
         this.value[index] = value;
     }
 
@@ -96,7 +99,7 @@ public final class ByteArrayTag implements NumberArrayTag {
     public ListTag<ByteTag> toListTag() {
         final ListTag<ByteTag> list = new ListTag<>(ByteTag.class);
         for (final byte b : this.value) {
-            list.add(new ByteTag(b));
+            list.add(ByteTag.valueOf(b));
         }
         return list;
     }
@@ -107,6 +110,11 @@ public final class ByteArrayTag implements NumberArrayTag {
         out.write(this.value);
     }
 
+    @Override
+    public int serializedSize() {
+        return Integer.BYTES + this.value.length;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -125,6 +133,28 @@ public final class ByteArrayTag implements NumberArrayTag {
         return new ByteArrayTag(this.value.clone());
     }
 
+    @Override
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Makes this tag immutable. As the array returned by {@link #getValue()} cannot be protected, it must not be modified anymore either.
+     *
+     * @return this tag
+     */
+    @Override
+    public ByteArrayTag freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    private void checkMutable() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Cannot modify a frozen tag");
+        }
+    }
+
     @Override
     public int getTagId() {
         return ID;
@@ -132,6 +162,6 @@ public final class ByteArrayTag implements NumberArrayTag {
 
     @Override
     public String toString() {
-        return SNBT.serialize(this);
+        return SNBT.serializeTruncated(this);
     }
 }
@@ -11,9 +11,17 @@ import java.io.IOException;
  */
 public final class ByteTag implements NumberTag {
     public static final int ID = 1;
-    public static final ByteTag ZERO = new ByteTag((byte) 0);
+    private static final ByteTag[] CACHE = new ByteTag[256];
+    public static final ByteTag ZERO;
     private final byte value;
 
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new ByteTag((byte) (i + Byte.MIN_VALUE));
+        }
+        ZERO = valueOf((byte) 0);
+    }
+
     /**
      * Creates a tag.
      *
@@ -32,9 +40,29 @@ public final class ByteTag implements NumberTag {
         this.value = (byte) (value ? 1 : 0);
     }
 
+    /**
+     * Returns a shared tag with the given value.
+     *
+     * @param value The value of the tag.
+     * @return a shared tag with the given value
+     */
+    public static ByteTag valueOf(byte value) {
+        return CACHE[value - Byte.MIN_VALUE];
+    }
+
+    /**
+     * Returns a shared tag with the value 1 if true, else 0.
+     *
+     * @param value The value of the tag.
+     * @return a shared tag with the given value
+     */
+    public static ByteTag valueOf(boolean value) {
+        return CACHE[(value ? 1 : 0) - Byte.MIN_VALUE];
+    }
+
     public static ByteTag read(DataInput in, TagLimiter tagLimiter) throws IOException {
         tagLimiter.countByte();
-        return new ByteTag(in.readByte());
+        return valueOf(in.readByte());
     }
 
     /**
@@ -56,6 +84,11 @@ public final class ByteTag implements NumberTag {
         out.writeByte(this.value);
     }
 
+    @Override
+    public int serializedSize() {
+        return Byte.BYTES;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -106,6 +139,6 @@ public final class ByteTag implements NumberTag {
 
     @Override
     public String toString() {
-        return SNBT.serialize(this);
+        return SNBT.serializeTruncated(this);
     }
 }
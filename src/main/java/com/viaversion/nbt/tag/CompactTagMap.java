@@ -0,0 +1,261 @@
+package com.viaversion.nbt.tag;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Insertion ordered map used by compound tags, keeping up to {@link #MAX_COMPACT_SIZE} entries in a single array that is searched linearly.
+ * <p>
+ * Most compounds only hold a handful of entries, for which this avoids the hash table and per-entry objects of a {@link LinkedHashMap}.
+ * Once more entries are added, they are moved into a {@link LinkedHashMap} that is used from then on.
+ */
+final class CompactTagMap extends AbstractMap<String, Tag> {
+    static final int MAX_COMPACT_SIZE = 8;
+    private static final int INITIAL_CAPACITY = 4;
+    private Object[] table; // Alternating keys and values
+    private int size;
+    private LinkedHashMap<String, Tag> map;
+    private int modCount;
+    private Set<Entry<String, Tag>> entrySet;
+
+    CompactTagMap() {
+    }
+
+    CompactTagMap(int expectedSize) {
+        if (expectedSize > MAX_COMPACT_SIZE) {
+            this.map = new LinkedHashMap<>((int) (expectedSize / 0.75F) + 1);
+        } else if (expectedSize > 0) {
+            this.table = new Object[expectedSize << 1];
+        }
+    }
+
+    CompactTagMap(Map<String, Tag> map) {
+        this(map.size());
+        this.putAll(map);
+    }
+
+    @Override
+    public int size() {
+        return this.map != null ? this.map.size() : this.size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.map != null ? this.map.containsKey(key) : this.indexOf(key) != -1;
+    }
+
+    @Override
+    public @Nullable Tag get(Object key) {
+        if (this.map != null) {
+            return this.map.get(key);
+        }
+
+        final int index = this.indexOf(key);
+        return index != -1 ? (Tag) this.table[(index << 1) + 1] : null;
+    }
+
+    @Override
+    public @Nullable Tag put(String key, Tag value) {
+        if (this.map != null) {
+            return this.map.put(key, value);
+        }
+
+        final int index = this.indexOf(key);
+        if (index != -1) {
+            final int valueIndex = (index << 1) + 1;
+            final Tag previous = (Tag) this.table[valueIndex];
+            this.table[valueIndex] = value;
+            return previous;
+        }
+
+        if (this.size == MAX_COMPACT_SIZE) {
+            this.promote();
+            return this.map.put(key, value);
+        }
+
+        if (this.table == null) {
+            this.table = new Object[INITIAL_CAPACITY << 1];
+        } else if (this.size << 1 == this.table.length) {
+            final Object[] table = new Object[Math.min(this.size << 1, MAX_COMPACT_SIZE) << 1];
+            System.arraycopy(this.table, 0, table, 0, this.size << 1);
+            this.table = table;
+        }
+
+        this.table[this.size << 1] = key;
+        this.table[(this.size << 1) + 1] = value;
+        this.size++;
+        this.modCount++;
+        return null;
+    }
+
+    @Override
+    public @Nullable Tag remove(Object key) {
+        if (this.map != null) {
+            return this.map.remove(key);
+        }
+
+        final int index = this.indexOf(key);
+        if (index == -1) {
+            return null;
+        }
+
+        final Tag previous = (Tag) this.table[(index << 1) + 1];
+        this.removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        if (this.map != null) {
+            // Go back to the compact representation
+            this.map = null;
+            this.table = null;
+        } else if (this.table != null) {
+            for (int i = 0; i < this.size << 1; i++) {
+                this.table[i] = null;
+            }
+        }
+        this.size = 0;
+        this.modCount++;
+    }
+
+    @Override
+    public Set<Entry<String, Tag>> entrySet() {
+        if (this.entrySet == null) {
+            this.entrySet = new EntrySet();
+        }
+        return this.entrySet;
+    }
+
+    private int indexOf(Object key) {
+        for (int i = 0; i < this.size; i++) {
+            if (Objects.equals(this.table[i << 1], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        final int from = (index + 1) << 1;
+        System.arraycopy(this.table, from, this.table, index << 1, (this.size << 1) - from);
+        this.size--;
+        this.table[this.size << 1] = null;
+        this.table[(this.size << 1) + 1] = null;
+        this.modCount++;
+    }
+
+    /**
+     * Returns the length of the compact array, or 0 if there is none.
+     */
+    int tableLength() {
+        return this.table != null ? this.table.length : 0;
+    }
+
+    /**
+     * Returns the hash map the entries were moved into, or null if they are still kept in the compact array.
+     */
+    @Nullable LinkedHashMap<String, Tag> hashMap() {
+        return this.map;
+    }
+
+    private void promote() {
+        final LinkedHashMap<String, Tag> map = new LinkedHashMap<>(MAX_COMPACT_SIZE << 2);
+        for (int i = 0; i < this.size; i++) {
+            map.put((String) this.table[i << 1], (Tag) this.table[(i << 1) + 1]);
+        }
+
+        this.map = map;
+        this.table = null;
+        this.size = 0;
+        this.modCount++;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Tag>> {
+
+        @Override
+        public Iterator<Entry<String, Tag>> iterator() {
+            return CompactTagMap.this.map != null ? CompactTagMap.this.map.entrySet().iterator() : new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return CompactTagMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CompactTagMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Tag>> {
+        private int expectedModCount = CompactTagMap.this.modCount;
+        private int next;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return this.next < CompactTagMap.this.size;
+        }
+
+        @Override
+        public Entry<String, Tag> next() {
+            this.checkModCount();
+            if (this.next >= CompactTagMap.this.size) {
+                throw new NoSuchElementException();
+            }
+
+            this.last = this.next++;
+            final Object[] table = CompactTagMap.this.table;
+            return new TableEntry((String) table[this.last << 1], (Tag) table[(this.last << 1) + 1], this.last);
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == -1) {
+                throw new IllegalStateException();
+            }
+
+            this.checkModCount();
+            CompactTagMap.this.removeAt(this.last);
+            this.next = this.last;
+            this.last = -1;
+            this.expectedModCount = CompactTagMap.this.modCount;
+        }
+
+        private void checkModCount() {
+            if (this.expectedModCount != CompactTagMap.this.modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private final class TableEntry extends SimpleEntry<String, Tag> {
+        private static final long serialVersionUID = 1L;
+        private final int index;
+
+        private TableEntry(String key, Tag value, int index) {
+            super(key, value);
+            this.index = index;
+        }
+
+        @Override
+        public Tag setValue(Tag value) {
+            // Only write through while the entry is still at the same position, otherwise it is detached like a removed map entry
+            final Object[] table = CompactTagMap.this.table;
+            if (this.index < CompactTagMap.this.size && table[this.index << 1] == this.getKey()) {
+                table[(this.index << 1) + 1] = value;
+            }
+            return super.setValue(value);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.viaversion.nbt.tag;
 
+import com.viaversion.nbt.io.ByteBufferDataInput;
+import com.viaversion.nbt.io.ModifiedUtf8;
 import com.viaversion.nbt.io.TagRegistry;
 import com.viaversion.nbt.limiter.TagLimiter;
 import com.viaversion.nbt.stringified.SNBT;
@@ -7,11 +9,13 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -20,12 +24,18 @@ import org.jetbrains.annotations.Nullable;
 public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
     public static final int ID = 10;
     private Map<String, Tag> value;
+    private boolean lazy;
+    private boolean frozen;
+    private int hash;
+    private String snbt;
 
     /**
      * Creates a tag.
+     * <p>
+     * Small compounds are stored in a compact array, which is only switched to a hash map once more entries are added.
      */
     public CompoundTag() {
-        this(new LinkedHashMap<>(8));
+        this.value = new CompactTagMap();
     }
 
     /**
@@ -38,7 +48,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
     }
 
     /**
-     * Creates a tag without wrapping the map.
+     * Creates a tag without wrapping the map, which can be used to always back the tag by a {@link LinkedHashMap}.
      *
      * @param value The value of the tag.
      */
@@ -59,7 +69,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
                 break;
             }
 
-            String name = in.readUTF();
+            String name = readKey(in);
             tagLimiter.countBytes(2 * name.length());
 
             Tag tag;
@@ -73,13 +83,91 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
         return compoundTag;
     }
 
+    /**
+     * Reads a compound tag, keeping nested compounds and lists as {@link RawTag}s until they are accessed.
+     * Accessing an entry replaces it with its decoded tag, while entries that have not been accessed are written from their encoded bytes.
+     * Methods exposing all entries, such as {@link #getValue()} or {@link #entrySet()}, decode all of them.
+     * <p>
+     * This works best with a {@link ByteBufferDataInput}, as other inputs need to decode and encode the deferred entries once.
+     *
+     * @param in           data input to read from
+     * @param tagLimiter   tag limiter to use
+     * @param nestingLevel current nesting level
+     * @return the read compound tag
+     * @throws IOException if an I/O error occurs
+     */
+    public static CompoundTag readLazy(DataInput in, TagLimiter tagLimiter, int nestingLevel) throws IOException {
+        tagLimiter.checkLevel(nestingLevel);
+        int newNestingLevel = nestingLevel + 1;
+        int id;
+
+        CompoundTag compoundTag = new CompoundTag();
+        while (true) {
+            tagLimiter.countByte();
+            id = in.readByte();
+            if (id == TagRegistry.END) {
+                break;
+            }
+
+            String name = readKey(in);
+            tagLimiter.countBytes(2 * name.length());
+
+            Tag tag;
+            if (id == CompoundTag.ID || id == ListTag.ID) {
+                tag = TagRegistry.readRaw(id, in, tagLimiter, newNestingLevel, true);
+                compoundTag.lazy = true;
+            } else {
+                try {
+                    tag = TagRegistry.read(id, in, tagLimiter, newNestingLevel);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Failed to create tag.", e);
+                }
+            }
+            compoundTag.value.put(name, tag);
+        }
+        return compoundTag;
+    }
+
+    private static String readKey(DataInput in) throws IOException {
+        return in instanceof ByteBufferDataInput ? ((ByteBufferDataInput) in).readKey() : in.readUTF();
+    }
+
+    private @Nullable Tag resolve(String tagName) {
+        final Tag tag = this.value.get(tagName);
+        if (this.lazy && tag instanceof RawTag) {
+            final Tag decodedTag = ((RawTag) tag).decode();
+            this.value.put(tagName, decodedTag);
+            return decodedTag;
+        }
+        return tag;
+    }
+
+    private @Nullable Tag decoded(@Nullable Tag tag) {
+        return this.lazy && tag instanceof RawTag ? ((RawTag) tag).decode() : tag;
+    }
+
+    private void resolveAll() {
+        if (!this.lazy) {
+            return;
+        }
+
+        for (Entry<String, Tag> entry : this.value.entrySet()) {
+            if (entry.getValue() instanceof RawTag) {
+                entry.setValue(((RawTag) entry.getValue()).decode());
+            }
+        }
+        this.lazy = false;
+    }
+
     @Override
     public Map<String, Tag> getValue() {
-        return this.value;
+        this.resolveAll();
+        return this.frozen ? Collections.unmodifiableMap(this.value) : this.value;
     }
 
     @Override
     public String asRawString() {
+        this.resolveAll();
         return this.value.toString();
     }
 
@@ -89,7 +177,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
      * @param value New value of this tag.
      */
     public void setValue(Map<String, Tag> value) {
-        this.setValue(new LinkedHashMap<>(value));
+        this.assign(new CompactTagMap(value));
     }
 
     /**
@@ -98,12 +186,18 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
      * @param value New value of this tag.
      */
     public void setValue(LinkedHashMap<String, Tag> value) {
+        this.assign(value);
+    }
+
+    private void assign(Map<String, Tag> value) {
+        this.checkMutable();
         for (Entry<String, Tag> entry : value.entrySet()) {
             if (entry.getKey() == null || entry.getValue() == null) {
                 throw new IllegalArgumentException("key and value cannot be null");
             }
         }
         this.value = value;
+        this.lazy = false;
     }
 
     /**
@@ -136,7 +230,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
      */
     @Nullable
     public Tag get(String tagName) {
-        return this.value.get(tagName);
+        return this.resolve(tagName);
     }
 
     /**
@@ -149,26 +243,26 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
     @Nullable
     public <T extends Tag> T getUnchecked(String tagName) {
         //noinspection unchecked
-        return (T) this.value.get(tagName);
+        return (T) this.resolve(tagName);
     }
 
     public @Nullable StringTag getStringTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof StringTag ? (StringTag) tag : null;
     }
 
     public @Nullable CompoundTag getCompoundTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof CompoundTag ? (CompoundTag) tag : null;
     }
 
     public @Nullable ListTag<?> getListTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof ListTag<?> ? (ListTag<?>) tag : null;
     }
 
     public <T extends Tag> @Nullable ListTag<T> getListTag(String tagName, Class<T> type) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         if (!(tag instanceof ListTag<?>)) {
             return null;
         }
@@ -179,7 +273,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
     }
 
     public @Nullable ListTag<? extends NumberTag> getNumberListTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         if (!(tag instanceof ListTag<?>)) {
             return null;
         }
@@ -190,52 +284,52 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
     }
 
     public @Nullable IntTag getIntTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof IntTag ? (IntTag) tag : null;
     }
 
     public @Nullable LongTag getLongTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof LongTag ? (LongTag) tag : null;
     }
 
     public @Nullable ShortTag getShortTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof ShortTag ? (ShortTag) tag : null;
     }
 
     public @Nullable ByteTag getByteTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof ByteTag ? (ByteTag) tag : null;
     }
 
     public @Nullable FloatTag getFloatTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof FloatTag ? (FloatTag) tag : null;
     }
 
     public @Nullable DoubleTag getDoubleTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof DoubleTag ? (DoubleTag) tag : null;
     }
 
     public @Nullable NumberTag getNumberTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof NumberTag ? (NumberTag) tag : null;
     }
 
     public @Nullable ByteArrayTag getByteArrayTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof ByteArrayTag ? (ByteArrayTag) tag : null;
     }
 
     public @Nullable IntArrayTag getIntArrayTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof IntArrayTag ? (IntArrayTag) tag : null;
     }
 
     public @Nullable LongArrayTag getLongArrayTag(String tagName) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof LongArrayTag ? (LongArrayTag) tag : null;
     }
 
@@ -244,7 +338,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
     }
 
     public @Nullable String getString(String tagName, @Nullable String def) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof StringTag ? ((StringTag) tag).getValue() : def;
     }
 
@@ -253,7 +347,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
     }
 
     public int getInt(String tagName, int def) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof NumberTag ? ((NumberTag) tag).asInt() : def;
     }
 
@@ -262,7 +356,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
     }
 
     public long getLong(String tagName, long def) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof NumberTag ? ((NumberTag) tag).asLong() : def;
     }
 
@@ -271,7 +365,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
     }
 
     public short getShort(String tagName, short def) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof NumberTag ? ((NumberTag) tag).asShort() : def;
     }
 
@@ -280,7 +374,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
     }
 
     public byte getByte(String tagName, byte def) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof NumberTag ? ((NumberTag) tag).asByte() : def;
     }
 
@@ -289,7 +383,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
     }
 
     public float getFloat(String tagName, float def) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof NumberTag ? ((NumberTag) tag).asFloat() : def;
     }
 
@@ -298,7 +392,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
     }
 
     public double getDouble(String tagName, double def) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         return tag instanceof NumberTag ? ((NumberTag) tag).asDouble() : def;
     }
 
@@ -307,7 +401,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
     }
 
     public boolean getBoolean(String tagName, boolean def) {
-        final Tag tag = this.value.get(tagName);
+        final Tag tag = this.resolve(tagName);
         if (tag instanceof NumberTag) {
             return ((NumberTag) tag).asBoolean();
         }
@@ -331,42 +425,53 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
         if (tag == this) {
             throw new IllegalArgumentException("Cannot add a tag to itself");
         }
-        return this.value.put(tagName, tag);
+        this.checkMutable();
+        return this.decoded(this.value.put(tagName, tag));
     }
 
     public void putString(String tagName, String value) {
+        this.checkMutable();
         this.value.put(tagName, new StringTag(value));
     }
 
     public void putByte(String tagName, byte value) {
-        this.value.put(tagName, new ByteTag(value));
+        this.checkMutable();
+        this.value.put(tagName, ByteTag.valueOf(value));
     }
 
     public void putInt(String tagName, int value) {
-        this.value.put(tagName, new IntTag(value));
+        this.checkMutable();
+        this.value.put(tagName, IntTag.valueOf(value));
     }
 
     public void putShort(String tagName, short value) {
-        this.value.put(tagName, new ShortTag(value));
+        this.checkMutable();
+        this.value.put(tagName, ShortTag.valueOf(value));
     }
 
     public void putLong(String tagName, long value) {
-        this.value.put(tagName, new LongTag(value));
+        this.checkMutable();
+        this.value.put(tagName, LongTag.valueOf(value));
     }
 
     public void putFloat(String tagName, float value) {
-        this.value.put(tagName, new FloatTag(value));
+        this.checkMutable();
+        this.value.put(tagName, FloatTag.valueOf(value));
     }
 
     public void putDouble(String tagName, double value) {
-        this.value.put(tagName, new DoubleTag(value));
+        this.checkMutable();
+        this.value.put(tagName, DoubleTag.valueOf(value));
     }
 
     public void putBoolean(String tagName, boolean value) {
-        this.value.put(tagName, new ByteTag((byte) (value ? 1 : 0)));
+        this.checkMutable();
+        this.value.put(tagName, ByteTag.valueOf(value));
     }
 
     public void putAll(CompoundTag compoundTag) {
+        this.checkMutable();
+        this.lazy |= compoundTag.lazy;
         this.value.putAll(compoundTag.value);
     }
 
@@ -381,7 +486,8 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
      */
     @Nullable
     public Tag remove(String tagName) {
-        return this.value.remove(tagName);
+        this.checkMutable();
+        return this.decoded(this.value.remove(tagName));
     }
 
     /**
@@ -393,8 +499,9 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
      */
     @Nullable
     public <T extends Tag> T removeUnchecked(String tagName) {
+        this.checkMutable();
         //noinspection unchecked
-        return (T) this.value.remove(tagName);
+        return (T) this.decoded(this.value.remove(tagName));
     }
 
     /**
@@ -403,7 +510,7 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
      * @return The compound tag's key set.
      */
     public Set<String> keySet() {
-        return this.value.keySet();
+        return this.frozen ? Collections.unmodifiableSet(this.value.keySet()) : this.value.keySet();
     }
 
     /**
@@ -412,7 +519,8 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
      * @return This compound tag's tags.
      */
     public Collection<Tag> values() {
-        return this.value.values();
+        this.resolveAll();
+        return this.frozen ? Collections.unmodifiableCollection(this.value.values()) : this.value.values();
     }
 
     /**
@@ -421,7 +529,8 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
      * @return The compound tag's entry set.
      */
     public Set<Entry<String, Tag>> entrySet() {
-        return this.value.entrySet();
+        this.resolveAll();
+        return this.frozen ? Collections.unmodifiableMap(this.value).entrySet() : this.value.entrySet();
     }
 
     /**
@@ -437,12 +546,13 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
      * Clears all tags from this compound tag.
      */
     public void clear() {
+        this.checkMutable();
         this.value.clear();
     }
 
     @Override
     public Iterator<Entry<String, Tag>> iterator() {
-        return this.value.entrySet().iterator();
+        return this.entrySet().iterator();
     }
 
     @Override
@@ -457,27 +567,127 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
         out.writeByte(TagRegistry.END);
     }
 
+    @Override
+    public int serializedSize() {
+        int size = Byte.BYTES; // End tag
+        for (Entry<String, Tag> entry : this.value.entrySet()) {
+            size += Byte.BYTES + Short.BYTES + ModifiedUtf8.encodedLength(entry.getKey()) + entry.getValue().serializedSize();
+        }
+        return size;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         CompoundTag tags = (CompoundTag) o;
+        this.resolveAll();
+        tags.resolveAll();
         return this.value.equals(tags.value);
     }
 
     @Override
     public int hashCode() {
-        return value.hashCode();
+        if (this.hash != 0) {
+            return this.hash;
+        }
+
+        this.resolveAll();
+        final int hash = this.value.hashCode();
+        if (this.frozen) {
+            this.hash = hash; // Cannot change anymore
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Makes this compound tag and all tags inside it immutable.
+     * Nested tags that are not yet decoded are decoded first.
+     *
+     * @return this compound tag
+     * @throws UnsupportedOperationException if a tag inside it cannot be frozen
+     */
+    @Override
+    public CompoundTag freeze() {
+        if (this.frozen) {
+            return this;
+        }
+
+        this.resolveAll();
+        for (Tag tag : this.value.values()) {
+            tag.freeze();
+        }
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Replaces every value with the result of the function, which has to return an equal tag if this tag is frozen.
+     * As frozen tags may already be shared, they are never changed, but copied if any value is replaced.
+     *
+     * @return this tag, or a frozen copy holding the replaced values
+     */
+    CompoundTag replaceValues(UnaryOperator<Tag> function) {
+        this.resolveAll();
+        if (!this.frozen) {
+            for (Entry<String, Tag> entry : this.value.entrySet()) {
+                entry.setValue(function.apply(entry.getValue()));
+            }
+            return this;
+        }
+
+        Tag[] values = new Tag[this.value.size()];
+        boolean replaced = false;
+        int index = 0;
+        for (Tag tag : this.value.values()) {
+            values[index] = function.apply(tag);
+            replaced |= values[index++] != tag;
+        }
+        if (!replaced) {
+            return this;
+        }
+
+        CompactTagMap newMap = new CompactTagMap(values.length);
+        index = 0;
+        for (String key : this.value.keySet()) {
+            newMap.put(key, values[index++]);
+        }
+
+        CompoundTag copy = new CompoundTag();
+        copy.value = newMap;
+        return copy.freeze();
+    }
+
+    /**
+     * Returns the backing map without decoding lazily read entries.
+     */
+    Map<String, Tag> backingMap() {
+        return this.value;
+    }
+
+    private void checkMutable() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Cannot modify a frozen tag");
+        }
     }
 
     @Override
     public CompoundTag copy() {
-        LinkedHashMap<String, Tag> newMap = new LinkedHashMap<>(this.value.size());
+        CompactTagMap newMap = new CompactTagMap(this.value.size());
         for (Entry<String, Tag> entry : this.value.entrySet()) {
             newMap.put(entry.getKey(), entry.getValue().copy());
         }
 
-        return new CompoundTag(newMap);
+        // Entries that have not been decoded yet are copied as raw tags
+        CompoundTag copy = new CompoundTag();
+        copy.value = newMap;
+        copy.lazy = this.lazy;
+        return copy;
     }
 
     @Override
@@ -487,6 +697,22 @@ public final class CompoundTag implements Tag, Iterable<Entry<String, Tag>> {
 
     @Override
     public String toString() {
-        return SNBT.serialize(this);
+        if (this.snbt != null) {
+            return this.snbt;
+        }
+
+        // Frozen tags cannot change anymore, so their rendering can be kept
+        final String snbt = SNBT.serializeTruncated(this);
+        if (this.frozen) {
+            this.snbt = snbt;
+        }
+        return snbt;
+    }
+
+    /**
+     * Returns the rendering kept by {@link #toString()}, if any.
+     */
+    @Nullable String cachedString() {
+        return this.snbt;
     }
 }
@@ -12,6 +12,7 @@ import java.io.IOException;
 public final class DoubleTag implements NumberTag {
     public static final int ID = 6;
     public static final DoubleTag ZERO = new DoubleTag(0);
+    public static final DoubleTag ONE = new DoubleTag(1);
     private final double value;
 
     /**
@@ -23,9 +24,25 @@ public final class DoubleTag implements NumberTag {
         this.value = value;
     }
 
+    /**
+     * Returns a tag with the given value, which is shared for 0 and 1.
+     *
+     * @param value The value of the tag.
+     * @return a tag with the given value
+     */
+    public static DoubleTag valueOf(double value) {
+        // Compare the raw bits to not share the positive zero for -0
+        if (Double.doubleToRawLongBits(value) == Double.doubleToRawLongBits(0)) {
+            return ZERO;
+        } else if (value == 1) {
+            return ONE;
+        }
+        return new DoubleTag(value);
+    }
+
     public static DoubleTag read(DataInput in, TagLimiter tagLimiter) throws IOException {
         tagLimiter.countDouble();
-        return new DoubleTag(in.readDouble());
+        return valueOf(in.readDouble());
     }
 
     /**
@@ -47,6 +64,11 @@ public final class DoubleTag implements NumberTag {
         out.writeDouble(this.value);
     }
 
+    @Override
+    public int serializedSize() {
+        return Double.BYTES;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -97,6 +119,6 @@ public final class DoubleTag implements NumberTag {
 
     @Override
     public String toString() {
-        return SNBT.serialize(this);
+        return SNBT.serializeTruncated(this);
     }
 }
@@ -0,0 +1,173 @@
+package com.viaversion.nbt.tag;
+
+import com.viaversion.nbt.io.ByteBufferDataInput;
+import com.viaversion.nbt.io.ByteBufferDataOutput;
+import com.viaversion.nbt.limiter.TagLimiter;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * List of DoubleTags backed by {@code double[]}.
+ */
+final class DoubleTagList extends NumberTagList<DoubleTag> {
+    private double[] values;
+
+    DoubleTagList(int capacity) {
+        this.values = new double[capacity];
+    }
+
+    private DoubleTagList(double[] values) {
+        this.values = values;
+        this.size = values.length;
+    }
+
+    @Override
+    public DoubleTag get(int index) {
+        this.checkIndex(index);
+        return DoubleTag.valueOf(this.values[index]);
+    }
+
+    @Override
+    public DoubleTag set(int index, DoubleTag tag) {
+        this.checkIndex(index);
+        final double previous = this.values[index];
+        this.values[index] = tag.asDouble();
+        return DoubleTag.valueOf(previous);
+    }
+
+    @Override
+    public void add(int index, DoubleTag tag) {
+        this.checkPositionIndex(index);
+        final double value = tag.asDouble();
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, grownCapacity(this.values.length, this.size + 1));
+        }
+        System.arraycopy(this.values, index, this.values, index + 1, this.size - index);
+        this.values[index] = value;
+        this.size++;
+        this.modCount++;
+    }
+
+    @Override
+    public DoubleTag remove(int index) {
+        this.checkIndex(index);
+        final double previous = this.values[index];
+        System.arraycopy(this.values, index + 1, this.values, index, this.size - index - 1);
+        this.size--;
+        this.modCount++;
+        return DoubleTag.valueOf(previous);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        System.arraycopy(this.values, toIndex, this.values, fromIndex, this.size - toIndex);
+        this.size -= toIndex - fromIndex;
+        this.modCount++;
+    }
+
+    @Override
+    int getInt(int index) {
+        this.checkIndex(index);
+        return (int) this.values[index];
+    }
+
+    @Override
+    long getLong(int index) {
+        this.checkIndex(index);
+        return (long) this.values[index];
+    }
+
+    @Override
+    float getFloat(int index) {
+        this.checkIndex(index);
+        return (float) this.values[index];
+    }
+
+    @Override
+    double getDouble(int index) {
+        this.checkIndex(index);
+        return this.values[index];
+    }
+
+    @Override
+    void read(DataInput in, int count, TagLimiter tagLimiter) throws IOException {
+        final ByteBufferDataInput input = bulkInput(in, count, Double.BYTES);
+        if (input != null) {
+            tagLimiter.countBytes(Double.BYTES * count);
+            if (this.size + count > this.values.length) {
+                this.values = Arrays.copyOf(this.values, grownCapacity(this.values.length, this.size + count));
+            }
+            input.readDoubles(this.values, this.size, count);
+            this.size += count;
+            this.modCount++;
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            tagLimiter.countDouble();
+            final double value = in.readDouble();
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, grownCapacity(this.values.length, this.size + 1));
+            }
+            this.values[this.size++] = value;
+        }
+        this.modCount++;
+    }
+
+    @Override
+    void write(DataOutput out) throws IOException {
+        if (out instanceof ByteBufferDataOutput) {
+            ((ByteBufferDataOutput) out).writeDoubles(this.values, 0, this.size);
+            return;
+        }
+
+        for (int i = 0; i < this.size; i++) {
+            out.writeDouble(this.values[i]);
+        }
+    }
+
+    @Override
+    int elementBytes() {
+        return Double.BYTES;
+    }
+
+    @Override
+    DoubleTagList copy() {
+        return new DoubleTagList(Arrays.copyOf(this.values, this.size));
+    }
+
+    @Override
+    int capacity() {
+        return this.values.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof DoubleTagList)) {
+            return super.equals(o);
+        }
+
+        final DoubleTagList list = (DoubleTagList) o;
+        if (this.size != list.size) {
+            return false;
+        }
+        for (int i = 0; i < this.size; i++) {
+            // Same comparison as DoubleTag#equals
+            if (this.values[i] != list.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (int i = 0; i < this.size; i++) {
+            hashCode = 31 * hashCode + Double.hashCode(this.values[i]);
+        }
+        return hashCode;
+    }
+}
@@ -12,6 +12,7 @@ import java.io.IOException;
 public final class FloatTag implements NumberTag {
     public static final int ID = 5;
     public static final FloatTag ZERO = new FloatTag(0);
+    public static final FloatTag ONE = new FloatTag(1);
     private final float value;
 
     /**
@@ -23,9 +24,25 @@ public final class FloatTag implements NumberTag {
         this.value = value;
     }
 
+    /**
+     * Returns a tag with the given value, which is shared for 0 and 1.
+     *
+     * @param value The value of the tag.
+     * @return a tag with the given value
+     */
+    public static FloatTag valueOf(float value) {
+        // Compare the raw bits to not share the positive zero for -0
+        if (Float.floatToRawIntBits(value) == Float.floatToRawIntBits(0)) {
+            return ZERO;
+        } else if (value == 1) {
+            return ONE;
+        }
+        return new FloatTag(value);
+    }
+
     public static FloatTag read(DataInput in, TagLimiter tagLimiter) throws IOException {
         tagLimiter.countFloat();
-        return new FloatTag(in.readFloat());
+        return valueOf(in.readFloat());
     }
 
     /**
@@ -47,6 +64,11 @@ public final class FloatTag implements NumberTag {
         out.writeFloat(this.value);
     }
 
+    @Override
+    public int serializedSize() {
+        return Float.BYTES;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -97,6 +119,6 @@ public final class FloatTag implements NumberTag {
 
     @Override
     public String toString() {
-        return SNBT.serialize(this);
+        return SNBT.serializeTruncated(this);
     }
 }
@@ -0,0 +1,174 @@
+package com.viaversion.nbt.tag;
+
+import com.viaversion.nbt.io.ByteBufferDataInput;
+import com.viaversion.nbt.io.ByteBufferDataOutput;
+import com.viaversion.nbt.limiter.TagLimiter;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * List of FloatTags backed by {@code float[]}.
+ */
+final class FloatTagList extends NumberTagList<FloatTag> {
+    private float[] values;
+
+    FloatTagList(int capacity) {
+        this.values = new float[capacity];
+    }
+
+    private FloatTagList(float[] values) {
+        this.values = values;
+        this.size = values.length;
+    }
+
+    @Override
+    public FloatTag get(int index) {
+        this.checkIndex(index);
+        return FloatTag.valueOf(this.values[index]);
+    }
+
+    @Override
+    public FloatTag set(int index, FloatTag tag) {
+        this.checkIndex(index);
+        final float previous = this.values[index];
+        this.values[index] = tag.asFloat();
+        return FloatTag.valueOf(previous);
+    }
+
+    @Override
+    public void add(int index, FloatTag tag) {
+        this.checkPositionIndex(index);
+        final float value = tag.asFloat();
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, grownCapacity(this.values.length, this.size + 1));
+        }
+        System.arraycopy(this.values, index, this.values, index + 1, this.size - index);
+        this.values[index] = value;
+        this.size++;
+        this.modCount++;
+    }
+
+    @Override
+    public FloatTag remove(int index) {
+        this.checkIndex(index);
+        final float previous = this.values[index];
+        System.arraycopy(this.values, index + 1, this.values, index, this.size - index - 1);
+        this.size--;
+        this.modCount++;
+        return FloatTag.valueOf(previous);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        System.arraycopy(this.values, toIndex, this.values, fromIndex, this.size - toIndex);
+        this.size -= toIndex - fromIndex;
+        this.modCount++;
+    }
+
+    @Override
+    int getInt(int index) {
+        this.checkIndex(index);
+        return (int) this.values[index];
+    }
+
+    @Override
+    long getLong(int index) {
+        this.checkIndex(index);
+        return (long) this.values[index];
+    }
+
+    @Override
+    float getFloat(int index) {
+        this.checkIndex(index);
+        return this.values[index];
+    }
+
+    @Override
+    double getDouble(int index) {
+        this.checkIndex(index);
+        return this.values[index];
+    }
+
+    @Override
+    void read(DataInput in, int count, TagLimiter tagLimiter) throws IOException {
+        final ByteBufferDataInput input = bulkInput(in, count, Float.BYTES);
+        if (input != null) {
+            // Floats are counted as 8 bytes each, clamped as the limiter caps at Integer.MAX_VALUE anyway
+            tagLimiter.countBytes((int) Math.min((long) Double.BYTES * count, Integer.MAX_VALUE));
+            if (this.size + count > this.values.length) {
+                this.values = Arrays.copyOf(this.values, grownCapacity(this.values.length, this.size + count));
+            }
+            input.readFloats(this.values, this.size, count);
+            this.size += count;
+            this.modCount++;
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            tagLimiter.countFloat();
+            final float value = in.readFloat();
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, grownCapacity(this.values.length, this.size + 1));
+            }
+            this.values[this.size++] = value;
+        }
+        this.modCount++;
+    }
+
+    @Override
+    void write(DataOutput out) throws IOException {
+        if (out instanceof ByteBufferDataOutput) {
+            ((ByteBufferDataOutput) out).writeFloats(this.values, 0, this.size);
+            return;
+        }
+
+        for (int i = 0; i < this.size; i++) {
+            out.writeFloat(this.values[i]);
+        }
+    }
+
+    @Override
+    int elementBytes() {
+        return Float.BYTES;
+    }
+
+    @Override
+    FloatTagList copy() {
+        return new FloatTagList(Arrays.copyOf(this.values, this.size));
+    }
+
+    @Override
+    int capacity() {
+        return this.values.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof FloatTagList)) {
+            return super.equals(o);
+        }
+
+        final FloatTagList list = (FloatTagList) o;
+        if (this.size != list.size) {
+            return false;
+        }
+        for (int i = 0; i < this.size; i++) {
+            // Same comparison as FloatTag#equals
+            if (this.values[i] != list.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (int i = 0; i < this.size; i++) {
+            hashCode = 31 * hashCode + Float.hashCode(this.values[i]);
+        }
+        return hashCode;
+    }
+}
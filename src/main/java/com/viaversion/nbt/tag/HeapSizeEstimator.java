@@ -0,0 +1,201 @@
+package com.viaversion.nbt.tag;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Estimates the heap size retained by tag trees, following the object layout of 64-bit HotSpot JVMs.
+ * <p>
+ * References are assumed to be compressed if the maximum heap size allows it, which is the JVM's default.
+ * Fields are summed up and aligned per object, ignoring padding between fields.
+ * Capacities of hash maps and array lists that cannot be read are estimated from their size.
+ *
+ * @see Tag#retainedSize()
+ */
+final class HeapSizeEstimator {
+    private static final long COMPRESSED_OOPS_MAX_HEAP = 32L << 30;
+    private static final int ALIGNMENT = 8;
+    private static final int REFERENCE;
+    private static final int OBJECT_HEADER;
+    private static final int ARRAY_HEADER;
+    private static final boolean COMPACT_STRINGS;
+    private static final long COMPOUND_TAG;
+    private static final long LIST_TAG;
+    private static final long VALUE_TAG; // Tags holding a reference and a frozen flag: strings and arrays
+    private static final long RAW_TAG;
+    private static final long COMPACT_TAG_MAP;
+    private static final long LINKED_HASH_MAP;
+    private static final long LINKED_HASH_MAP_ENTRY;
+    private static final long ARRAY_LIST; // Also used for number tag lists, both hold a size, a mod count, and an array
+    private static final long STRING;
+    private ReferenceOpenHashSet<Tag> shared;
+
+    static {
+        final boolean compressedOops = Runtime.getRuntime().maxMemory() < COMPRESSED_OOPS_MAX_HEAP;
+        REFERENCE = compressedOops ? 4 : 8;
+        OBJECT_HEADER = compressedOops ? 12 : 16;
+        ARRAY_HEADER = compressedOops ? 16 : 24;
+        // Strings are backed by a byte array with an encoding flag since Java 9
+        COMPACT_STRINGS = !System.getProperty("java.specification.version", "").startsWith("1.");
+
+        COMPOUND_TAG = object(REFERENCE + 1 + 1 + Integer.BYTES + REFERENCE);
+        LIST_TAG = object(REFERENCE + REFERENCE + 1 + Integer.BYTES + REFERENCE);
+        VALUE_TAG = object(REFERENCE + 1);
+        RAW_TAG = object(Integer.BYTES + REFERENCE + 1 + REFERENCE);
+        COMPACT_TAG_MAP = object(5 * REFERENCE + 2 * Integer.BYTES);
+        LINKED_HASH_MAP = object(6 * REFERENCE + 4 * Integer.BYTES + 1);
+        LINKED_HASH_MAP_ENTRY = object(Integer.BYTES + 5 * REFERENCE);
+        ARRAY_LIST = object(REFERENCE + 2 * Integer.BYTES);
+        STRING = COMPACT_STRINGS ? object(REFERENCE + Integer.BYTES + 1 + 1) : object(REFERENCE + Integer.BYTES);
+    }
+
+    private HeapSizeEstimator() {
+    }
+
+    static long retainedSize(final Tag tag) {
+        return new HeapSizeEstimator().size(tag);
+    }
+
+    private long size(final Tag tag) {
+        if (tag instanceof NumberTag) {
+            return isCached((NumberTag) tag) ? 0 : numberSize(tag);
+        }
+        if (tag.isFrozen() && !this.markShared(tag)) {
+            return 0;
+        }
+
+        if (tag instanceof CompoundTag) {
+            final CompoundTag compoundTag = (CompoundTag) tag;
+            return COMPOUND_TAG + this.mapSize(compoundTag.backingMap()) + cachedStringSize(compoundTag.cachedString());
+        } else if (tag instanceof ListTag) {
+            final ListTag<?> listTag = (ListTag<?>) tag;
+            return LIST_TAG + this.listSize(listTag.value) + cachedStringSize(listTag.cachedString());
+        } else if (tag instanceof StringTag) {
+            return VALUE_TAG + stringSize(((StringTag) tag).getValue());
+        } else if (tag instanceof ByteArrayTag) {
+            return VALUE_TAG + array(((ByteArrayTag) tag).length(), Byte.BYTES);
+        } else if (tag instanceof IntArrayTag) {
+            return VALUE_TAG + array(((IntArrayTag) tag).length(), Integer.BYTES);
+        } else if (tag instanceof LongArrayTag) {
+            return VALUE_TAG + array(((LongArrayTag) tag).length(), Long.BYTES);
+        } else if (tag instanceof RawTag) {
+            final RawTag rawTag = (RawTag) tag;
+            final Tag decoded = rawTag.decodedTag();
+            return RAW_TAG + array(rawTag.payloadLength(), Byte.BYTES) + (decoded != null ? this.size(decoded) : 0);
+        }
+        return object(tag.serializedSize());
+    }
+
+    /**
+     * Marks a frozen tag as counted, as only frozen tags are expected to be shared between trees or within one.
+     *
+     * @return whether the tag was not counted before
+     */
+    private boolean markShared(final Tag tag) {
+        if (this.shared == null) {
+            this.shared = new ReferenceOpenHashSet<>();
+        }
+        return this.shared.add(tag);
+    }
+
+    private long mapSize(final Map<String, Tag> map) {
+        long size;
+        if (map instanceof CompactTagMap) {
+            final CompactTagMap compactMap = (CompactTagMap) map;
+            final LinkedHashMap<String, Tag> hashMap = compactMap.hashMap();
+            size = COMPACT_TAG_MAP + (hashMap != null ? hashMapSize(hashMap.size()) : array(compactMap.tableLength(), REFERENCE));
+        } else {
+            size = hashMapSize(map.size());
+        }
+
+        for (final Map.Entry<String, Tag> entry : map.entrySet()) {
+            size += stringSize(entry.getKey()) + this.size(entry.getValue());
+        }
+        return size;
+    }
+
+    private long listSize(final List<? extends Tag> list) {
+        if (list instanceof NumberTagList) {
+            final NumberTagList<?> numberList = (NumberTagList<?>) list;
+            return ARRAY_LIST + array(numberList.capacity(), numberList.elementBytes());
+        }
+
+        long size = ARRAY_LIST + array(list.size(), REFERENCE);
+        for (final Tag tag : list) {
+            size += this.size(tag);
+        }
+        return size;
+    }
+
+    private static long hashMapSize(final int size) {
+        // Smallest power of two table that holds the entries under the default load factor
+        int capacity = 16;
+        while (size > capacity * 3L / 4 && capacity < 1 << 30) {
+            capacity <<= 1;
+        }
+        return LINKED_HASH_MAP + array(capacity, REFERENCE) + size * LINKED_HASH_MAP_ENTRY;
+    }
+
+    private static long cachedStringSize(@Nullable final String string) {
+        return string != null ? stringSize(string) : 0;
+    }
+
+    private static long stringSize(final String string) {
+        final int length = string.length();
+        if (!COMPACT_STRINGS) {
+            return STRING + array(length, Character.BYTES);
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (string.charAt(i) > 0xFF) {
+                return STRING + array(length, Character.BYTES);
+            }
+        }
+        return STRING + array(length, Byte.BYTES);
+    }
+
+    private static boolean isCached(final NumberTag tag) {
+        if (tag instanceof ByteTag) {
+            return ByteTag.valueOf(tag.asByte()) == tag;
+        } else if (tag instanceof ShortTag) {
+            return ShortTag.isCached(tag.asShort()) && ShortTag.valueOf(tag.asShort()) == tag;
+        } else if (tag instanceof IntTag) {
+            return IntTag.isCached(tag.asInt()) && IntTag.valueOf(tag.asInt()) == tag;
+        } else if (tag instanceof LongTag) {
+            return LongTag.isCached(tag.asLong()) && LongTag.valueOf(tag.asLong()) == tag;
+        } else if (tag instanceof FloatTag) {
+            return tag == FloatTag.ZERO || tag == FloatTag.ONE;
+        } else if (tag instanceof DoubleTag) {
+            return tag == DoubleTag.ZERO || tag == DoubleTag.ONE;
+        }
+        return false;
+    }
+
+    private static long numberSize(final Tag tag) {
+        if (tag instanceof ByteTag) {
+            return object(Byte.BYTES);
+        } else if (tag instanceof ShortTag) {
+            return object(Short.BYTES);
+        } else if (tag instanceof IntTag || tag instanceof FloatTag) {
+            return object(Integer.BYTES);
+        } else if (tag instanceof LongTag || tag instanceof DoubleTag) {
+            return object(Long.BYTES);
+        }
+        return object(tag.serializedSize());
+    }
+
+    private static long object(final int fieldBytes) {
+        return align(OBJECT_HEADER + fieldBytes);
+    }
+
+    private static long array(final int length, final int elementBytes) {
+        return align(ARRAY_HEADER + (long) length * elementBytes);
+    }
+
+    private static long align(final long size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
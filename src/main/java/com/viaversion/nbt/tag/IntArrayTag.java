@@ -1,5 +1,7 @@
 package com.viaversion.nbt.tag;
 
+import com.viaversion.nbt.io.ByteBufferDataInput;
+import com.viaversion.nbt.io.ByteBufferDataOutput;
 import com.viaversion.nbt.limiter.TagLimiter;
 import com.viaversion.nbt.stringified.SNBT;
 import java.io.DataInput;
@@ -14,6 +16,7 @@ public final class IntArrayTag implements NumberArrayTag {
     public static final int ID = 11;
     private static final int[] EMPTY_ARRAY = new int[0];
     private int[] value;
+    private boolean frozen;
 
     /**
      * Creates a tag.
@@ -40,6 +43,11 @@ public final class IntArrayTag implements NumberArrayTag {
         tagLimiter.countBytes(Integer.BYTES * length);
 
         final int[] value = new int[length];
+        if (in instanceof ByteBufferDataInput) {
+            ((ByteBufferDataInput) in).readInts(value, 0, length);
+            return new IntArrayTag(value);
+        }
+
         for (int index = 0; index < value.length; index++) {
             value[index] = in.readInt();
         }
@@ -65,6 +73,7 @@ public final class IntArrayTag implements NumberArrayTag {
         if (value == null) {
             throw new NullPointerException("value cannot be null");
         }
+        this.checkMutable();
         this.value = value;
     }
 
@@ -85,6 +94,7 @@ public final class IntArrayTag implements NumberArrayTag {
      * @param value Value to set.
      */
     public void set(final int index, final int value) {
+        this.checkMutable();
         this.value[index] = value;
     }
 
@@ -97,7 +107,7 @@ public final class IntArrayTag implements NumberArrayTag {
     public ListTag<IntTag> toListTag() {
         final ListTag<IntTag> list = new ListTag<>(IntTag.class);
         for (final int i : this.value) {
-            list.add(new IntTag(i));
+            list.add(IntTag.valueOf(i));
         }
         return list;
     }
@@ -105,11 +115,21 @@ public final class IntArrayTag implements NumberArrayTag {
     @Override
     public void write(final DataOutput out) throws IOException {
         out.writeInt(this.value.length);
+        if (out instanceof ByteBufferDataOutput) {
+            ((ByteBufferDataOutput) out).writeInts(this.value, 0, this.value.length);
+            return;
+        }
+
         for (final int i : this.value) {
             out.writeInt(i);
         }
     }
 
+    @Override
+    public int serializedSize() {
+        return Integer.BYTES + Integer.BYTES * this.value.length;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -128,6 +148,28 @@ public final class IntArrayTag implements NumberArrayTag {
         return new IntArrayTag(this.value.clone());
     }
 
+    @Override
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Makes this tag immutable. As the array returned by {@link #getValue()} cannot be protected, it must not be modified anymore either.
+     *
+     * @return this tag
+     */
+    @Override
+    public IntArrayTag freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    private void checkMutable() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Cannot modify a frozen tag");
+        }
+    }
+
     @Override
     public int getTagId() {
         return ID;
@@ -135,6 +177,6 @@ public final class IntArrayTag implements NumberArrayTag {
 
     @Override
     public String toString() {
-        return SNBT.serialize(this);
+        return SNBT.serializeTruncated(this);
     }
 }
@@ -11,8 +11,17 @@ import java.io.IOException;
  */
 public final class IntTag implements NumberTag {
     public static final int ID = 3;
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1024;
+    private static final IntTag[] CACHE = new IntTag[CACHE_HIGH - CACHE_LOW + 1];
     private final int value;
 
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new IntTag(i + CACHE_LOW);
+        }
+    }
+
     /**
      * Creates a tag.
      */
@@ -29,9 +38,29 @@ public final class IntTag implements NumberTag {
         this.value = value;
     }
 
+    /**
+     * Returns a tag with the given value, which is shared for small values.
+     *
+     * @param value The value of the tag.
+     * @return a tag with the given value
+     */
+    public static IntTag valueOf(int value) {
+        if (isCached(value)) {
+            return CACHE[value - CACHE_LOW];
+        }
+        return new IntTag(value);
+    }
+
+    /**
+     * Returns whether {@link #valueOf(int)} returns a shared tag for the given value.
+     */
+    static boolean isCached(int value) {
+        return value >= CACHE_LOW && value <= CACHE_HIGH;
+    }
+
     public static IntTag read(DataInput in, TagLimiter tagLimiter) throws IOException {
         tagLimiter.countInt();
-        return new IntTag(in.readInt());
+        return valueOf(in.readInt());
     }
 
     /**
@@ -53,6 +82,11 @@ public final class IntTag implements NumberTag {
         out.writeInt(this.value);
     }
 
+    @Override
+    public int serializedSize() {
+        return Integer.BYTES;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -103,6 +137,6 @@ public final class IntTag implements NumberTag {
 
     @Override
     public String toString() {
-        return SNBT.serialize(this);
+        return SNBT.serializeTruncated(this);
     }
 }
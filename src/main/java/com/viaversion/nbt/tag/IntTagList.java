@@ -0,0 +1,173 @@
+package com.viaversion.nbt.tag;
+
+import com.viaversion.nbt.io.ByteBufferDataInput;
+import com.viaversion.nbt.io.ByteBufferDataOutput;
+import com.viaversion.nbt.limiter.TagLimiter;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * List of IntTags backed by {@code int[]}.
+ */
+final class IntTagList extends NumberTagList<IntTag> {
+    private int[] values;
+
+    IntTagList(int capacity) {
+        this.values = new int[capacity];
+    }
+
+    private IntTagList(int[] values) {
+        this.values = values;
+        this.size = values.length;
+    }
+
+    @Override
+    public IntTag get(int index) {
+        this.checkIndex(index);
+        return IntTag.valueOf(this.values[index]);
+    }
+
+    @Override
+    public IntTag set(int index, IntTag tag) {
+        this.checkIndex(index);
+        final int previous = this.values[index];
+        this.values[index] = tag.asInt();
+        return IntTag.valueOf(previous);
+    }
+
+    @Override
+    public void add(int index, IntTag tag) {
+        this.checkPositionIndex(index);
+        final int value = tag.asInt();
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, grownCapacity(this.values.length, this.size + 1));
+        }
+        System.arraycopy(this.values, index, this.values, index + 1, this.size - index);
+        this.values[index] = value;
+        this.size++;
+        this.modCount++;
+    }
+
+    @Override
+    public IntTag remove(int index) {
+        this.checkIndex(index);
+        final int previous = this.values[index];
+        System.arraycopy(this.values, index + 1, this.values, index, this.size - index - 1);
+        this.size--;
+        this.modCount++;
+        return IntTag.valueOf(previous);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        System.arraycopy(this.values, toIndex, this.values, fromIndex, this.size - toIndex);
+        this.size -= toIndex - fromIndex;
+        this.modCount++;
+    }
+
+    @Override
+    int getInt(int index) {
+        this.checkIndex(index);
+        return this.values[index];
+    }
+
+    @Override
+    long getLong(int index) {
+        this.checkIndex(index);
+        return this.values[index];
+    }
+
+    @Override
+    float getFloat(int index) {
+        this.checkIndex(index);
+        return this.values[index];
+    }
+
+    @Override
+    double getDouble(int index) {
+        this.checkIndex(index);
+        return this.values[index];
+    }
+
+    @Override
+    void read(DataInput in, int count, TagLimiter tagLimiter) throws IOException {
+        final ByteBufferDataInput input = bulkInput(in, count, Integer.BYTES);
+        if (input != null) {
+            tagLimiter.countBytes(Integer.BYTES * count);
+            if (this.size + count > this.values.length) {
+                this.values = Arrays.copyOf(this.values, grownCapacity(this.values.length, this.size + count));
+            }
+            input.readInts(this.values, this.size, count);
+            this.size += count;
+            this.modCount++;
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            tagLimiter.countInt();
+            final int value = in.readInt();
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, grownCapacity(this.values.length, this.size + 1));
+            }
+            this.values[this.size++] = value;
+        }
+        this.modCount++;
+    }
+
+    @Override
+    void write(DataOutput out) throws IOException {
+        if (out instanceof ByteBufferDataOutput) {
+            ((ByteBufferDataOutput) out).writeInts(this.values, 0, this.size);
+            return;
+        }
+
+        for (int i = 0; i < this.size; i++) {
+            out.writeInt(this.values[i]);
+        }
+    }
+
+    @Override
+    int elementBytes() {
+        return Integer.BYTES;
+    }
+
+    @Override
+    IntTagList copy() {
+        return new IntTagList(Arrays.copyOf(this.values, this.size));
+    }
+
+    @Override
+    int capacity() {
+        return this.values.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof IntTagList)) {
+            return super.equals(o);
+        }
+
+        final IntTagList list = (IntTagList) o;
+        if (this.size != list.size) {
+            return false;
+        }
+        for (int i = 0; i < this.size; i++) {
+            // Same comparison as IntTag#equals
+            if (this.values[i] != list.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (int i = 0; i < this.size; i++) {
+            hashCode = 31 * hashCode + Integer.hashCode(this.values[i]);
+        }
+        return hashCode;
+    }
+}
@@ -7,9 +7,11 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 import org.jetbrains.annotations.Nullable;
 
@@ -20,8 +22,12 @@ import org.jetbrains.annotations.Nullable;
  */
 public class ListTag<T extends Tag> implements Tag, Iterable<T> {
     public static final int ID = 9;
+    private static final int NUMBER_LIST_CAPACITY = 4;
     protected List<T> value;
     private Class<T> type;
+    private boolean frozen;
+    private int hash;
+    private String snbt;
 
     /**
      * Creates an empty list tag and no defined type.
@@ -35,12 +41,15 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
 
     /**
      * Creates an empty list tag and type.
+     * Lists of int, long, float, and double tags store their values in primitive arrays.
      *
      * @param type Tag type of the list.
      */
+    @SuppressWarnings("unchecked")
     public ListTag(Class<T> type) {
         this.type = type;
-        this.value = new ArrayList<>();
+        final NumberTagList<?> list = NumberTagList.create(type, NUMBER_LIST_CAPACITY);
+        this.value = list != null ? (List<T>) list : new ArrayList<>();
     }
 
     private ListTag(Class<T> type, List<T> value) {
@@ -89,18 +98,55 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
                 throw new IOException("Unknown tag ID in ListTag: " + id);
             }
         }
-        return read(in, id, type, tagLimiter, nestingLevel);
+        return read(in, id, type, tagLimiter, nestingLevel, false);
+    }
+
+    /**
+     * Reads a list tag, reading compound and list elements lazily as described in {@link CompoundTag#readLazy(DataInput, TagLimiter, int)}.
+     *
+     * @param in           data input to read from
+     * @param tagLimiter   tag limiter to use
+     * @param nestingLevel current nesting level
+     * @return the read list tag
+     * @throws IOException if an I/O error occurs
+     */
+    public static ListTag<?> readLazy(DataInput in, TagLimiter tagLimiter, int nestingLevel) throws IOException {
+        tagLimiter.checkLevel(nestingLevel);
+        tagLimiter.countBytes(Byte.BYTES + Integer.BYTES);
+
+        int id = in.readByte();
+        Class<? extends Tag> type = null;
+        if (id != TagRegistry.END) {
+            type = TagRegistry.getClassFor(id);
+            if (type == null) {
+                throw new IOException("Unknown tag ID in ListTag: " + id);
+            }
+        }
+        return read(in, id, type, tagLimiter, nestingLevel, true);
     }
 
-    private static <T extends Tag> ListTag<?> read(DataInput in, int id, Class<T> type, TagLimiter tagLimiter, int nestingLevel) throws IOException {
+    private static <T extends Tag> ListTag<?> read(DataInput in, int id, Class<T> type, TagLimiter tagLimiter, int nestingLevel, boolean lazy) throws IOException {
         int count = in.readInt();
-        ListTag<T> listTag = new ListTag<>(type, new ArrayList<>(Math.min(count, Short.MAX_VALUE)));
+        if (count < 0) {
+            throw new IOException("Negative list length: " + count);
+        }
+
+        ListTag<T> listTag = new ListTag<>(type, newList(type, Math.min(count, Short.MAX_VALUE)));
+        if (listTag.value instanceof NumberTagList) {
+            try {
+                ((NumberTagList<?>) listTag.value).read(in, count, tagLimiter);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Failed to create tag.", e);
+            }
+            return listTag;
+        }
+
         int newNestingLevel = nestingLevel + 1;
         for (int index = 0; index < count; index++) {
             T tag;
             try {
                 //noinspection unchecked
-                tag = (T) TagRegistry.read(id, in, tagLimiter, newNestingLevel);
+                tag = (T) (lazy ? TagRegistry.readLazy(id, in, tagLimiter, newNestingLevel) : TagRegistry.read(id, in, tagLimiter, newNestingLevel));
             } catch (IllegalArgumentException e) {
                 throw new IOException("Failed to create tag.", e);
             }
@@ -113,7 +159,7 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
                 mixedListTag.add(wrappedTag);
 
                 final int remaining = count - index - 1;
-                return readMixed(mixedListTag, in, tagLimiter, nestingLevel, remaining);
+                return readMixed(mixedListTag, in, tagLimiter, nestingLevel, remaining, lazy);
             }
 
             listTag.value.add(tag);
@@ -121,11 +167,17 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
         return listTag;
     }
 
-    private static MixedListTag readMixed(MixedListTag listTag, DataInput in, TagLimiter tagLimiter, int nestingLevel, int count) throws IOException {
+    private static <T extends Tag> List<T> newList(@Nullable Class<T> type, int capacity) {
+        final NumberTagList<?> list = NumberTagList.create(type, capacity);
+        //noinspection unchecked
+        return list != null ? (List<T>) list : new ArrayList<>(capacity);
+    }
+
+    private static MixedListTag readMixed(MixedListTag listTag, DataInput in, TagLimiter tagLimiter, int nestingLevel, int count, boolean lazy) throws IOException {
         for (int index = 0; index < count; index++) {
             Tag tag;
             try {
-                tag = TagRegistry.read(CompoundTag.ID, in, tagLimiter, nestingLevel);
+                tag = lazy ? CompoundTag.readLazy(in, tagLimiter, nestingLevel) : TagRegistry.read(CompoundTag.ID, in, tagLimiter, nestingLevel);
             } catch (IllegalArgumentException e) {
                 throw new IOException("Failed to create tag.", e);
             }
@@ -148,7 +200,7 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
 
     @Override
     public List<T> getValue() {
-        return this.value; // TODO Make unmodifiable
+        return this.frozen ? Collections.unmodifiableList(this.value) : this.value;
     }
 
     @Override
@@ -164,7 +216,7 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
      * @throws IllegalArgumentException If all tags in the list are not of the same type.
      */
     public void setValue(List<T> value) {
-        this.value = new ArrayList<>(value);
+        this.checkMutable();
         if (!value.isEmpty()) {
             if (this.type == null) {
                 this.type = (Class<T>) value.get(0).getClass();
@@ -173,6 +225,8 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
                 this.checkType(t);
             }
         }
+        this.value = newList(this.type, value.size());
+        this.value.addAll(value);
     }
 
     /**
@@ -193,10 +247,25 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
      * @throws IllegalArgumentException If the tag's type differs from the list tag's type.
      */
     public boolean add(T tag) throws IllegalArgumentException {
+        this.checkMutable();
         this.checkAddedTag(tag);
         return this.value.add(tag);
     }
 
+    /**
+     * Inserts a tag at the given index of this list tag, shifting the following tags.
+     * If the list does not yet have a type, it will be set to the type of the tag being added.
+     *
+     * @param index Index to insert the tag at.
+     * @param tag   Tag to insert. Should not be null.
+     * @throws IllegalArgumentException If the tag's type differs from the list tag's type.
+     */
+    public void add(int index, T tag) throws IllegalArgumentException {
+        this.checkMutable();
+        this.checkAddedTag(tag);
+        this.value.add(index, tag);
+    }
+
     protected void checkAddedTag(T tag) {
         if (this.type == null) {
             this.type = (Class<T>) tag.getClass();
@@ -218,6 +287,7 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
      * @return If the list contained the tag.
      */
     public boolean remove(T tag) {
+        this.checkMutable();
         return this.value.remove(tag);
     }
 
@@ -231,6 +301,50 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
         return this.value.get(index);
     }
 
+    /**
+     * Gets the number at the given index of this list tag as an int, without creating a tag object for lists of numbers.
+     *
+     * @param index Index of the number.
+     * @return The number at the given index.
+     * @throws ClassCastException If the list does not contain number tags.
+     */
+    public int getInt(int index) {
+        return this.value instanceof NumberTagList ? ((NumberTagList<?>) this.value).getInt(index) : ((NumberTag) this.value.get(index)).asInt();
+    }
+
+    /**
+     * Gets the number at the given index of this list tag as a long, without creating a tag object for lists of numbers.
+     *
+     * @param index Index of the number.
+     * @return The number at the given index.
+     * @throws ClassCastException If the list does not contain number tags.
+     */
+    public long getLong(int index) {
+        return this.value instanceof NumberTagList ? ((NumberTagList<?>) this.value).getLong(index) : ((NumberTag) this.value.get(index)).asLong();
+    }
+
+    /**
+     * Gets the number at the given index of this list tag as a float, without creating a tag object for lists of numbers.
+     *
+     * @param index Index of the number.
+     * @return The number at the given index.
+     * @throws ClassCastException If the list does not contain number tags.
+     */
+    public float getFloat(int index) {
+        return this.value instanceof NumberTagList ? ((NumberTagList<?>) this.value).getFloat(index) : ((NumberTag) this.value.get(index)).asFloat();
+    }
+
+    /**
+     * Gets the number at the given index of this list tag as a double, without creating a tag object for lists of numbers.
+     *
+     * @param index Index of the number.
+     * @return The number at the given index.
+     * @throws ClassCastException If the list does not contain number tags.
+     */
+    public double getDouble(int index) {
+        return this.value instanceof NumberTagList ? ((NumberTagList<?>) this.value).getDouble(index) : ((NumberTag) this.value.get(index)).asDouble();
+    }
+
     /**
      * Sets the tag at the given index of this list tag.
      *
@@ -239,6 +353,7 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
      * @return The old tag at the given index.
      */
     public T set(int index, T tag) {
+        this.checkMutable();
         this.checkAddedTag(tag);
         return this.value.set(index, tag);
     }
@@ -250,6 +365,7 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
      * @return The removed tag at the given index.
      */
     public T remove(int index) {
+        this.checkMutable();
         return this.value.remove(index);
     }
 
@@ -272,7 +388,7 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
 
     @Override
     public Iterator<T> iterator() {
-        return this.value.iterator();
+        return this.frozen ? Collections.unmodifiableList(this.value).iterator() : this.value.iterator();
     }
 
     @Override
@@ -289,13 +405,36 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
         }
 
         out.writeInt(this.value.size());
+        if (this.value instanceof NumberTagList) {
+            ((NumberTagList<?>) this.value).write(out);
+            return;
+        }
+
         for (Tag tag : this.value) {
             tag.write(out);
         }
     }
 
     @Override
+    public int serializedSize() {
+        int size = Byte.BYTES + Integer.BYTES;
+        if (this.value instanceof NumberTagList) {
+            return size + this.value.size() * ((NumberTagList<?>) this.value).elementBytes();
+        }
+
+        for (Tag tag : this.value) {
+            size += tag.serializedSize();
+        }
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
     public ListTag<T> copy() {
+        if (this.value instanceof NumberTagList) {
+            return new ListTag<>(this.type, (List<T>) ((NumberTagList<?>) this.value).copy());
+        }
+
         ListTag<T> copy = new ListTag<>(this.type);
         copy.value = new ArrayList<>(this.value.size());
         for (T value : this.value) {
@@ -315,11 +454,96 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
 
     @Override
     public int hashCode() {
+        if (this.hash != 0) {
+            return this.hash;
+        }
+
         int result = this.type != null ? this.type.hashCode() : 0;
         result = 31 * result + this.value.hashCode();
+        if (this.frozen) {
+            this.hash = result; // Cannot change anymore
+        }
         return result;
     }
 
+    @Override
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Makes this list tag and all tags inside it immutable.
+     *
+     * @return this list tag
+     * @throws UnsupportedOperationException if a tag inside it cannot be frozen
+     */
+    @Override
+    public ListTag<T> freeze() {
+        if (this.frozen) {
+            return this;
+        }
+
+        if (!(this.value instanceof NumberTagList)) { // Number tags are immutable
+            for (T tag : this.value) {
+                tag.freeze();
+            }
+        }
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Replaces every element with the result of the function, which has to return an equal tag if this tag is frozen.
+     * As frozen tags may already be shared, they are never changed, but copied if any element is replaced.
+     * Elements of number lists are not stored as tags and are left as they are.
+     *
+     * @return this tag, or a frozen copy holding the replaced elements
+     */
+    @SuppressWarnings("unchecked")
+    ListTag<T> replaceElements(UnaryOperator<Tag> function) {
+        if (this.value instanceof NumberTagList) {
+            return this;
+        }
+
+        if (!this.frozen) {
+            for (int i = 0; i < this.value.size(); i++) {
+                this.value.set(i, (T) function.apply(this.value.get(i)));
+            }
+            return this;
+        }
+
+        List<T> elements = null;
+        for (int i = 0; i < this.value.size(); i++) {
+            T tag = this.value.get(i);
+            T replaced = (T) function.apply(tag);
+            if (replaced != tag && elements == null) {
+                elements = new ArrayList<>(this.value.size());
+                elements.addAll(this.value.subList(0, i));
+            }
+            if (elements != null) {
+                elements.add(replaced);
+            }
+        }
+        if (elements == null) {
+            return this;
+        }
+
+        ListTag<T> copy;
+        if (this instanceof MixedListTag) {
+            copy = (ListTag<T>) new MixedListTag();
+            copy.value = elements;
+        } else {
+            copy = new ListTag<>(this.type, elements);
+        }
+        return copy.freeze();
+    }
+
+    final void checkMutable() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Cannot modify a frozen tag");
+        }
+    }
+
     @Override
     public int getTagId() {
         return ID;
@@ -327,6 +551,22 @@ public class ListTag<T extends Tag> implements Tag, Iterable<T> {
 
     @Override
     public String toString() {
-        return SNBT.serialize(this);
+        if (this.snbt != null) {
+            return this.snbt;
+        }
+
+        // Frozen tags cannot change anymore, so their rendering can be kept
+        final String snbt = SNBT.serializeTruncated(this);
+        if (this.frozen) {
+            this.snbt = snbt;
+        }
+        return snbt;
+    }
+
+    /**
+     * Returns the rendering kept by {@link #toString()}, if any.
+     */
+    @Nullable String cachedString() {
+        return this.snbt;
     }
 }
@@ -1,5 +1,7 @@
 package com.viaversion.nbt.tag;
 
+import com.viaversion.nbt.io.ByteBufferDataInput;
+import com.viaversion.nbt.io.ByteBufferDataOutput;
 import com.viaversion.nbt.limiter.TagLimiter;
 import com.viaversion.nbt.stringified.SNBT;
 import java.io.DataInput;
@@ -14,6 +16,7 @@ public final class LongArrayTag implements NumberArrayTag {
     public static final int ID = 12;
     private static final long[] EMPTY_ARRAY = new long[0];
     private long[] value;
+    private boolean frozen;
 
     /**
      * Creates a tag.
@@ -40,6 +43,11 @@ public final class LongArrayTag implements NumberArrayTag {
         tagLimiter.countBytes(Long.BYTES * length);
 
         final long[] value = new long[length];
+        if (in instanceof ByteBufferDataInput) {
+            ((ByteBufferDataInput) in).readLongs(value, 0, length);
+            return new LongArrayTag(value);
+        }
+
         for (int index = 0; index < value.length; index++) {
             value[index] = in.readLong();
         }
@@ -65,6 +73,7 @@ public final class LongArrayTag implements NumberArrayTag {
         if (value == null) {
             throw new NullPointerException("value cannot be null");
         }
+        this.checkMutable();
         this.value = value;
     }
 
@@ -85,6 +94,7 @@ public final class LongArrayTag implements NumberArrayTag {
      * @param value Value to set.
      */
     public void set(int index, long value) {
+        this.checkMutable();
         this.value[index] = value;
     }
 
@@ -97,7 +107,7 @@ public final class LongArrayTag implements NumberArrayTag {
     public ListTag<LongTag> toListTag() {
         final ListTag<LongTag> list = new ListTag<>(LongTag.class);
         for (final long l : this.value) {
-            list.add(new LongTag(l));
+            list.add(LongTag.valueOf(l));
         }
         return list;
     }
@@ -105,11 +115,21 @@ public final class LongArrayTag implements NumberArrayTag {
     @Override
     public void write(DataOutput out) throws IOException {
         out.writeInt(this.value.length);
+        if (out instanceof ByteBufferDataOutput) {
+            ((ByteBufferDataOutput) out).writeLongs(this.value, 0, this.value.length);
+            return;
+        }
+
         for (long l : this.value) {
             out.writeLong(l);
         }
     }
 
+    @Override
+    public int serializedSize() {
+        return Integer.BYTES + Long.BYTES * this.value.length;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -128,6 +148,28 @@ public final class LongArrayTag implements NumberArrayTag {
         return new LongArrayTag(this.value.clone());
     }
 
+    @Override
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Makes this tag immutable. As the array returned by {@link #getValue()} cannot be protected, it must not be modified anymore either.
+     *
+     * @return this tag
+     */
+    @Override
+    public LongArrayTag freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    private void checkMutable() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Cannot modify a frozen tag");
+        }
+    }
+
     @Override
     public int getTagId() {
         return ID;
@@ -135,6 +177,6 @@ public final class LongArrayTag implements NumberArrayTag {
 
     @Override
     public String toString() {
-        return SNBT.serialize(this);
+        return SNBT.serializeTruncated(this);
     }
 }
@@ -11,9 +11,19 @@ import java.io.IOException;
  */
 public final class LongTag implements NumberTag {
     public static final int ID = 4;
-    public static final LongTag ZERO = new LongTag(0);
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 127;
+    private static final LongTag[] CACHE = new LongTag[CACHE_HIGH - CACHE_LOW + 1];
+    public static final LongTag ZERO;
     private final long value;
 
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new LongTag(i + CACHE_LOW);
+        }
+        ZERO = valueOf(0);
+    }
+
     /**
      * Creates a tag.
      *
@@ -23,9 +33,29 @@ public final class LongTag implements NumberTag {
         this.value = value;
     }
 
+    /**
+     * Returns a tag with the given value, which is shared for small values.
+     *
+     * @param value The value of the tag.
+     * @return a tag with the given value
+     */
+    public static LongTag valueOf(long value) {
+        if (isCached(value)) {
+            return CACHE[(int) value - CACHE_LOW];
+        }
+        return new LongTag(value);
+    }
+
+    /**
+     * Returns whether {@link #valueOf(long)} returns a shared tag for the given value.
+     */
+    static boolean isCached(long value) {
+        return value >= CACHE_LOW && value <= CACHE_HIGH;
+    }
+
     public static LongTag read(DataInput in, TagLimiter tagLimiter) throws IOException {
         tagLimiter.countLong();
-        return new LongTag(in.readLong());
+        return valueOf(in.readLong());
     }
 
     /**
@@ -47,6 +77,11 @@ public final class LongTag implements NumberTag {
         out.writeLong(this.value);
     }
 
+    @Override
+    public int serializedSize() {
+        return Long.BYTES;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -97,6 +132,6 @@ public final class LongTag implements NumberTag {
 
     @Override
     public String toString() {
-        return SNBT.serialize(this);
+        return SNBT.serializeTruncated(this);
     }
 }
@@ -0,0 +1,173 @@
+package com.viaversion.nbt.tag;
+
+import com.viaversion.nbt.io.ByteBufferDataInput;
+import com.viaversion.nbt.io.ByteBufferDataOutput;
+import com.viaversion.nbt.limiter.TagLimiter;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * List of LongTags backed by {@code long[]}.
+ */
+final class LongTagList extends NumberTagList<LongTag> {
+    private long[] values;
+
+    LongTagList(int capacity) {
+        this.values = new long[capacity];
+    }
+
+    private LongTagList(long[] values) {
+        this.values = values;
+        this.size = values.length;
+    }
+
+    @Override
+    public LongTag get(int index) {
+        this.checkIndex(index);
+        return LongTag.valueOf(this.values[index]);
+    }
+
+    @Override
+    public LongTag set(int index, LongTag tag) {
+        this.checkIndex(index);
+        final long previous = this.values[index];
+        this.values[index] = tag.asLong();
+        return LongTag.valueOf(previous);
+    }
+
+    @Override
+    public void add(int index, LongTag tag) {
+        this.checkPositionIndex(index);
+        final long value = tag.asLong();
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, grownCapacity(this.values.length, this.size + 1));
+        }
+        System.arraycopy(this.values, index, this.values, index + 1, this.size - index);
+        this.values[index] = value;
+        this.size++;
+        this.modCount++;
+    }
+
+    @Override
+    public LongTag remove(int index) {
+        this.checkIndex(index);
+        final long previous = this.values[index];
+        System.arraycopy(this.values, index + 1, this.values, index, this.size - index - 1);
+        this.size--;
+        this.modCount++;
+        return LongTag.valueOf(previous);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        System.arraycopy(this.values, toIndex, this.values, fromIndex, this.size - toIndex);
+        this.size -= toIndex - fromIndex;
+        this.modCount++;
+    }
+
+    @Override
+    int getInt(int index) {
+        this.checkIndex(index);
+        return (int) this.values[index];
+    }
+
+    @Override
+    long getLong(int index) {
+        this.checkIndex(index);
+        return this.values[index];
+    }
+
+    @Override
+    float getFloat(int index) {
+        this.checkIndex(index);
+        return this.values[index];
+    }
+
+    @Override
+    double getDouble(int index) {
+        this.checkIndex(index);
+        return this.values[index];
+    }
+
+    @Override
+    void read(DataInput in, int count, TagLimiter tagLimiter) throws IOException {
+        final ByteBufferDataInput input = bulkInput(in, count, Long.BYTES);
+        if (input != null) {
+            tagLimiter.countBytes(Long.BYTES * count);
+            if (this.size + count > this.values.length) {
+                this.values = Arrays.copyOf(this.values, grownCapacity(this.values.length, this.size + count));
+            }
+            input.readLongs(this.values, this.size, count);
+            this.size += count;
+            this.modCount++;
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            tagLimiter.countLong();
+            final long value = in.readLong();
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, grownCapacity(this.values.length, this.size + 1));
+            }
+            this.values[this.size++] = value;
+        }
+        this.modCount++;
+    }
+
+    @Override
+    void write(DataOutput out) throws IOException {
+        if (out instanceof ByteBufferDataOutput) {
+            ((ByteBufferDataOutput) out).writeLongs(this.values, 0, this.size);
+            return;
+        }
+
+        for (int i = 0; i < this.size; i++) {
+            out.writeLong(this.values[i]);
+        }
+    }
+
+    @Override
+    int elementBytes() {
+        return Long.BYTES;
+    }
+
+    @Override
+    LongTagList copy() {
+        return new LongTagList(Arrays.copyOf(this.values, this.size));
+    }
+
+    @Override
+    int capacity() {
+        return this.values.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof LongTagList)) {
+            return super.equals(o);
+        }
+
+        final LongTagList list = (LongTagList) o;
+        if (this.size != list.size) {
+            return false;
+        }
+        for (int i = 0; i < this.size; i++) {
+            // Same comparison as LongTag#equals
+            if (this.values[i] != list.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (int i = 0; i < this.size; i++) {
+            hashCode = 31 * hashCode + Long.hashCode(this.values[i]);
+        }
+        return hashCode;
+    }
+}
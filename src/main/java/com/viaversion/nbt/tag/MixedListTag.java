@@ -4,7 +4,6 @@ import com.viaversion.nbt.io.TagRegistry;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import org.jetbrains.annotations.Nullable;
 
@@ -26,6 +25,7 @@ public final class MixedListTag extends ListTag<Tag> {
 
     @Override
     public void setValue(final List<Tag> value) {
+        this.checkMutable();
         this.value = new ArrayList<>(value);
     }
 
@@ -53,6 +53,19 @@ public final class MixedListTag extends ListTag<Tag> {
         }
     }
 
+    @Override
+    public int serializedSize() {
+        int size = Byte.BYTES + Integer.BYTES;
+        for (final Tag tag : this.value) {
+            size += tag.serializedSize();
+            if (!(tag instanceof CompoundTag)) {
+                // Wrapping compound with an empty key and end tag
+                size += Byte.BYTES + Short.BYTES + Byte.BYTES;
+            }
+        }
+        return size;
+    }
+
     @Override
     public MixedListTag copy() {
         final MixedListTag copy = new MixedListTag();
@@ -68,7 +81,7 @@ public final class MixedListTag extends ListTag<Tag> {
             return tag;
         }
 
-        final CompoundTag wrapper = new CompoundTag(new LinkedHashMap<>(1, 1F));
+        final CompoundTag wrapper = new CompoundTag();
         wrapper.put("", tag);
         return wrapper;
     }
@@ -13,6 +13,21 @@ public interface NumberTag extends Tag {
     @Override
     Number getValue();
 
+    /**
+     * Returns true, as number tags are always immutable.
+     *
+     * @return true
+     */
+    @Override
+    default boolean isFrozen() {
+        return true;
+    }
+
+    @Override
+    default NumberTag freeze() {
+        return this;
+    }
+
     /**
      * Gets the byte value of this tag.
      *
@@ -0,0 +1,113 @@
+package com.viaversion.nbt.tag;
+
+import com.viaversion.nbt.io.ByteBufferDataInput;
+import com.viaversion.nbt.limiter.TagLimiter;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * List of number tags storing its elements in a primitive array, only creating tag objects when elements are accessed through {@link #get(int)}.
+ * Elements are compared and hashed like their tags, so these lists are equal to other lists holding equal tags.
+ *
+ * @param <T> number tag type
+ */
+abstract class NumberTagList<T extends NumberTag> extends AbstractList<T> implements RandomAccess {
+    int size;
+
+    /**
+     * Returns a primitive list for the given element type, or null if the element type is not supported.
+     *
+     * @param type     element type
+     * @param capacity initial capacity
+     * @return primitive list for the given element type, or null if not supported
+     */
+    static @Nullable NumberTagList<?> create(@Nullable Class<? extends Tag> type, int capacity) {
+        if (type == IntTag.class) {
+            return new IntTagList(capacity);
+        } else if (type == LongTag.class) {
+            return new LongTagList(capacity);
+        } else if (type == FloatTag.class) {
+            return new FloatTagList(capacity);
+        } else if (type == DoubleTag.class) {
+            return new DoubleTagList(capacity);
+        }
+        return null;
+    }
+
+    abstract int getInt(int index);
+
+    abstract long getLong(int index);
+
+    abstract float getFloat(int index);
+
+    abstract double getDouble(int index);
+
+    /**
+     * Reads and appends the given number of elements.
+     *
+     * @param in         data input to read from
+     * @param count      number of elements
+     * @param tagLimiter tag limiter to use
+     * @throws IOException if an I/O error occurs
+     */
+    abstract void read(DataInput in, int count, TagLimiter tagLimiter) throws IOException;
+
+    /**
+     * Writes the elements without the list header.
+     *
+     * @param out data output to write to
+     * @throws IOException if an I/O error occurs
+     */
+    abstract void write(DataOutput out) throws IOException;
+
+    abstract int elementBytes();
+
+    abstract NumberTagList<T> copy();
+
+    /**
+     * Returns the length of the backing array.
+     */
+    abstract int capacity();
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public void clear() {
+        this.size = 0;
+        this.modCount++;
+    }
+
+    final void checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+    }
+
+    final void checkPositionIndex(int index) {
+        if (index < 0 || index > this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+    }
+
+    /**
+     * Returns the input as a buffer input if it holds all the given elements, so they can be counted and copied in one go.
+     * Other inputs, as well as truncated data, are read element by element.
+     */
+    static @Nullable ByteBufferDataInput bulkInput(DataInput in, int count, int elementBytes) {
+        if (in instanceof ByteBufferDataInput && count <= ((ByteBufferDataInput) in).remaining() / elementBytes) {
+            return (ByteBufferDataInput) in;
+        }
+        return null;
+    }
+
+    static int grownCapacity(int capacity, int minCapacity) {
+        return Math.max(minCapacity, capacity + (capacity >> 1) + 1);
+    }
+}
@@ -0,0 +1,178 @@
+package com.viaversion.nbt.tag;
+
+import com.viaversion.nbt.io.ByteBufferDataInput;
+import com.viaversion.nbt.io.TagRegistry;
+import com.viaversion.nbt.limiter.TagLimiter;
+import com.viaversion.nbt.stringified.SNBT;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A tag holding the encoded payload of another tag, which is only decoded when its contents are accessed.
+ * <p>
+ * As long as it has not been decoded through {@link #decode()} or {@link #getValue()}, writing it copies the stored bytes verbatim.
+ * Once decoded, the decoded tag is written instead, as it may have been modified.
+ * Raw tags cannot be used as list elements.
+ */
+public final class RawTag implements Tag {
+    private final int id;
+    private final byte[] payload;
+    private final boolean lazy;
+    private Tag decoded;
+
+    /**
+     * Creates a tag.
+     *
+     * @param id      tag id of the encoded tag
+     * @param payload encoded payload of the tag, not including its id or name, which must not be modified afterwards
+     */
+    public RawTag(int id, byte[] payload) {
+        this(id, payload, false);
+    }
+
+    /**
+     * Creates a tag.
+     *
+     * @param id      tag id of the encoded tag
+     * @param payload encoded payload of the tag, not including its id or name, which must not be modified afterwards
+     * @param lazy    whether decoding should keep nested compounds and lists encoded until they are accessed
+     * @see CompoundTag#readLazy(java.io.DataInput, TagLimiter, int)
+     */
+    public RawTag(int id, byte[] payload, boolean lazy) {
+        if (payload == null) {
+            throw new NullPointerException("payload cannot be null");
+        }
+        if (id <= TagRegistry.END || TagRegistry.getClassFor(id) == null) {
+            throw new IllegalArgumentException("Unknown tag id " + id);
+        }
+        this.id = id;
+        this.payload = payload;
+        this.lazy = lazy;
+    }
+
+    /**
+     * Returns the decoded tag, decoding it if needed. From then on, the decoded tag will be used when writing this tag.
+     *
+     * @return the decoded tag
+     * @throws UncheckedIOException if the payload is malformed
+     */
+    public Tag decode() {
+        if (this.decoded == null) {
+            this.decoded = this.decodeCopy();
+        }
+        return this.decoded;
+    }
+
+    /**
+     * Returns a newly decoded tag, or a copy of the decoded tag if this tag has already been decoded,
+     * without affecting how this tag is written.
+     *
+     * @return a newly decoded tag
+     * @throws UncheckedIOException if the payload is malformed
+     */
+    public Tag decodeCopy() {
+        if (this.decoded != null) {
+            return this.decoded.copy();
+        }
+
+        try {
+            final ByteBufferDataInput in = new ByteBufferDataInput(this.payload, 0, this.payload.length);
+            return this.lazy ? TagRegistry.readLazy(this.id, in, TagLimiter.noop(), 0) : TagRegistry.read(this.id, in, TagLimiter.noop(), 0);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Malformed raw tag payload", e);
+        }
+    }
+
+    /**
+     * Returns whether this tag has been decoded.
+     *
+     * @return whether this tag has been decoded
+     */
+    public boolean isDecoded() {
+        return this.decoded != null;
+    }
+
+    /**
+     * Returns the encoded payload this tag was created with. The array must not be modified.
+     *
+     * @return the encoded payload
+     */
+    public byte[] payload() {
+        return this.payload;
+    }
+
+    /**
+     * Returns the value of the decoded tag, decoding it if needed.
+     *
+     * @return value of the decoded tag
+     * @see #decode()
+     */
+    @Override
+    public Object getValue() {
+        return this.decode().getValue();
+    }
+
+    @Override
+    public String asRawString() {
+        return this.peek().asRawString();
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        if (this.decoded != null) {
+            this.decoded.write(out);
+        } else {
+            out.write(this.payload);
+        }
+    }
+
+    @Override
+    public int serializedSize() {
+        return this.decoded != null ? this.decoded.serializedSize() : this.payload.length;
+    }
+
+    @Override
+    public int getTagId() {
+        return this.id;
+    }
+
+    @Override
+    public Tag copy() {
+        return this.decoded != null ? this.decoded.copy() : new RawTag(this.id, this.payload, this.lazy);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RawTag rawTag = (RawTag) o;
+        if (this.id != rawTag.id) return false;
+        if (this.decoded == null && rawTag.decoded == null && Arrays.equals(this.payload, rawTag.payload)) return true;
+        return this.peek().equals(rawTag.peek());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.peek().hashCode();
+    }
+
+    int payloadLength() {
+        return this.payload.length;
+    }
+
+    @Nullable Tag decodedTag() {
+        return this.decoded;
+    }
+
+    private Tag peek() {
+        return this.decoded != null ? this.decoded : this.decodeCopy();
+    }
+
+    @Override
+    public String toString() {
+        return SNBT.serializeTruncated(this);
+    }
+}
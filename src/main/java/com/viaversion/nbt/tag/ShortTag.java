@@ -11,9 +11,19 @@ import java.io.IOException;
  */
 public final class ShortTag implements NumberTag {
     public static final int ID = 2;
-    public static final ShortTag ZERO = new ShortTag((short) 0);
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1024;
+    private static final ShortTag[] CACHE = new ShortTag[CACHE_HIGH - CACHE_LOW + 1];
+    public static final ShortTag ZERO;
     private final short value;
 
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new ShortTag((short) (i + CACHE_LOW));
+        }
+        ZERO = valueOf((short) 0);
+    }
+
     /**
      * Creates a tag.
      *
@@ -23,9 +33,29 @@ public final class ShortTag implements NumberTag {
         this.value = value;
     }
 
+    /**
+     * Returns a tag with the given value, which is shared for small values.
+     *
+     * @param value The value of the tag.
+     * @return a tag with the given value
+     */
+    public static ShortTag valueOf(short value) {
+        if (isCached(value)) {
+            return CACHE[value - CACHE_LOW];
+        }
+        return new ShortTag(value);
+    }
+
+    /**
+     * Returns whether {@link #valueOf(short)} returns a shared tag for the given value.
+     */
+    static boolean isCached(short value) {
+        return value >= CACHE_LOW && value <= CACHE_HIGH;
+    }
+
     public static ShortTag read(DataInput in, TagLimiter tagLimiter) throws IOException {
         tagLimiter.countShort();
-        return new ShortTag(in.readShort());
+        return valueOf(in.readShort());
     }
 
     /**
@@ -47,6 +77,11 @@ public final class ShortTag implements NumberTag {
         out.writeShort(this.value);
     }
 
+    @Override
+    public int serializedSize() {
+        return Short.BYTES;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -97,6 +132,6 @@ public final class ShortTag implements NumberTag {
 
     @Override
     public String toString() {
-        return SNBT.serialize(this);
+        return SNBT.serializeTruncated(this);
     }
 }
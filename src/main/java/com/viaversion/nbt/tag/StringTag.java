@@ -1,5 +1,6 @@
 package com.viaversion.nbt.tag;
 
+import com.viaversion.nbt.io.ModifiedUtf8;
 import com.viaversion.nbt.stringified.SNBT;
 import com.viaversion.nbt.limiter.TagLimiter;
 import java.io.DataInput;
@@ -12,6 +13,7 @@ import java.io.IOException;
 public final class StringTag implements Tag {
     public static final int ID = 8;
     private String value;
+    private boolean frozen;
 
     /**
      * Creates a tag.
@@ -57,6 +59,9 @@ public final class StringTag implements Tag {
         if (value == null) {
             throw new NullPointerException("value cannot be null");
         }
+        if (this.frozen) {
+            throw new UnsupportedOperationException("Cannot modify a frozen tag");
+        }
         this.value = value;
     }
 
@@ -65,6 +70,11 @@ public final class StringTag implements Tag {
         out.writeUTF(this.value);
     }
 
+    @Override
+    public int serializedSize() {
+        return Short.BYTES + ModifiedUtf8.encodedLength(this.value);
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -83,6 +93,17 @@ public final class StringTag implements Tag {
         return new StringTag(this.value);
     }
 
+    @Override
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    @Override
+    public StringTag freeze() {
+        this.frozen = true;
+        return this;
+    }
+
     @Override
     public int getTagId() {
         return ID;
@@ -90,6 +111,6 @@ public final class StringTag implements Tag {
 
     @Override
     public String toString() {
-        return SNBT.serialize(this);
+        return SNBT.serializeTruncated(this);
     }
 }
@@ -2,7 +2,10 @@ package com.viaversion.nbt.tag;
 
 import com.viaversion.nbt.stringified.SNBT;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 
 public interface Tag {
 
@@ -15,7 +18,7 @@ public interface Tag {
 
     /**
      * Returns the raw string representation of the value of this tag.
-     * For SNBT, use {@link SNBT#serialize(Tag)}.
+     * For SNBT, use {@link SNBT#serialize(Tag)}, as {@link Object#toString()} truncates large tags.
      *
      * @return raw string representation of the value of this tag
      */
@@ -29,6 +32,32 @@ public interface Tag {
      */
     void write(DataOutput out) throws IOException;
 
+    /**
+     * Returns the exact number of bytes written by {@link #write(DataOutput)}, not including the tag id or name.
+     * <p>
+     * The default implementation counts the bytes of an actual write, built-in tags compute it directly.
+     *
+     * @return serialized size of this tag's payload in bytes
+     * @see com.viaversion.nbt.io.NBTIO#serializedSize(Tag, boolean)
+     */
+    default int serializedSize() {
+        final DataOutputStream out = new DataOutputStream(new OutputStream() {
+            @Override
+            public void write(final int b) {
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+            }
+        });
+        try {
+            this.write(out);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.size();
+    }
+
     /**
      * Returns the NBT tag id of this tag type, used in I/O.
      *
@@ -38,8 +67,43 @@ public interface Tag {
 
     /**
      * Returns a copy of this tag.
+     * Copies of frozen tags are not frozen.
      *
      * @return a copy of this tag
      */
     Tag copy();
+
+    /**
+     * Returns whether this tag and all tags inside it are immutable, so they can be shared freely.
+     *
+     * @return whether this tag is frozen
+     * @see #freeze()
+     */
+    default boolean isFrozen() {
+        return false;
+    }
+
+    /**
+     * Makes this tag and all tags inside it immutable, after which modifying them throws an {@link UnsupportedOperationException}.
+     * If a tag inside it cannot be frozen, the tags frozen before it stay frozen.
+     *
+     * @return this tag
+     * @throws UnsupportedOperationException if this tag or a tag inside it cannot be frozen
+     */
+    default Tag freeze() {
+        throw new UnsupportedOperationException(this.getClass().getSimpleName() + " cannot be frozen");
+    }
+
+    /**
+     * Returns an estimate of the heap bytes retained by this tag, including the maps, lists, arrays, and strings backing it and all tags inside it.
+     * <p>
+     * Number tags from the shared value caches are not counted, and frozen tags contained multiple times are only counted once.
+     * Tags that are not built in are estimated by their serialized size.
+     * The estimate takes time linear to the size of the tree, without decoding lazily read tags.
+     *
+     * @return estimated retained heap size in bytes
+     */
+    default long retainedSize() {
+        return HeapSizeEstimator.retainedSize(this);
+    }
 }
@@ -0,0 +1,224 @@
+package com.viaversion.nbt.tag;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Bounded table of frozen tags, letting structurally equal frozen tags and subtrees share one instance.
+ * <p>
+ * Only frozen tags are shared, as any other tag could still be modified through one of its users.
+ * Tags are looked up by their hash code, which frozen compound and list tags compute only once.
+ * The table has a fixed number of slots, where a newly added tag replaces the tag previously stored in its slot.
+ * Tags are only weakly referenced by the table, so they are still garbage collected once they are no longer used elsewhere.
+ * Instances are thread-safe and can be shared, though a tag passed to {@link #deduplicate(Tag)} must not be modified concurrently.
+ *
+ * @see Tag#freeze()
+ * @see com.viaversion.nbt.io.TagReader#deduplicator(TagDeduplicator)
+ */
+public final class TagDeduplicator {
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private final UnaryOperator<Tag> deduplicateFunction = this::deduplicateTag;
+    private final UnaryOperator<Tag> freezeAndDeduplicateFunction = this::freezeAndDeduplicateTag;
+    private final LongAdder savedBytes = new LongAdder();
+    private final LongAdder deduplicatedTags = new LongAdder();
+    private final Entry[] entries;
+    private final int mask;
+
+    /**
+     * Creates a deduplicator with {@link #DEFAULT_CAPACITY} slots.
+     */
+    public TagDeduplicator() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a deduplicator.
+     *
+     * @param capacity number of slots, rounded up to the next power of two
+     * @throws IllegalArgumentException if the capacity is not positive or too large
+     */
+    public TagDeduplicator(final int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+
+        final int slots = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.entries = new Entry[slots];
+        this.mask = slots - 1;
+    }
+
+    /**
+     * Deduplicates the tag and the tags inside it.
+     * <p>
+     * A frozen tag is replaced by an equal tag already in the table, or else added to the table after deduplicating the tags inside it.
+     * Frozen tags inside compound and list tags are replaced by their deduplicated versions, also if the compound or list itself is not frozen.
+     * As frozen compound and list tags may already be shared, they are never changed. If tags inside them are replaced,
+     * a frozen copy holding the shared instances is added to the table and returned instead.
+     *
+     * @param tag tag to deduplicate
+     * @param <T> type of the tag
+     * @return the shared instance equal to the tag, or the tag itself if it is not frozen or the first of its kind
+     * @see #freezeAndDeduplicate(Tag)
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Tag> T deduplicate(final T tag) {
+        return (T) this.deduplicateTag(tag);
+    }
+
+    /**
+     * Freezes the tag and deduplicates it together with all tags inside it.
+     * <p>
+     * Tags inside compound and list tags that are not frozen yet are deduplicated before their parents are frozen,
+     * so unlike freezing the tag before calling {@link #deduplicate(Tag)}, no frozen tags have to be copied.
+     *
+     * @param tag tag to freeze and deduplicate
+     * @param <T> type of the tag
+     * @return the shared instance equal to the frozen tag, or the tag itself if it is the first of its kind
+     * @throws UnsupportedOperationException if a tag inside it cannot be frozen
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Tag> T freezeAndDeduplicate(final T tag) {
+        return (T) this.freezeAndDeduplicateTag(tag);
+    }
+
+    private Tag deduplicateTag(final Tag tag) {
+        if (!tag.isFrozen()) {
+            // Tags that are not frozen cannot be shared yet, so their contents can be replaced in place
+            replaceContents(tag, this.deduplicateFunction);
+            return tag;
+        }
+
+        final int hash = tag.hashCode();
+        final int slot = (hash ^ hash >>> 16) & this.mask;
+        final Tag shared = this.lookup(slot, hash, tag);
+        if (shared != null) {
+            this.countDeduplicated(shared, tag);
+            return shared;
+        }
+
+        final Tag deduplicated = replaceContents(tag, this.deduplicateFunction);
+        this.store(slot, hash, deduplicated);
+        return deduplicated;
+    }
+
+    private Tag freezeAndDeduplicateTag(final Tag tag) {
+        if (tag.isFrozen()) {
+            return this.deduplicateTag(tag);
+        }
+
+        replaceContents(tag, this.freezeAndDeduplicateFunction);
+        tag.freeze();
+
+        final int hash = tag.hashCode();
+        final int slot = (hash ^ hash >>> 16) & this.mask;
+        final Tag shared = this.lookup(slot, hash, tag);
+        if (shared != null) {
+            this.countDeduplicated(shared, tag);
+            return shared;
+        }
+
+        this.store(slot, hash, tag);
+        return tag;
+    }
+
+    /**
+     * Replaces the tags inside a compound or list tag, returning a frozen copy instead of changing frozen tags.
+     */
+    private static Tag replaceContents(final Tag tag, final UnaryOperator<Tag> function) {
+        if (tag instanceof CompoundTag) {
+            return ((CompoundTag) tag).replaceValues(function);
+        } else if (tag instanceof ListTag) {
+            return ((ListTag<?>) tag).replaceElements(function);
+        }
+        return tag;
+    }
+
+    private void countDeduplicated(final Tag shared, final Tag tag) {
+        if (shared != tag) {
+            this.deduplicatedTags.increment();
+            this.savedBytes.add(tag.retainedSize());
+        }
+    }
+
+    private void store(final int slot, final int hash, final Tag tag) {
+        // Entries are immutable and only published as a whole, so racing reads and writes at worst miss the table
+        this.entries[slot] = new Entry(tag, hash);
+    }
+
+    private @Nullable Tag lookup(final int slot, final int hash, final Tag tag) {
+        final Entry entry = this.entries[slot];
+        if (entry == null || entry.hash != hash) {
+            return null;
+        }
+
+        final Tag shared = entry.get();
+        return shared != null && (shared == tag || shared.equals(tag)) ? shared : null;
+    }
+
+    /**
+     * Returns the number of slots of this deduplicator.
+     *
+     * @return number of slots
+     */
+    public int capacity() {
+        return this.entries.length;
+    }
+
+    /**
+     * Returns the number of tags currently in the table that have not been garbage collected yet.
+     *
+     * @return number of tags in the table
+     */
+    public int size() {
+        int size = 0;
+        for (final Entry entry : this.entries) {
+            if (entry != null && entry.get() != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of tags that were replaced by a shared instance so far.
+     *
+     * @return number of replaced tags
+     */
+    public long deduplicatedTags() {
+        return this.deduplicatedTags.sum();
+    }
+
+    /**
+     * Returns the estimated number of heap bytes saved by replacing tags with shared instances so far,
+     * assuming the replaced tags are not referenced anywhere else.
+     * The size of a replaced tag is estimated by {@link Tag#retainedSize()}.
+     *
+     * @return estimated saved bytes
+     */
+    public long savedBytes() {
+        return this.savedBytes.sum();
+    }
+
+    /**
+     * Removes all tags from the table and resets the statistics.
+     */
+    public void clear() {
+        for (int i = 0; i < this.entries.length; i++) {
+            this.entries[i] = null;
+        }
+        this.deduplicatedTags.reset();
+        this.savedBytes.reset();
+    }
+
+    private static final class Entry extends WeakReference<Tag> {
+        private final int hash;
+
+        private Entry(final Tag tag, final int hash) {
+            super(tag);
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.viaversion.nbt.view;
+
+import com.viaversion.nbt.io.EncodedTags;
+import com.viaversion.nbt.io.TagRegistry;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.StringTag;
+import com.viaversion.nbt.tag.Tag;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Read-only view of an encoded list tag, obtained from a {@link NbtView}.
+ * Every element is found directly through the view's index.
+ */
+public final class NbtListView {
+    private static final int HEADER_SIZE = Byte.BYTES + Integer.BYTES;
+    private final ByteBuffer buffer;
+    private final int[] tape;
+    private final int block;
+
+    NbtListView(final ByteBuffer buffer, final int[] tape, final int block) {
+        this.buffer = buffer;
+        this.tape = tape;
+        this.block = block;
+    }
+
+    /**
+     * Returns the tag id of the elements.
+     *
+     * @return tag id of the elements, or {@link TagRegistry#END} if the list was written without an element type
+     */
+    public int getElementId() {
+        return this.buffer.get(this.start());
+    }
+
+    /**
+     * Returns the tag type of the elements.
+     *
+     * @return tag type of the elements, or null if the list was written without an element type
+     */
+    public @Nullable Class<? extends Tag> getElementType() {
+        final int id = this.getElementId();
+        return id != TagRegistry.END ? TagRegistry.getClassFor(id) : null;
+    }
+
+    public int size() {
+        return this.tape[this.block + TapeBuilder.COUNT];
+    }
+
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /**
+     * Decodes the element at the given index.
+     *
+     * @param index index of the element
+     * @return decoded tag
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public Tag get(final int index) {
+        return NbtView.decode(this.buffer, this.getElementId(), this.elementIndex(index));
+    }
+
+    /**
+     * Returns a view of the compound at the given index.
+     *
+     * @param index index of the element
+     * @return compound view, or null if the list does not contain compounds
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public @Nullable NbtView getCompound(final int index) {
+        this.checkIndex(index);
+        if (this.getElementId() != CompoundTag.ID) {
+            return null;
+        }
+        return new NbtView(this.buffer, this.tape, this.data(index));
+    }
+
+    /**
+     * Returns a view of the list at the given index.
+     *
+     * @param index index of the element
+     * @return list view, or null if the list does not contain lists
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public @Nullable NbtListView getList(final int index) {
+        this.checkIndex(index);
+        if (this.getElementId() != ListTag.ID) {
+            return null;
+        }
+        return new NbtListView(this.buffer, this.tape, this.data(index));
+    }
+
+    /**
+     * Returns the string at the given index.
+     *
+     * @param index index of the element
+     * @return string, or null if the list does not contain strings
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public @Nullable String getString(final int index) {
+        final int element = this.elementIndex(index);
+        return this.getElementId() == StringTag.ID ? NbtView.readString(this.buffer, element) : null;
+    }
+
+    /**
+     * Returns the number at the given index as an int.
+     *
+     * @param index index of the element
+     * @return number at the given index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     * @throws ClassCastException if the list does not contain numbers
+     */
+    public int getInt(final int index) {
+        return EncodedTags.intValue(this.buffer, this.numberIndex(index), this.getElementId());
+    }
+
+    /**
+     * Returns the number at the given index as a long.
+     *
+     * @param index index of the element
+     * @return number at the given index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     * @throws ClassCastException if the list does not contain numbers
+     */
+    public long getLong(final int index) {
+        return EncodedTags.longValue(this.buffer, this.numberIndex(index), this.getElementId());
+    }
+
+    /**
+     * Returns the number at the given index as a float.
+     *
+     * @param index index of the element
+     * @return number at the given index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     * @throws ClassCastException if the list does not contain numbers
+     */
+    public float getFloat(final int index) {
+        return EncodedTags.floatValue(this.buffer, this.numberIndex(index), this.getElementId());
+    }
+
+    /**
+     * Returns the number at the given index as a double.
+     *
+     * @param index index of the element
+     * @return number at the given index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     * @throws ClassCastException if the list does not contain numbers
+     */
+    public double getDouble(final int index) {
+        return EncodedTags.doubleValue(this.buffer, this.numberIndex(index), this.getElementId());
+    }
+
+    /**
+     * Decodes the viewed list into a heap tag.
+     *
+     * @return decoded tag
+     */
+    public ListTag<?> toTag() {
+        return (ListTag<?>) NbtView.decode(this.buffer, ListTag.ID, this.start());
+    }
+
+    @Override
+    public String toString() {
+        return this.toTag().toString();
+    }
+
+    private int start() {
+        return this.tape[this.block + TapeBuilder.START];
+    }
+
+    private int data(final int index) {
+        return this.tape[this.block + TapeBuilder.HEADER_SIZE + index];
+    }
+
+    private void checkIndex(final int index) {
+        final int size = this.size();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private int numberIndex(final int index) {
+        if (!EncodedTags.isNumber(this.getElementId())) {
+            throw new ClassCastException("List does not contain numbers");
+        }
+        return this.elementIndex(index);
+    }
+
+    /**
+     * Returns the absolute index of the element at the given index.
+     */
+    private int elementIndex(final int index) {
+        this.checkIndex(index);
+        final int elementId = this.getElementId();
+        final int fixedSize = EncodedTags.fixedSize(elementId);
+        if (fixedSize != -1) {
+            return this.start() + HEADER_SIZE + index * fixedSize;
+        }
+
+        final int data = this.data(index);
+        if (elementId == CompoundTag.ID || elementId == ListTag.ID) {
+            return this.tape[data + TapeBuilder.START];
+        }
+        return data;
+    }
+}
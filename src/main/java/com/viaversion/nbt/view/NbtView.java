@@ -0,0 +1,318 @@
+package com.viaversion.nbt.view;
+
+import com.viaversion.nbt.io.ByteBufferDataInput;
+import com.viaversion.nbt.io.EncodedTags;
+import com.viaversion.nbt.io.TagRegistry;
+import com.viaversion.nbt.limiter.TagLimiter;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.StringTag;
+import com.viaversion.nbt.tag.Tag;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Read-only view of an encoded compound tag, reading values directly from the encoded bytes.
+ * <p>
+ * Creating a view validates the data and indexes the position of every entry and list element in a single pass, without creating any tags.
+ * Lookups then only compare keys in place and read the requested values, so reading a few values of a large tag is much cheaper than decoding it.
+ * Nested compounds and lists are returned as views sharing the same index.
+ * <p>
+ * Strings are only decoded when read, so malformed string contents surface as an {@link UncheckedIOException} at that point.
+ * The viewed bytes must not be changed while views of them are in use.
+ */
+public final class NbtView {
+    private final ByteBuffer buffer;
+    private final int[] tape;
+    private final int block;
+
+    NbtView(final ByteBuffer buffer, final int[] tape, final int block) {
+        this.buffer = buffer;
+        this.tape = tape;
+        this.block = block;
+    }
+
+    /**
+     * Creates a view of an encoded compound tag, starting at the buffer's position up to its limit.
+     * The buffer's position is not changed.
+     *
+     * @param buffer buffer to view
+     * @param named  whether the tag is named
+     * @return view of the compound tag
+     * @throws IOException if the data is not a valid compound tag
+     */
+    public static NbtView of(final ByteBuffer buffer, final boolean named) throws IOException {
+        return of(buffer, TagLimiter.noop(), named);
+    }
+
+    /**
+     * Creates a view of an encoded compound tag.
+     *
+     * @param bytes bytes to view
+     * @param named whether the tag is named
+     * @return view of the compound tag
+     * @throws IOException if the data is not a valid compound tag
+     */
+    public static NbtView of(final byte[] bytes, final boolean named) throws IOException {
+        return of(ByteBuffer.wrap(bytes), TagLimiter.noop(), named);
+    }
+
+    /**
+     * Creates a view of an encoded compound tag, starting at the buffer's position up to its limit.
+     * The buffer's position is not changed.
+     *
+     * @param buffer     buffer to view
+     * @param tagLimiter tag limiter to use while indexing, counting bytes and nesting levels in the same way as reading the tag
+     * @param named      whether the tag is named
+     * @return view of the compound tag
+     * @throws IOException if the data is not a valid compound tag
+     */
+    public static NbtView of(final ByteBuffer buffer, final TagLimiter tagLimiter, final boolean named) throws IOException {
+        final ByteBuffer data = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        final ByteBufferDataInput in = new ByteBufferDataInput(data);
+        final int id = in.readByte();
+        if (id != CompoundTag.ID) {
+            throw new IOException("Expected tag type CompoundTag but got tag id " + id);
+        }
+
+        if (named) {
+            in.skipBytes(in.readUnsignedShort()); // Skip name
+        }
+
+        tagLimiter.reset();
+        final TapeBuilder builder = new TapeBuilder(in, tagLimiter);
+        final int[] tape = builder.build();
+        return new NbtView(data, tape, builder.root());
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return this.tape[this.block + TapeBuilder.COUNT];
+    }
+
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    public boolean contains(final String key) {
+        return this.find(key) != -1;
+    }
+
+    /**
+     * Returns the keys of all entries in order.
+     *
+     * @return keys of the entries
+     */
+    public Set<String> keySet() {
+        final Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < this.size(); i++) {
+            keys.add(readString(this.buffer, this.keyIndex(i)));
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the tag id of the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return tag id of the entry, or {@link TagRegistry#END} if not present
+     */
+    public int getTagId(final String key) {
+        final int entry = this.find(key);
+        return entry != -1 ? this.entryId(entry) : TagRegistry.END;
+    }
+
+    /**
+     * Decodes the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return decoded tag if present, else null
+     */
+    public @Nullable Tag get(final String key) {
+        final int entry = this.find(key);
+        return entry != -1 ? decode(this.buffer, this.entryId(entry), this.valueIndex(entry)) : null;
+    }
+
+    /**
+     * Returns a view of the compound with the given key.
+     *
+     * @param key key of the entry
+     * @return compound view if present and a compound, else null
+     */
+    public @Nullable NbtView getCompound(final String key) {
+        final int entry = this.find(key);
+        if (entry == -1 || this.entryId(entry) != CompoundTag.ID) {
+            return null;
+        }
+        return new NbtView(this.buffer, this.tape, this.childBlock(entry));
+    }
+
+    /**
+     * Returns a view of the list with the given key.
+     *
+     * @param key key of the entry
+     * @return list view if present and a list, else null
+     */
+    public @Nullable NbtListView getList(final String key) {
+        final int entry = this.find(key);
+        if (entry == -1 || this.entryId(entry) != ListTag.ID) {
+            return null;
+        }
+        return new NbtListView(this.buffer, this.tape, this.childBlock(entry));
+    }
+
+    public @Nullable String getString(final String key) {
+        return this.getString(key, null);
+    }
+
+    public @Nullable String getString(final String key, @Nullable final String def) {
+        final int entry = this.find(key);
+        if (entry == -1 || this.entryId(entry) != StringTag.ID) {
+            return def;
+        }
+        return readString(this.buffer, this.valueIndex(entry));
+    }
+
+    public int getInt(final String key) {
+        return this.getInt(key, 0);
+    }
+
+    public int getInt(final String key, final int def) {
+        final int entry = this.findNumber(key);
+        return entry != -1 ? EncodedTags.intValue(this.buffer, this.valueIndex(entry), this.entryId(entry)) : def;
+    }
+
+    public long getLong(final String key) {
+        return this.getLong(key, 0L);
+    }
+
+    public long getLong(final String key, final long def) {
+        final int entry = this.findNumber(key);
+        return entry != -1 ? EncodedTags.longValue(this.buffer, this.valueIndex(entry), this.entryId(entry)) : def;
+    }
+
+    public short getShort(final String key) {
+        return this.getShort(key, (short) 0);
+    }
+
+    public short getShort(final String key, final short def) {
+        final int entry = this.findNumber(key);
+        return entry != -1 ? (short) EncodedTags.intValue(this.buffer, this.valueIndex(entry), this.entryId(entry)) : def;
+    }
+
+    public byte getByte(final String key) {
+        return this.getByte(key, (byte) 0);
+    }
+
+    public byte getByte(final String key, final byte def) {
+        final int entry = this.findNumber(key);
+        return entry != -1 ? (byte) EncodedTags.intValue(this.buffer, this.valueIndex(entry), this.entryId(entry)) : def;
+    }
+
+    public float getFloat(final String key) {
+        return this.getFloat(key, 0.0F);
+    }
+
+    public float getFloat(final String key, final float def) {
+        final int entry = this.findNumber(key);
+        return entry != -1 ? EncodedTags.floatValue(this.buffer, this.valueIndex(entry), this.entryId(entry)) : def;
+    }
+
+    public double getDouble(final String key) {
+        return this.getDouble(key, 0.0D);
+    }
+
+    public double getDouble(final String key, final double def) {
+        final int entry = this.findNumber(key);
+        return entry != -1 ? EncodedTags.doubleValue(this.buffer, this.valueIndex(entry), this.entryId(entry)) : def;
+    }
+
+    public boolean getBoolean(final String key) {
+        return this.getBoolean(key, false);
+    }
+
+    public boolean getBoolean(final String key, final boolean def) {
+        final int entry = this.findNumber(key);
+        return entry != -1 ? (byte) EncodedTags.intValue(this.buffer, this.valueIndex(entry), this.entryId(entry)) != 0 : def;
+    }
+
+    /**
+     * Decodes the viewed compound into a heap tag.
+     *
+     * @return decoded tag
+     */
+    public CompoundTag toTag() {
+        return (CompoundTag) decode(this.buffer, CompoundTag.ID, this.tape[this.block + TapeBuilder.START]);
+    }
+
+    @Override
+    public String toString() {
+        return this.toTag().toString();
+    }
+
+    private int findNumber(final String key) {
+        final int entry = this.find(key);
+        return entry != -1 && EncodedTags.isNumber(this.entryId(entry)) ? entry : -1;
+    }
+
+    /**
+     * Returns the position of the entry with the given key, or -1 if not present.
+     */
+    private int find(final String key) {
+        for (int i = 0; i < this.size(); i++) {
+            if (EncodedTags.stringEquals(this.buffer, this.keyIndex(i), key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int keyIndex(final int entry) {
+        return this.tape[this.block + TapeBuilder.HEADER_SIZE + entry * 2];
+    }
+
+    private int childBlock(final int entry) {
+        return this.tape[this.block + TapeBuilder.HEADER_SIZE + entry * 2 + 1];
+    }
+
+    private int entryId(final int entry) {
+        return this.buffer.get(this.keyIndex(entry) - Byte.BYTES);
+    }
+
+    private int valueIndex(final int entry) {
+        final int keyIndex = this.keyIndex(entry);
+        return keyIndex + Short.BYTES + this.buffer.getChar(keyIndex);
+    }
+
+    static Tag decode(final ByteBuffer buffer, final int id, final int index) {
+        try {
+            return TagRegistry.read(id, input(buffer, index), TagLimiter.noop(), 0);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String readString(final ByteBuffer buffer, final int index) {
+        try {
+            return input(buffer, index).readUTF();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ByteBufferDataInput input(final ByteBuffer buffer, final int index) {
+        final ByteBuffer data = buffer.duplicate();
+        ((Buffer) data).position(index);
+        return new ByteBufferDataInput(data);
+    }
+}
@@ -0,0 +1,189 @@
+package com.viaversion.nbt.view;
+
+import com.viaversion.nbt.io.ByteBufferDataInput;
+import com.viaversion.nbt.io.EncodedTags;
+import com.viaversion.nbt.io.TagRegistry;
+import com.viaversion.nbt.limiter.TagLimiter;
+import com.viaversion.nbt.tag.ByteArrayTag;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.FloatTag;
+import com.viaversion.nbt.tag.IntArrayTag;
+import com.viaversion.nbt.tag.ListTag;
+import com.viaversion.nbt.tag.LongArrayTag;
+import com.viaversion.nbt.tag.StringTag;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the index of a {@link NbtView} in a single pass over the encoded data, validating its structure on the way.
+ * <p>
+ * The index is a flat int array of blocks, one per compound or list. Every block starts with the absolute index of the tag's payload and its number of entries or elements.
+ * Compound blocks continue with two ints per entry: the absolute index of the key's length prefix, and the block of the value if it is a compound or list, else -1.
+ * List blocks of compounds or lists continue with the block of every element, lists of other variable sized elements with the absolute index of every element.
+ * Nested blocks are written before their parents.
+ * <p>
+ * Bytes and nesting levels are counted in the same way as the tag read methods, with strings being counted by their encoded length.
+ */
+final class TapeBuilder {
+    static final int START = 0;
+    static final int COUNT = 1;
+    static final int HEADER_SIZE = 2;
+    static final int NO_BLOCK = -1;
+    private final ByteBufferDataInput in;
+    private final TagLimiter tagLimiter;
+    private final IntArrayList tape = new IntArrayList();
+    private final List<IntArrayList> scratch = new ArrayList<>();
+    private int root = NO_BLOCK;
+
+    TapeBuilder(final ByteBufferDataInput in, final TagLimiter tagLimiter) {
+        this.in = in;
+        this.tagLimiter = tagLimiter;
+    }
+
+    /**
+     * Indexes a compound payload, returning the finished tape.
+     */
+    int[] build() throws IOException {
+        this.root = this.compound(0);
+        return this.tape.toIntArray();
+    }
+
+    /**
+     * Returns the block of the indexed compound.
+     */
+    int root() {
+        return this.root;
+    }
+
+    private int value(final int id, final int nestingLevel) throws IOException {
+        switch (id) {
+            case CompoundTag.ID:
+                return this.compound(nestingLevel);
+            case ListTag.ID:
+                return this.list(nestingLevel);
+            case StringTag.ID:
+                this.skipString();
+                return NO_BLOCK;
+            case ByteArrayTag.ID:
+                this.skipArray(Byte.BYTES);
+                return NO_BLOCK;
+            case IntArrayTag.ID:
+                this.skipArray(Integer.BYTES);
+                return NO_BLOCK;
+            case LongArrayTag.ID:
+                this.skipArray(Long.BYTES);
+                return NO_BLOCK;
+            default:
+                final int size = EncodedTags.fixedSize(id);
+                if (size == -1 || id == TagRegistry.END) {
+                    throw new IOException("Unknown tag ID: " + id);
+                }
+                this.tagLimiter.countBytes(countedSize(id, size));
+                this.skip(size);
+                return NO_BLOCK;
+        }
+    }
+
+    private int compound(final int nestingLevel) throws IOException {
+        this.tagLimiter.checkLevel(nestingLevel);
+        final int start = this.in.position();
+        final IntArrayList entries = this.scratch(nestingLevel);
+        int id;
+        while (true) {
+            this.tagLimiter.countByte();
+            if ((id = this.in.readByte()) == TagRegistry.END) {
+                break;
+            }
+
+            final int keyIndex = this.in.position();
+            this.skipString();
+            final int block = this.value(id, nestingLevel + 1);
+            entries.add(keyIndex);
+            entries.add(block);
+        }
+        return this.addBlock(start, entries.size() / 2, entries);
+    }
+
+    private int list(final int nestingLevel) throws IOException {
+        this.tagLimiter.checkLevel(nestingLevel);
+        this.tagLimiter.countBytes(Byte.BYTES + Integer.BYTES);
+        final int start = this.in.position();
+        final int id = this.in.readByte();
+        final int count = this.in.readInt();
+        TagRegistry.checkListHeader(id, count);
+
+        final int size = EncodedTags.fixedSize(id);
+        if (size != -1) {
+            this.tagLimiter.countBytes((int) Math.min((long) countedSize(id, size) * count, Integer.MAX_VALUE));
+            this.skip((long) count * size);
+            return this.addBlock(start, count, null);
+        }
+
+        final IntArrayList elements = this.scratch(nestingLevel);
+        final boolean container = id == CompoundTag.ID || id == ListTag.ID;
+        for (int i = 0; i < count; i++) {
+            final int index = this.in.position();
+            final int block = this.value(id, nestingLevel + 1);
+            elements.add(container ? block : index);
+        }
+        return this.addBlock(start, count, elements);
+    }
+
+    private int addBlock(final int start, final int count, final IntArrayList data) {
+        final int block = this.tape.size();
+        this.tape.add(start);
+        this.tape.add(count);
+        if (data != null) {
+            this.tape.addAll(data);
+        }
+        return block;
+    }
+
+    /**
+     * Returns the cleared scratch list of the given nesting level, which is free again once the tag at that level is indexed.
+     */
+    private IntArrayList scratch(final int nestingLevel) {
+        while (this.scratch.size() <= nestingLevel) {
+            this.scratch.add(new IntArrayList());
+        }
+
+        final IntArrayList list = this.scratch.get(nestingLevel);
+        list.clear();
+        return list;
+    }
+
+    private void skipArray(final int elementSize) throws IOException {
+        this.tagLimiter.countInt();
+        final int length = this.in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative array length: " + length);
+        }
+
+        final long bytes = (long) length * elementSize;
+        this.tagLimiter.countBytes((int) Math.min(bytes, Integer.MAX_VALUE));
+        this.skip(bytes);
+    }
+
+    private void skipString() throws IOException {
+        final int length = this.in.readUnsignedShort();
+        this.tagLimiter.countBytes(2 * length);
+        this.skip(length);
+    }
+
+    /**
+     * Returns the number of bytes counted for a number, matching the tag read methods, which count floats as doubles.
+     */
+    private static int countedSize(final int id, final int size) {
+        return id == FloatTag.ID ? Double.BYTES : size;
+    }
+
+    private void skip(final long bytes) throws IOException {
+        if (bytes > this.in.remaining()) {
+            throw new EOFException("Tried to read " + bytes + " bytes, but only " + this.in.remaining() + " are left");
+        }
+        this.in.skipBytes((int) bytes);
+    }
+}